@@ -1,5 +1,6 @@
 package com.financemanager;
 
+import com.financemanager.dao.DatabaseManager;
 import com.financemanager.ui.MainFrame;
 import com.formdev.flatlaf.FlatLightLaf;
 
@@ -26,6 +27,9 @@ public class Main {
         System.setProperty("awt.useSystemAAFontSettings", "on");
         System.setProperty("swing.aatext", "true");
         
+        // Close pooled connections on exit so the WAL is checkpointed
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> DatabaseManager.getInstance().shutdown()));
+        
         // Create and display the main frame
         SwingUtilities.invokeLater(() -> {
             try {
@@ -0,0 +1,228 @@
+package com.financemanager.analytics;
+
+import com.financemanager.dao.TransactionDAO;
+import com.financemanager.dao.TransactionFilter;
+import com.financemanager.model.DuplicateCandidate;
+import com.financemanager.model.Transaction;
+import com.financemanager.model.TransactionFingerprint;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Finds transactions that were probably recorded twice: exact matches by
+ * {@link TransactionFingerprint}, and near-duplicates with the same amount
+ * and type up to {@link #getWindowDays()} days apart whose descriptions
+ * are alike, as when a bank posts an entry a day later or words it
+ * differently in another statement.
+ *
+ * The ledger is read once in date order and only the rows of the last few
+ * days are kept, grouped by amount and type, so each row is compared with a
+ * handful of others and memory use does not depend on the ledger's size.
+ */
+public class DuplicateFinder {
+    public static final int DEFAULT_WINDOW_DAYS = 3;
+    // Enough to review; a larger result means something else went wrong
+    public static final int MAX_CANDIDATES = 10_000;
+    // Shortest description that may match a longer one it is a prefix of
+    private static final int MIN_PREFIX_LENGTH = 6;
+    private static final double MIN_WORD_OVERLAP = 0.5;
+    
+    private final TransactionDAO transactionDAO;
+    private final int windowDays;
+    
+    public DuplicateFinder(TransactionDAO transactionDAO) {
+        this(transactionDAO, DEFAULT_WINDOW_DAYS);
+    }
+    
+    public DuplicateFinder(TransactionDAO transactionDAO, int windowDays) {
+        if (windowDays < 0) {
+            throw new IllegalArgumentException("Window must not be negative: " + windowDays);
+        }
+        this.transactionDAO = transactionDAO;
+        this.windowDays = windowDays;
+    }
+    
+    public int getWindowDays() {
+        return windowDays;
+    }
+    
+    /**
+     * Finds the duplicates among the transactions dated [startDate, endDate],
+     * either bound null for an open range, pairing each row with at most one
+     * earlier-added original. When {@code afterId} is positive only pairs
+     * involving a transaction with a greater id, e.g. the rows of the last
+     * import, are reported. Exact matches come first, then by date.
+     */
+    public List<DuplicateCandidate> findDuplicates(LocalDate startDate, LocalDate endDate, int afterId) throws SQLException {
+        List<DuplicateCandidate> candidates = new ArrayList<>();
+        ArrayDeque<Entry> window = new ArrayDeque<>();
+        Map<Long, ArrayDeque<Entry>> byAmount = new HashMap<>();
+        
+        // Newest first; the window holds the rows up to windowDays after the current one
+        transactionDAO.forEachTransaction(TransactionFilter.all().withDateRange(startDate, endDate), transaction -> {
+            Entry entry = new Entry(transaction);
+            while (!window.isEmpty() && window.peekFirst().epochDay - entry.epochDay > windowDays) {
+                Entry expired = window.pollFirst();
+                ArrayDeque<Entry> sameAmount = byAmount.get(expired.key);
+                sameAmount.pollFirst();
+                if (sameAmount.isEmpty()) {
+                    byAmount.remove(expired.key);
+                }
+            }
+            
+            ArrayDeque<Entry> sameAmount = byAmount.computeIfAbsent(entry.key, k -> new ArrayDeque<>());
+            if (candidates.size() < MAX_CANDIDATES) {
+                DuplicateCandidate candidate = bestMatch(entry, sameAmount, afterId);
+                if (candidate != null) {
+                    candidates.add(candidate);
+                }
+            }
+            sameAmount.addLast(entry);
+            window.addLast(entry);
+        });
+        
+        candidates.sort(Comparator.comparing(DuplicateCandidate::getMatch)
+            .thenComparing(c -> c.getOriginal().getDate())
+            .thenComparingInt(c -> c.getOriginal().getId()));
+        return candidates;
+    }
+    
+    /**
+     * Finds the saved transactions that {@code transaction}, which need not
+     * be saved yet, would duplicate. Exact matches come first.
+     */
+    public List<DuplicateCandidate> findMatches(Transaction transaction) throws SQLException {
+        LocalDate date = transaction.getDate();
+        TransactionFilter filter = TransactionFilter.all()
+            .withDateRange(date.minusDays(windowDays), date.plusDays(windowDays))
+            .withType(transaction.getType());
+        Entry entry = new Entry(transaction);
+        List<DuplicateCandidate> matches = new ArrayList<>();
+        
+        transactionDAO.forEachTransaction(filter, existing -> {
+            if (existing.getId() != transaction.getId() && existing.getAmountCents() == transaction.getAmountCents()) {
+                DuplicateCandidate.Match match = entry.matches(new Entry(existing));
+                if (match != null) {
+                    matches.add(new DuplicateCandidate(existing, transaction, match));
+                }
+            }
+        });
+        
+        matches.sort(Comparator.comparing(DuplicateCandidate::getMatch)
+            .thenComparingLong(DuplicateCandidate::getDaysApart));
+        return matches;
+    }
+    
+    /**
+     * Pairs {@code entry} with the first row of the same amount and type in
+     * the window that it matches, preferring an exact match. The later-added
+     * row of a pair is its duplicate, and a row is claimed as a duplicate
+     * only once, so the rows of a triplicate pair up as original, copy,
+     * copy and deleting every duplicate keeps exactly one of them.
+     */
+    private static DuplicateCandidate bestMatch(Entry entry, ArrayDeque<Entry> sameAmount, int afterId) {
+        Entry similar = null;
+        for (Entry other : sameAmount) {
+            if (afterId > 0 && entry.transaction.getId() <= afterId && other.transaction.getId() <= afterId) {
+                continue;
+            }
+            if (other.claimed && other.transaction.getId() > entry.transaction.getId()) {
+                continue;
+            }
+            DuplicateCandidate.Match match = entry.matches(other);
+            if (match == DuplicateCandidate.Match.EXACT) {
+                return claim(entry, other, match);
+            }
+            if (match != null && similar == null) {
+                similar = other;
+            }
+        }
+        return similar != null ? claim(entry, similar, DuplicateCandidate.Match.SIMILAR) : null;
+    }
+    
+    private static DuplicateCandidate claim(Entry a, Entry b, DuplicateCandidate.Match match) {
+        Entry original = a.transaction.getId() < b.transaction.getId() ? a : b;
+        Entry duplicate = original == a ? b : a;
+        duplicate.claimed = true;
+        return new DuplicateCandidate(original.transaction, duplicate.transaction, match);
+    }
+    
+    /**
+     * Whether two normalised descriptions name the same payee. Numbers are
+     * ignored, since banks add reference and card numbers that differ
+     * between statements; then the descriptions must be equal, one a prefix
+     * of the other, as when a bank truncates it, or share at least half
+     * their words.
+     */
+    private static boolean isSimilar(String[] words, String[] otherWords) {
+        if (words.length == 0 || otherWords.length == 0) {
+            return false;
+        }
+        String text = String.join(" ", words);
+        String otherText = String.join(" ", otherWords);
+        String shorter = text.length() <= otherText.length() ? text : otherText;
+        String longer = shorter == text ? otherText : text;
+        if (longer.startsWith(shorter) && (shorter.length() >= MIN_PREFIX_LENGTH || shorter.equals(longer))) {
+            return true;
+        }
+        
+        Set<String> union = new HashSet<>(Arrays.asList(words));
+        Set<String> common = new HashSet<>(union);
+        List<String> others = Arrays.asList(otherWords);
+        common.retainAll(others);
+        union.addAll(others);
+        return common.size() >= MIN_WORD_OVERLAP * union.size();
+    }
+    
+    /**
+     * A transaction with its matching keys, the words of its description
+     * computed only if it is ever compared.
+     */
+    private static final class Entry {
+        final Transaction transaction;
+        final long epochDay;
+        final long key;
+        final long fingerprint;
+        // Already reported as the duplicate of another row
+        boolean claimed;
+        private String[] words;
+        
+        Entry(Transaction transaction) {
+            this.transaction = transaction;
+            this.epochDay = transaction.getDate().toEpochDay();
+            this.key = transaction.getAmountCents() * 2 + transaction.getType().ordinal();
+            this.fingerprint = TransactionFingerprint.of(transaction);
+        }
+        
+        /**
+         * How this entry matches another of the same amount and type, or
+         * null if it does not.
+         */
+        DuplicateCandidate.Match matches(Entry other) {
+            if (fingerprint == other.fingerprint) {
+                return DuplicateCandidate.Match.EXACT;
+            }
+            return isSimilar(words(), other.words()) ? DuplicateCandidate.Match.SIMILAR : null;
+        }
+        
+        String[] words() {
+            if (words == null) {
+                String normalized = TransactionFingerprint.normalizeDescription(transaction.getDescription());
+                words = Arrays.stream(normalized.split(" "))
+                    .filter(word -> !word.isEmpty() && !word.chars().allMatch(Character::isDigit))
+                    .toArray(String[]::new);
+            }
+            return words;
+        }
+    }
+}
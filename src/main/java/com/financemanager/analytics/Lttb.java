@@ -0,0 +1,66 @@
+package com.financemanager.analytics;
+
+/**
+ * Largest-Triangle-Three-Buckets downsampling (Steinarsson, 2013): picks
+ * the points of a line that best keep its visual shape. The first and last
+ * points are always kept; the points between are split into equal buckets,
+ * and from each bucket the point forming the largest triangle with the
+ * point kept before it and the average of the next bucket is kept. Peaks
+ * and dips survive, which plain striding or averaging would flatten.
+ */
+public final class Lttb {
+    private Lttb() {
+    }
+    
+    /**
+     * Indices, ascending, of at most {@code threshold} points of the line
+     * through (x[i], y[i]); {@code x} must be ascending. Every point is kept
+     * when there are no more than {@code threshold}, or fewer than three
+     * are asked for.
+     */
+    public static int[] select(double[] x, double[] y, int threshold) {
+        int n = x.length;
+        if (threshold >= n || threshold < 3) {
+            int[] all = new int[n];
+            for (int i = 0; i < n; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+        
+        int[] kept = new int[threshold];
+        double bucketSize = (double) (n - 2) / (threshold - 2);
+        int previous = 0;
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            // The third corner is the average of the next bucket, or the last point after the final bucket
+            int nextStart = (int) ((bucket + 1) * bucketSize) + 1;
+            int nextEnd = Math.min((int) ((bucket + 2) * bucketSize) + 1, n);
+            double averageX = 0;
+            double averageY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                averageX += x[i];
+                averageY += y[i];
+            }
+            averageX /= nextEnd - nextStart;
+            averageY /= nextEnd - nextStart;
+            
+            int start = (int) (bucket * bucketSize) + 1;
+            int end = (int) ((bucket + 1) * bucketSize) + 1;
+            double largestArea = -1;
+            int chosen = start;
+            for (int i = start; i < end; i++) {
+                // Twice the triangle's area; only the comparison matters
+                double area = Math.abs((x[previous] - averageX) * (y[i] - y[previous])
+                                       - (x[previous] - x[i]) * (averageY - y[previous]));
+                if (area > largestArea) {
+                    largestArea = area;
+                    chosen = i;
+                }
+            }
+            kept[bucket + 1] = chosen;
+            previous = chosen;
+        }
+        kept[threshold - 1] = n - 1;
+        return kept;
+    }
+}
@@ -0,0 +1,408 @@
+package com.financemanager.analytics;
+
+import com.financemanager.model.Money;
+import com.financemanager.model.Transaction;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Income and expense totals over any date range.
+ *
+ * Days are grouped into blocks of {@value #BLOCK_DAYS}, allocated only
+ * where transactions exist. Within a block every (category, type) pair, and
+ * each type across all categories, has a Fenwick tree of amounts and one of
+ * row counts indexed by day, whose root holds the block's total. A range
+ * total is the sum of the whole blocks it spans plus two partial prefix
+ * sums, so it costs O(blocks + log days), and a stray date such as year 1
+ * or 9999 costs one more block rather than a window reaching out to it.
+ *
+ * Maintained by {@link TransactionColumnStore} on every write; the query
+ * methods are safe to call from any thread.
+ */
+public final class RangeTotals {
+    // About 2.8 years; a power of two, so the last tree node is the block total
+    private static final int BLOCK_DAYS = 1024;
+    private static final int TYPES = 2;
+    private static final int ALL_CATEGORIES = -1;
+    
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Blocks in ascending day order, with their first days alongside for searching
+    private Block[] blocks = new Block[0];
+    private int[] blockStarts = new int[0];
+    private int blockCount;
+    // One more than the highest key any block has trees for
+    private int keyCount;
+    
+    RangeTotals() {
+    }
+    
+    /**
+     * Total of one type over [startDate, endDate]; either bound may be null.
+     */
+    public Money getTotal(Transaction.TransactionType type, LocalDate startDate, LocalDate endDate) {
+        return getTotal(type, ALL_CATEGORIES, startDate, endDate);
+    }
+    
+    /**
+     * Total of one type and category over [startDate, endDate]; either bound
+     * may be null. Category 0 holds transactions without a category.
+     */
+    public Money getTotal(Transaction.TransactionType type, int categoryId, LocalDate startDate, LocalDate endDate) {
+        lock.readLock().lock();
+        try {
+            return Money.ofCents(sum(key(categoryId, typeCode(type)), firstDay(startDate), lastDay(endDate)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Number of transactions of one type and category over [startDate, endDate].
+     */
+    public int getCount(Transaction.TransactionType type, int categoryId, LocalDate startDate, LocalDate endDate) {
+        lock.readLock().lock();
+        try {
+            return count(key(categoryId, typeCode(type)), firstDay(startDate), lastDay(endDate));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Income minus expenses of every transaction up to and including
+     * {@code asOf}, or of all transactions when it is null.
+     */
+    public Money getBalance(LocalDate asOf) {
+        lock.readLock().lock();
+        try {
+            int last = lastDay(asOf);
+            return Money.ofCents(
+                sum(key(ALL_CATEGORIES, TransactionColumnStore.TYPE_INCOME), Integer.MIN_VALUE, last)
+                - sum(key(ALL_CATEGORIES, TransactionColumnStore.TYPE_EXPENSE), Integer.MIN_VALUE, last));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Sums and counts over [firstDay, lastDay] of every (category, type),
+     * indexed by {@code categoryId * 2 + type code}.
+     */
+    Breakdown breakdown(int firstDay, int lastDay) {
+        lock.readLock().lock();
+        try {
+            int slots = Math.max(0, keyCount - TYPES);
+            long[] sums = new long[slots];
+            int[] counts = new int[slots];
+            for (int slot = 0; slot < slots; slot++) {
+                counts[slot] = count(slot + TYPES, firstDay, lastDay);
+                if (counts[slot] != 0) {
+                    sums[slot] = sum(slot + TYPES, firstDay, lastDay);
+                }
+            }
+            return new Breakdown(sums, counts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Income and expense totals across all categories of consecutive
+     * buckets, as {income, expense} arrays: bucket {@code i} covers the days
+     * from {@code bucketStarts[i]} up to the next start, the last one up to
+     * {@code lastDay}. Each total is the difference of the prefix sums at the
+     * bucket's boundaries, all read under one lock, so they agree.
+     */
+    long[][] bucketSums(int[] bucketStarts, int lastDay) {
+        lock.readLock().lock();
+        try {
+            int buckets = bucketStarts.length;
+            long[][] totals = new long[TYPES][buckets];
+            for (int type = 0; type < TYPES; type++) {
+                int key = key(ALL_CATEGORIES, type);
+                long previous = buckets == 0 ? 0 : sum(key, Integer.MIN_VALUE, bucketStarts[0] - 1);
+                for (int bucket = 0; bucket < buckets; bucket++) {
+                    int end = bucket + 1 < buckets ? bucketStarts[bucket + 1] - 1 : lastDay;
+                    long prefix = sum(key, Integer.MIN_VALUE, end);
+                    totals[type][bucket] = prefix - previous;
+                    previous = prefix;
+                }
+            }
+            return totals;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Heap used by the trees.
+     */
+    long memoryBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = 0;
+            for (int b = 0; b < blockCount; b++) {
+                for (long[] tree : blocks[b].sumTrees) {
+                    if (tree != null) {
+                        bytes += (long) tree.length * (Long.BYTES + Integer.BYTES);
+                    }
+                }
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Adds {@code cents} and {@code count} (negative to remove) on
+     * {@code epochDay} for the category and type code.
+     */
+    void add(int categoryId, int typeCode, int epochDay, long cents, int count) {
+        lock.writeLock().lock();
+        try {
+            Block block = blockFor(epochDay);
+            int index = epochDay - block.firstDay + 1;
+            block.update(key(ALL_CATEGORIES, typeCode), index, cents, count);
+            block.update(key(categoryId, typeCode), index, cents, count);
+            keyCount = Math.max(keyCount, block.sumTrees.length);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Replaces all totals with those of the first {@code size} rows of the
+     * given columns, building every tree in linear time.
+     */
+    void rebuild(int[] epochDays, int[] categoryIds, byte[] types, long[] cents, int size) {
+        lock.writeLock().lock();
+        try {
+            blocks = new Block[0];
+            blockStarts = new int[0];
+            blockCount = 0;
+            keyCount = 0;
+            
+            // Accumulate plain per-day values first, then turn each array into a tree
+            Block block = null;
+            for (int i = 0; i < size; i++) {
+                int type = types[i];
+                if (type >= TYPES) {
+                    continue;
+                }
+                int day = epochDays[i];
+                if (block == null || blockStart(day) != block.firstDay) {
+                    block = blockFor(day);
+                }
+                int index = day - block.firstDay + 1;
+                block.addValue(key(ALL_CATEGORIES, type), index, cents[i]);
+                block.addValue(key(categoryIds[i], type), index, cents[i]);
+            }
+            for (int b = 0; b < blockCount; b++) {
+                Block built = blocks[b];
+                for (int key = 0; key < built.sumTrees.length; key++) {
+                    if (built.sumTrees[key] != null) {
+                        toTree(built.sumTrees[key], built.countTrees[key]);
+                    }
+                }
+                keyCount = Math.max(keyCount, built.sumTrees.length);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    private static int key(int categoryId, int typeCode) {
+        return (categoryId + 1) * TYPES + typeCode;
+    }
+    
+    private static int typeCode(Transaction.TransactionType type) {
+        return type == Transaction.TransactionType.INCOME
+            ? TransactionColumnStore.TYPE_INCOME
+            : TransactionColumnStore.TYPE_EXPENSE;
+    }
+    
+    private static int firstDay(LocalDate date) {
+        return date != null ? (int) date.toEpochDay() : Integer.MIN_VALUE;
+    }
+    
+    private static int lastDay(LocalDate date) {
+        return date != null ? (int) date.toEpochDay() : Integer.MAX_VALUE;
+    }
+    
+    private long sum(int key, int firstDay, int lastDay) {
+        long total = 0;
+        for (int b = firstBlock(firstDay); b < blockCount && blocks[b].firstDay <= lastDay; b++) {
+            total += blocks[b].sum(key, firstDay, lastDay);
+        }
+        return total;
+    }
+    
+    private int count(int key, int firstDay, int lastDay) {
+        int total = 0;
+        for (int b = firstBlock(firstDay); b < blockCount && blocks[b].firstDay <= lastDay; b++) {
+            total += blocks[b].count(key, firstDay, lastDay);
+        }
+        return total;
+    }
+    
+    private static int blockStart(int epochDay) {
+        return epochDay & -BLOCK_DAYS;
+    }
+    
+    /**
+     * Position of the first block that ends on or after {@code epochDay}.
+     */
+    private int firstBlock(int epochDay) {
+        int position = Arrays.binarySearch(blockStarts, 0, blockCount, blockStart(epochDay));
+        return position >= 0 ? position : -position - 1;
+    }
+    
+    /**
+     * The block holding {@code epochDay}, inserted if there is none yet.
+     */
+    private Block blockFor(int epochDay) {
+        int start = blockStart(epochDay);
+        int position = Arrays.binarySearch(blockStarts, 0, blockCount, start);
+        if (position >= 0) {
+            return blocks[position];
+        }
+        position = -position - 1;
+        if (blockCount == blocks.length) {
+            blocks = Arrays.copyOf(blocks, blockCount * 2 + 1);
+            blockStarts = Arrays.copyOf(blockStarts, blockCount * 2 + 1);
+        }
+        System.arraycopy(blocks, position, blocks, position + 1, blockCount - position);
+        System.arraycopy(blockStarts, position, blockStarts, position + 1, blockCount - position);
+        Block block = new Block(start);
+        blocks[position] = block;
+        blockStarts[position] = start;
+        blockCount++;
+        return block;
+    }
+    
+    /**
+     * Converts per-day values into Fenwick trees in place, in linear time.
+     */
+    private static void toTree(long[] sums, int[] counts) {
+        int n = sums.length - 1;
+        for (int i = 1; i <= n; i++) {
+            int parent = i + (i & -i);
+            if (parent <= n) {
+                sums[parent] += sums[i];
+                counts[parent] += counts[i];
+            }
+        }
+    }
+    
+    /**
+     * The trees of one block of days, indexed by key and allocated on first
+     * use. Tree index 1 is the block's first day.
+     */
+    private static final class Block {
+        final int firstDay;
+        long[][] sumTrees = new long[0][];
+        int[][] countTrees = new int[0][];
+        
+        Block(int firstDay) {
+            this.firstDay = firstDay;
+        }
+        
+        long sum(int key, int fromDay, int toDay) {
+            if (key >= sumTrees.length || sumTrees[key] == null) {
+                return 0;
+            }
+            long[] tree = sumTrees[key];
+            int from = indexFrom(fromDay);
+            int to = indexTo(toDay);
+            if (from > to) {
+                return 0;
+            }
+            long total = 0;
+            for (int i = to; i > 0; i -= i & -i) {
+                total += tree[i];
+            }
+            for (int i = from - 1; i > 0; i -= i & -i) {
+                total -= tree[i];
+            }
+            return total;
+        }
+        
+        int count(int key, int fromDay, int toDay) {
+            if (key >= countTrees.length || countTrees[key] == null) {
+                return 0;
+            }
+            int[] tree = countTrees[key];
+            int from = indexFrom(fromDay);
+            int to = indexTo(toDay);
+            if (from > to) {
+                return 0;
+            }
+            int total = 0;
+            for (int i = to; i > 0; i -= i & -i) {
+                total += tree[i];
+            }
+            for (int i = from - 1; i > 0; i -= i & -i) {
+                total -= tree[i];
+            }
+            return total;
+        }
+        
+        void update(int key, int index, long cents, int count) {
+            allocate(key);
+            long[] sums = sumTrees[key];
+            int[] counts = countTrees[key];
+            for (int i = index; i <= BLOCK_DAYS; i += i & -i) {
+                sums[i] += cents;
+                counts[i] += count;
+            }
+        }
+        
+        void addValue(int key, int index, long cents) {
+            allocate(key);
+            sumTrees[key][index] += cents;
+            countTrees[key][index]++;
+        }
+        
+        /**
+         * Tree index of the first day of a range, clamped to the block.
+         */
+        private int indexFrom(int fromDay) {
+            return (int) (Math.max((long) fromDay, firstDay) - firstDay + 1);
+        }
+        
+        /**
+         * Tree index of the last day of a range, clamped to the block.
+         */
+        private int indexTo(int toDay) {
+            return (int) (Math.min((long) toDay, (long) firstDay + BLOCK_DAYS - 1) - firstDay + 1);
+        }
+        
+        private void allocate(int key) {
+            if (key >= sumTrees.length) {
+                sumTrees = Arrays.copyOf(sumTrees, key + TYPES);
+                countTrees = Arrays.copyOf(countTrees, key + TYPES);
+            }
+            if (sumTrees[key] == null) {
+                sumTrees[key] = new long[BLOCK_DAYS + 1];
+                countTrees[key] = new int[BLOCK_DAYS + 1];
+            }
+        }
+    }
+    
+    /**
+     * Per-(category, type) sums and counts for one range.
+     */
+    static final class Breakdown {
+        final long[] sums;
+        final int[] counts;
+        
+        Breakdown(long[] sums, int[] counts) {
+            this.sums = sums;
+            this.counts = counts;
+        }
+    }
+}
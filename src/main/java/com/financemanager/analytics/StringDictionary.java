@@ -0,0 +1,42 @@
+package com.financemanager.analytics;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Dictionary encoding for a string column: each distinct value is stored
+ * once and rows hold its int code. Ledger descriptions repeat heavily
+ * ("Rent", "Groceries", ...), so this costs a fraction of a String per row.
+ * Not thread-safe; guarded by the owning store's lock.
+ */
+final class StringDictionary {
+    // Rough heap cost of one entry: String and its byte[] headers plus a HashMap node
+    private static final int ENTRY_OVERHEAD_BYTES = 96;
+    
+    private final Map<String, Integer> codes = new HashMap<>();
+    private long valueBytes;
+    
+    /**
+     * The code of {@code value}, adding it if unseen. Null maps to -1.
+     */
+    int encode(String value) {
+        if (value == null) {
+            return -1;
+        }
+        Integer code = codes.get(value);
+        if (code == null) {
+            code = codes.size();
+            codes.put(value, code);
+            valueBytes += ENTRY_OVERHEAD_BYTES + value.length();
+        }
+        return code;
+    }
+    
+    int size() {
+        return codes.size();
+    }
+    
+    long memoryBytes() {
+        return valueBytes;
+    }
+}
@@ -0,0 +1,493 @@
+package com.financemanager.analytics;
+
+import com.financemanager.dao.CategoryDAO;
+import com.financemanager.dao.TransactionDAO;
+import com.financemanager.dao.TransactionFilter;
+import com.financemanager.event.BulkDeleted;
+import com.financemanager.event.BulkImported;
+import com.financemanager.event.DataChangeBus;
+import com.financemanager.event.DataChangeEvent;
+import com.financemanager.event.TransactionDeleted;
+import com.financemanager.event.TransactionInserted;
+import com.financemanager.event.TransactionUpdated;
+import com.financemanager.model.Category;
+import com.financemanager.model.CategoryTotal;
+import com.financemanager.model.DashboardSummary;
+import com.financemanager.model.Money;
+import com.financemanager.model.Transaction;
+import com.financemanager.model.TrendSeries;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Read-optimised, in-memory copy of the transactions table for analytics.
+ *
+ * Each column is a primitive array indexed by row, with rows kept in
+ * ascending id order, and descriptions are dictionary-encoded. The store is
+ * loaded once with a streaming scan and then kept current by the change
+ * events {@link TransactionDAO} publishes on {@link DataChangeBus}; until {@link #load()} completes, callers
+ * should fall back to SQL. Totals are answered by {@link RangeTotals}, which
+ * the store updates along with the columns, so aggregates never scan rows.
+ */
+public class TransactionColumnStore {
+    static final byte TYPE_INCOME = 0;
+    static final byte TYPE_EXPENSE = 1;
+    private static final byte TYPE_DELETED = 2;
+    private static final int INITIAL_CAPACITY = 1024;
+    
+    private final TransactionDAO transactionDAO;
+    private final CategoryDAO categoryDAO;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final RangeTotals rangeTotals = new RangeTotals();
+    // Writes that arrive while the initial scan runs, replayed once it is swapped in
+    private final List<Runnable> pendingWrites = new ArrayList<>();
+    // Set, with pendingWrites held, once the queue has been drained; read without it
+    private volatile boolean loaded;
+    // Transactions version of the last change applied; only the thread applying changes sets it
+    private volatile long appliedVersion;
+    
+    private Columns columns = new Columns(INITIAL_CAPACITY, rangeTotals);
+    
+    public TransactionColumnStore(TransactionDAO transactionDAO, CategoryDAO categoryDAO) {
+        this.transactionDAO = transactionDAO;
+        this.categoryDAO = categoryDAO;
+        DataChangeBus.subscribe(TransactionInserted.class, e -> applyOrQueue(e, upsertOf(e.getTransaction())));
+        DataChangeBus.subscribe(TransactionUpdated.class, e -> applyOrQueue(e, upsertOf(e.getAfter())));
+        DataChangeBus.subscribe(TransactionDeleted.class, e -> applyOrQueue(e, deleteOf(e.getId())));
+        DataChangeBus.subscribe(BulkImported.class, e -> applyOrQueue(e, this::catchUp));
+        DataChangeBus.subscribe(BulkDeleted.class, e -> applyOrQueue(e, deleteOf(e.getIds())));
+    }
+    
+    /**
+     * Scans the whole transactions table into a fresh set of columns. Writes
+     * made during the scan are queued and applied on top of it afterwards.
+     * Called once, at startup.
+     */
+    public void load() throws SQLException {
+        // Changes published after this are queued and replayed, so the scan reflects at least this version
+        long scanVersion = DataChangeBus.getVersion(DataChangeEvent.Kind.TRANSACTIONS);
+        // Range totals are built in one go after the scan rather than row by row
+        Columns loading = new Columns(Math.max(INITIAL_CAPACITY, transactionDAO.countTransactions()), null);
+        transactionDAO.forEachTransactionAfter(0, loading::append);
+        
+        lock.writeLock().lock();
+        try {
+            rangeTotals.rebuild(loading.epochDays, loading.categoryIds, loading.types, loading.cents, loading.size);
+            loading.rangeTotals = rangeTotals;
+            columns = loading;
+            appliedVersion = scanVersion;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        
+        // Replay outside the monitor, since a catch-up runs SQL; writes queued meanwhile go in the next round
+        while (true) {
+            List<Runnable> replay;
+            synchronized (pendingWrites) {
+                if (pendingWrites.isEmpty()) {
+                    loaded = true;
+                    return;
+                }
+                replay = new ArrayList<>(pendingWrites);
+                pendingWrites.clear();
+            }
+            for (Runnable write : replay) {
+                write.run();
+            }
+        }
+    }
+    
+    /**
+     * Date-range totals over the transactions held, kept current with them.
+     */
+    public RangeTotals getRangeTotals() {
+        return rangeTotals;
+    }
+    
+    public boolean isLoaded() {
+        return loaded;
+    }
+    
+    /**
+     * Like {@link DataChangeBus#getVersion}, but with the transactions
+     * version the store reflects once it is loaded. The bus moves its
+     * version on before delivering a change, so a load answered from the
+     * store must record this one, or it could file a result computed before
+     * the store applied the change under the version that includes it.
+     */
+    public long getVersion(DataChangeEvent.Kind... kinds) {
+        long version = 0;
+        for (DataChangeEvent.Kind kind : kinds) {
+            version += kind == DataChangeEvent.Kind.TRANSACTIONS && loaded
+                ? appliedVersion
+                : DataChangeBus.getVersion(kind);
+        }
+        return version;
+    }
+    
+    /**
+     * Number of live transactions held.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return columns.size - columns.deleted;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Estimated heap used by the columns, the description dictionary and
+     * the range totals.
+     */
+    public long getMemoryBytes() {
+        lock.readLock().lock();
+        try {
+            return columns.memoryBytes() + rangeTotals.memoryBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public double getBytesPerRow() {
+        lock.readLock().lock();
+        try {
+            int live = columns.size - columns.deleted;
+            return live == 0 ? 0 : (double) (columns.memoryBytes() + rangeTotals.memoryBytes()) / live;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Equivalent of {@link TransactionDAO#getTotalsByCategory(TransactionFilter)}
+     * computed from memory: totals per category and type, largest first.
+     */
+    public List<CategoryTotal> getTotalsByCategory(TransactionFilter filter) throws SQLException {
+        int first = filter.getStartDate() != null ? (int) filter.getStartDate().toEpochDay() : Integer.MIN_VALUE;
+        int last = filter.getEndDate() != null ? (int) filter.getEndDate().toEpochDay() : Integer.MAX_VALUE;
+        RangeTotals.Breakdown breakdown = rangeTotals.breakdown(first, last);
+        long[] sums = breakdown.sums;
+        int[] counts = breakdown.counts;
+        
+        // Like the SQL join, totals of unknown categories are dropped
+        Map<Integer, Category> categories = new HashMap<>();
+        for (Category category : categoryDAO.getAllCategories()) {
+            categories.put(category.getId(), category);
+        }
+        
+        List<CategoryTotal> totals = new ArrayList<>();
+        for (int slot = 0; slot < sums.length; slot++) {
+            if (counts[slot] == 0) {
+                continue;
+            }
+            Transaction.TransactionType type = toType((byte) (slot % 2));
+            Category category = categories.get(slot / 2);
+            if (category == null
+                    || (filter.getType() != null && filter.getType() != type)
+                    || (filter.getCategoryId() != null && filter.getCategoryId() != category.getId())) {
+                continue;
+            }
+            totals.add(new CategoryTotal(category.getId(), category.getName(), category.getColor(),
+                type, sums[slot], counts[slot]));
+        }
+        totals.sort((a, b) -> Long.compare(b.getTotalCents(), a.getTotalCents()));
+        return totals;
+    }
+    
+    /**
+     * Equivalent of {@link TransactionDAO#getSummary(LocalDate, LocalDate)},
+     * answered from the range totals without touching any rows.
+     */
+    public DashboardSummary getSummary(LocalDate monthStart, LocalDate monthEnd) {
+        LocalDate yearStart = monthEnd.withDayOfYear(1);
+        LocalDate previousMonthStart = monthStart.minusMonths(1).withDayOfMonth(1);
+        LocalDate previousMonthEnd = monthStart.minusDays(1);
+        Transaction.TransactionType income = Transaction.TransactionType.INCOME;
+        Transaction.TransactionType expense = Transaction.TransactionType.EXPENSE;
+        
+        return new DashboardSummary(monthStart, monthEnd,
+            rangeTotals.getTotal(income, null, null), rangeTotals.getTotal(expense, null, null),
+            rangeTotals.getTotal(income, monthStart, monthEnd), rangeTotals.getTotal(expense, monthStart, monthEnd),
+            rangeTotals.getTotal(income, yearStart, monthEnd), rangeTotals.getTotal(expense, yearStart, monthEnd),
+            rangeTotals.getTotal(income, previousMonthStart, previousMonthEnd),
+            rangeTotals.getTotal(expense, previousMonthStart, previousMonthEnd));
+    }
+    
+    /**
+     * Dates of the oldest and newest transactions held as {first, last}, or
+     * null when there are none.
+     */
+    public LocalDate[] getDateRange() {
+        lock.readLock().lock();
+        try {
+            int first = Integer.MAX_VALUE;
+            int last = Integer.MIN_VALUE;
+            for (int i = 0; i < columns.size; i++) {
+                if (columns.types[i] != TYPE_DELETED) {
+                    first = Math.min(first, columns.epochDays[i]);
+                    last = Math.max(last, columns.epochDays[i]);
+                }
+            }
+            return first > last ? null : new LocalDate[] {LocalDate.ofEpochDay(first), LocalDate.ofEpochDay(last)};
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Income and expense totals of every bucket overlapping [startDate,
+     * endDate], edge buckets included whole, like {@link
+     * TransactionDAO#getMonthlyTrend} at any granularity. Built from prefix
+     * sums of the range trees at the bucket boundaries without touching any rows.
+     */
+    public TrendSeries getTrend(TrendSeries.Granularity granularity, LocalDate startDate, LocalDate endDate) {
+        LocalDate first = granularity.bucketStart(startDate);
+        LocalDate last = granularity.bucketEnd(endDate);
+        int[] bucketStarts = new int[Math.max(0, granularity.bucketCount(first, last))];
+        LocalDate bucketStart = first;
+        for (int i = 0; i < bucketStarts.length; i++) {
+            bucketStarts[i] = (int) bucketStart.toEpochDay();
+            bucketStart = granularity.bucketEnd(bucketStart).plusDays(1);
+        }
+        long[][] totals = rangeTotals.bucketSums(bucketStarts, (int) last.toEpochDay());
+        
+        TrendSeries.Builder series = TrendSeries.builder(granularity, first, last);
+        for (int i = 0; i < bucketStarts.length; i++) {
+            if (totals[TYPE_INCOME][i] != 0 || totals[TYPE_EXPENSE][i] != 0) {
+                LocalDate date = LocalDate.ofEpochDay(bucketStarts[i]);
+                series.add(date, Transaction.TransactionType.INCOME, totals[TYPE_INCOME][i]);
+                series.add(date, Transaction.TransactionType.EXPENSE, totals[TYPE_EXPENSE][i]);
+            }
+        }
+        return series.build();
+    }
+    
+    private Runnable deleteOf(int... ids) {
+        return () -> {
+            lock.writeLock().lock();
+            try {
+                for (int id : ids) {
+                    columns.delete(id);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        };
+    }
+    
+    /**
+     * Appends every row inserted after the newest one held.
+     */
+    private void catchUp() {
+        int lastId;
+        lock.readLock().lock();
+        try {
+            lastId = columns.size == 0 ? 0 : columns.ids[columns.size - 1];
+        } finally {
+            lock.readLock().unlock();
+        }
+        
+        try {
+            transactionDAO.forEachTransactionAfter(lastId, transaction -> upsertOf(transaction).run());
+        } catch (SQLException e) {
+            System.err.println("Error updating column store: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+    
+    private void applyOrQueue(DataChangeEvent event, Runnable change) {
+        Runnable write = () -> {
+            change.run();
+            // A change queued during the load may predate the scan version
+            appliedVersion = Math.max(appliedVersion, event.getVersion());
+        };
+        if (!loaded) {
+            synchronized (pendingWrites) {
+                if (!loaded) {
+                    pendingWrites.add(write);
+                    return;
+                }
+            }
+        }
+        write.run();
+    }
+    
+    /**
+     * Copies the row out of {@code transaction} now and returns the write
+     * that stores the copy.
+     */
+    private Runnable upsertOf(Transaction transaction) {
+        int id = transaction.getId();
+        int epochDay = (int) transaction.getDate().toEpochDay();
+        long cents = transaction.getAmountCents();
+        int categoryId = transaction.getCategoryId();
+        byte type = toCode(transaction.getType());
+        String description = transaction.getDescription();
+        
+        return () -> {
+            lock.writeLock().lock();
+            try {
+                columns.upsert(id, epochDay, cents, categoryId, type, description);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        };
+    }
+    
+    private static byte toCode(Transaction.TransactionType type) {
+        return type == Transaction.TransactionType.INCOME ? TYPE_INCOME : TYPE_EXPENSE;
+    }
+    
+    private static Transaction.TransactionType toType(byte code) {
+        return code == TYPE_INCOME ? Transaction.TransactionType.INCOME : Transaction.TransactionType.EXPENSE;
+    }
+    
+    /**
+     * The column arrays themselves. Rows are sorted by id, so a row is found
+     * by binary search; deleted rows are tombstoned and compacted away once
+     * they make up a noticeable share of the store.
+     */
+    private static final class Columns {
+        int[] ids;
+        int[] epochDays;
+        long[] cents;
+        int[] categoryIds;
+        byte[] types;
+        int[] descriptionCodes;
+        final StringDictionary descriptions = new StringDictionary();
+        int size;
+        int deleted;
+        // Kept in step with every change to the rows; null while loading
+        RangeTotals rangeTotals;
+        
+        Columns(int capacity, RangeTotals rangeTotals) {
+            this.rangeTotals = rangeTotals;
+            ids = new int[capacity];
+            epochDays = new int[capacity];
+            cents = new long[capacity];
+            categoryIds = new int[capacity];
+            types = new byte[capacity];
+            descriptionCodes = new int[capacity];
+        }
+        
+        /**
+         * Adds a row loaded in ascending id order.
+         */
+        void append(Transaction transaction) {
+            insertAt(size, transaction.getId(), (int) transaction.getDate().toEpochDay(),
+                transaction.getAmountCents(), transaction.getCategoryId(), toCode(transaction.getType()),
+                transaction.getDescription());
+        }
+        
+        void upsert(int id, int epochDay, long amount, int categoryId, byte type, String description) {
+            int index = indexOf(id);
+            if (index < 0) {
+                insertAt(-index - 1, id, epochDay, amount, categoryId, type, description);
+            } else if (types[index] != TYPE_DELETED) {
+                addToTotals(index, -1);
+                epochDays[index] = epochDay;
+                cents[index] = amount;
+                categoryIds[index] = Math.max(categoryId, 0);
+                types[index] = type;
+                descriptionCodes[index] = descriptions.encode(description);
+                addToTotals(index, 1);
+            }
+        }
+        
+        void delete(int id) {
+            int index = indexOf(id);
+            if (index < 0 || types[index] == TYPE_DELETED) {
+                return;
+            }
+            addToTotals(index, -1);
+            types[index] = TYPE_DELETED;
+            cents[index] = 0;
+            deleted++;
+            if (deleted > 1024 && deleted > size / 8) {
+                compact();
+            }
+        }
+        
+        long memoryBytes() {
+            long perRow = Integer.BYTES * 5L + Long.BYTES + Byte.BYTES;
+            return ids.length * perRow + descriptions.memoryBytes();
+        }
+        
+        private int indexOf(int id) {
+            return Arrays.binarySearch(ids, 0, size, id);
+        }
+        
+        private void insertAt(int index, int id, int epochDay, long amount, int categoryId, byte type,
+                              String description) {
+            if (size == ids.length) {
+                grow();
+            }
+            if (index < size) {
+                // Only reached by a write that raced the initial scan; appends are the normal case
+                int moved = size - index;
+                System.arraycopy(ids, index, ids, index + 1, moved);
+                System.arraycopy(epochDays, index, epochDays, index + 1, moved);
+                System.arraycopy(cents, index, cents, index + 1, moved);
+                System.arraycopy(categoryIds, index, categoryIds, index + 1, moved);
+                System.arraycopy(types, index, types, index + 1, moved);
+                System.arraycopy(descriptionCodes, index, descriptionCodes, index + 1, moved);
+            }
+            ids[index] = id;
+            epochDays[index] = epochDay;
+            cents[index] = amount;
+            categoryIds[index] = Math.max(categoryId, 0);
+            types[index] = type;
+            descriptionCodes[index] = descriptions.encode(description);
+            size++;
+            addToTotals(index, 1);
+        }
+        
+        /**
+         * Adds ({@code sign} 1) or removes ({@code sign} -1) row
+         * {@code index} from the range totals.
+         */
+        private void addToTotals(int index, int sign) {
+            if (rangeTotals != null) {
+                rangeTotals.add(categoryIds[index], types[index], epochDays[index], sign * cents[index], sign);
+            }
+        }
+        
+        private void grow() {
+            int capacity = ids.length + (ids.length >> 1) + 1;
+            ids = Arrays.copyOf(ids, capacity);
+            epochDays = Arrays.copyOf(epochDays, capacity);
+            cents = Arrays.copyOf(cents, capacity);
+            categoryIds = Arrays.copyOf(categoryIds, capacity);
+            types = Arrays.copyOf(types, capacity);
+            descriptionCodes = Arrays.copyOf(descriptionCodes, capacity);
+        }
+        
+        private void compact() {
+            int target = 0;
+            for (int i = 0; i < size; i++) {
+                if (types[i] == TYPE_DELETED) {
+                    continue;
+                }
+                ids[target] = ids[i];
+                epochDays[target] = epochDays[i];
+                cents[target] = cents[i];
+                categoryIds[target] = categoryIds[i];
+                types[target] = types[i];
+                descriptionCodes[target] = descriptionCodes[i];
+                target++;
+            }
+            size = target;
+            deleted = 0;
+        }
+    }
+}
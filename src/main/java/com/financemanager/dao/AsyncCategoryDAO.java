@@ -0,0 +1,46 @@
+package com.financemanager.dao;
+
+import com.financemanager.model.Category;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking facade over {@link CategoryDAO}, with the same execution
+ * and cancellation rules as {@link AsyncTransactionDAO}.
+ */
+public class AsyncCategoryDAO {
+    private final CategoryDAO categoryDAO;
+    
+    public AsyncCategoryDAO(CategoryDAO categoryDAO) {
+        this.categoryDAO = categoryDAO;
+    }
+    
+    public CategoryDAO getDelegate() {
+        return categoryDAO;
+    }
+    
+    public CompletableFuture<List<Category>> getAllCategories() {
+        return DaoExecutors.read(categoryDAO::getAllCategories);
+    }
+    
+    public CompletableFuture<Category> getCategoryById(int id) {
+        return DaoExecutors.read(() -> categoryDAO.getCategoryById(id));
+    }
+    
+    public CompletableFuture<Boolean> categoryExists(String name) {
+        return DaoExecutors.read(() -> categoryDAO.categoryExists(name));
+    }
+    
+    public CompletableFuture<Integer> insertCategory(Category category) {
+        return DaoExecutors.write(() -> categoryDAO.insertCategory(category));
+    }
+    
+    public CompletableFuture<Boolean> updateCategory(Category category) {
+        return DaoExecutors.write(() -> categoryDAO.updateCategory(category));
+    }
+    
+    public CompletableFuture<Boolean> deleteCategory(int id) {
+        return DaoExecutors.write(() -> categoryDAO.deleteCategory(id));
+    }
+}
@@ -0,0 +1,107 @@
+package com.financemanager.dao;
+
+import com.financemanager.model.CategoryTotal;
+import com.financemanager.model.DashboardSummary;
+import com.financemanager.model.Money;
+import com.financemanager.model.Transaction;
+import com.financemanager.model.TrendSeries;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking facade over {@link TransactionDAO}.
+ *
+ * Reads run on the bounded read executor and writes on the single writer
+ * thread, in the order they are submitted. Failures complete the future
+ * exceptionally with the original SQLException. Cancelling a returned
+ * future with {@code cancel(true)} also cancels the SQL statement it is
+ * running; completion stages are not run on the EDT, so UI code must hop
+ * back with {@code SwingUtilities.invokeLater}.
+ */
+public class AsyncTransactionDAO {
+    private final TransactionDAO transactionDAO;
+    
+    public AsyncTransactionDAO(TransactionDAO transactionDAO) {
+        this.transactionDAO = transactionDAO;
+    }
+    
+    public TransactionDAO getDelegate() {
+        return transactionDAO;
+    }
+    
+    public CompletableFuture<List<Transaction>> getAllTransactions() {
+        return DaoExecutors.read(transactionDAO::getAllTransactions);
+    }
+    
+    public CompletableFuture<List<Transaction>> getTransactions(TransactionFilter filter) {
+        return DaoExecutors.read(() -> transactionDAO.getTransactions(filter));
+    }
+    
+    public CompletableFuture<List<Transaction>> getTransactionPage(PageKey after, int limit) {
+        return DaoExecutors.read(() -> transactionDAO.getTransactionPage(after, limit));
+    }
+    
+    public CompletableFuture<PageKey> getPageKeyAtOffset(int offset) {
+        return DaoExecutors.read(() -> transactionDAO.getPageKeyAtOffset(offset));
+    }
+    
+    public CompletableFuture<Integer> countTransactions() {
+        return DaoExecutors.read(transactionDAO::countTransactions);
+    }
+    
+    public CompletableFuture<Integer> countTransactionsBefore(PageKey key) {
+        return DaoExecutors.read(() -> transactionDAO.countTransactionsBefore(key));
+    }
+    
+    public CompletableFuture<Transaction> getTransactionById(int id) {
+        return DaoExecutors.read(() -> transactionDAO.getTransactionById(id));
+    }
+    
+    public CompletableFuture<Money> getTotalIncome() {
+        return DaoExecutors.read(transactionDAO::getTotalIncome);
+    }
+    
+    public CompletableFuture<Money> getTotalExpenses() {
+        return DaoExecutors.read(transactionDAO::getTotalExpenses);
+    }
+    
+    public CompletableFuture<DashboardSummary> getSummary(LocalDate monthStart, LocalDate monthEnd) {
+        return DaoExecutors.read(() -> transactionDAO.getSummary(monthStart, monthEnd));
+    }
+    
+    public CompletableFuture<List<CategoryTotal>> getTotalsByCategory(TransactionFilter filter) {
+        return DaoExecutors.read(() -> transactionDAO.getTotalsByCategory(filter));
+    }
+    
+    public CompletableFuture<LocalDate[]> getDateRange() {
+        return DaoExecutors.read(transactionDAO::getDateRange);
+    }
+    
+    public CompletableFuture<TrendSeries> getMonthlyTrend(LocalDate startDate, LocalDate endDate) {
+        return DaoExecutors.read(() -> transactionDAO.getMonthlyTrend(startDate, endDate));
+    }
+    
+    public CompletableFuture<Integer> insertTransaction(Transaction transaction) {
+        return DaoExecutors.write(() -> transactionDAO.insertTransaction(transaction));
+    }
+    
+    /**
+     * Inserts the transactions as one batch. The list is copied on the
+     * calling thread, so the caller may reuse it once this returns.
+     */
+    public CompletableFuture<int[]> insertTransactions(List<Transaction> transactions) {
+        List<Transaction> copy = new ArrayList<>(transactions);
+        return DaoExecutors.write(() -> transactionDAO.insertTransactions(copy));
+    }
+    
+    public CompletableFuture<Boolean> updateTransaction(Transaction transaction) {
+        return DaoExecutors.write(() -> transactionDAO.updateTransaction(transaction));
+    }
+    
+    public CompletableFuture<Boolean> deleteTransaction(int id) {
+        return DaoExecutors.write(() -> transactionDAO.deleteTransaction(id));
+    }
+}
@@ -1,15 +1,32 @@
 package com.financemanager.dao;
 
+import com.financemanager.event.CategoryChanged;
+import com.financemanager.event.DataChangeBus;
 import com.financemanager.model.Category;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
- * Data Access Object for Category operations
+ * Data Access Object for Category operations.
+ *
+ * Categories are few and rarely change, so reads are served from an
+ * in-memory snapshot loaded on first use. Every write bumps a generation
+ * counter, which atomically invalidates the snapshot for all threads; a
+ * snapshot built from a read that raced with a write is never served.
+ * Returned categories are shared and must be treated as read-only.
  */
 public class CategoryDAO {
+    // Shared by all instances since they all read the same database
+    private static final AtomicLong CACHE_GENERATION = new AtomicLong();
+    private static final AtomicReference<CategorySnapshot> CACHE = new AtomicReference<>();
+    
     private final DatabaseManager dbManager;
     
     public CategoryDAO() {
@@ -17,54 +34,19 @@ public class CategoryDAO {
     }
     
     public List<Category> getAllCategories() throws SQLException {
-        List<Category> categories = new ArrayList<>();
-        String sql = "SELECT * FROM categories ORDER BY name";
-        
-        try (Connection conn = dbManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
-            
-            while (rs.next()) {
-                Category category = new Category();
-                category.setId(rs.getInt("id"));
-                category.setName(rs.getString("name"));
-                category.setDescription(rs.getString("description"));
-                category.setColor(rs.getString("color"));
-                categories.add(category);
-            }
-        }
-        
-        return categories;
+        return new ArrayList<>(snapshot().byName);
     }
     
     public Category getCategoryById(int id) throws SQLException {
-        String sql = "SELECT * FROM categories WHERE id = ?";
-        
-        try (Connection conn = dbManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setInt(1, id);
-            
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    Category category = new Category();
-                    category.setId(rs.getInt("id"));
-                    category.setName(rs.getString("name"));
-                    category.setDescription(rs.getString("description"));
-                    category.setColor(rs.getString("color"));
-                    return category;
-                }
-            }
-        }
-        
-        return null;
+        return snapshot().get(id);
     }
     
     public int insertCategory(Category category) throws SQLException {
         String sql = "INSERT INTO categories (name, description, color) VALUES (?, ?, ?)";
         
-        try (Connection conn = dbManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        int id;
+        try (PooledConnection conn = dbManager.getWriteConnection()) {
+            PreparedStatement stmt = conn.prepareCached(sql);
             
             stmt.setString(1, category.getName());
             stmt.setString(2, category.getDescription());
@@ -76,53 +58,136 @@ public class CategoryDAO {
                 throw new SQLException("Creating category failed, no rows affected.");
             }
             
-            try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
-                if (generatedKeys.next()) {
-                    return generatedKeys.getInt(1);
-                } else {
-                    throw new SQLException("Creating category failed, no ID obtained.");
-                }
+            long rowId = conn.lastInsertRowId();
+            if (rowId == 0) {
+                throw new SQLException("Creating category failed, no ID obtained.");
             }
+            id = (int) rowId;
+        } finally {
+            invalidateCache();
         }
+        
+        DataChangeBus.publish(new CategoryChanged(id, CategoryChanged.Change.INSERTED));
+        return id;
     }
     
     public boolean updateCategory(Category category) throws SQLException {
         String sql = "UPDATE categories SET name = ?, description = ?, color = ? WHERE id = ?";
         
-        try (Connection conn = dbManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        boolean updated;
+        try (PooledConnection conn = dbManager.getWriteConnection()) {
+            PreparedStatement stmt = conn.prepareCached(sql);
             
             stmt.setString(1, category.getName());
             stmt.setString(2, category.getDescription());
             stmt.setString(3, category.getColor());
             stmt.setInt(4, category.getId());
             
-            return stmt.executeUpdate() > 0;
+            updated = stmt.executeUpdate() > 0;
+        } finally {
+            invalidateCache();
         }
+        
+        if (updated) {
+            DataChangeBus.publish(new CategoryChanged(category.getId(), CategoryChanged.Change.UPDATED));
+        }
+        return updated;
     }
     
     public boolean deleteCategory(int id) throws SQLException {
         String sql = "DELETE FROM categories WHERE id = ?";
         
-        try (Connection conn = dbManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        boolean deleted;
+        try (PooledConnection conn = dbManager.getWriteConnection()) {
+            PreparedStatement stmt = conn.prepareCached(sql);
             
             stmt.setInt(1, id);
-            return stmt.executeUpdate() > 0;
+            deleted = stmt.executeUpdate() > 0;
+        } finally {
+            invalidateCache();
+        }
+        
+        if (deleted) {
+            DataChangeBus.publish(new CategoryChanged(id, CategoryChanged.Change.DELETED));
         }
+        return deleted;
     }
     
     public boolean categoryExists(String name) throws SQLException {
-        String sql = "SELECT COUNT(*) FROM categories WHERE name = ?";
+        for (Category category : snapshot().byName) {
+            if (category.getName().equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Discards the cached categories so the next read reloads them.
+     */
+    public static void invalidateCache() {
+        CACHE_GENERATION.incrementAndGet();
+        CACHE.set(null);
+    }
+    
+    private CategorySnapshot snapshot() throws SQLException {
+        long generation = CACHE_GENERATION.get();
+        CategorySnapshot current = CACHE.get();
+        if (current != null && current.generation == generation) {
+            return current;
+        }
         
-        try (Connection conn = dbManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        CategorySnapshot loaded = new CategorySnapshot(generation, loadCategories());
+        CACHE.compareAndSet(current, loaded);
+        return loaded;
+    }
+    
+    private List<Category> loadCategories() throws SQLException {
+        List<Category> categories = new ArrayList<>();
+        String sql = "SELECT * FROM categories ORDER BY name";
+        
+        try (PooledConnection conn = dbManager.getReadConnection();
+             ResultSet rs = conn.prepareCached(sql).executeQuery()) {
             
-            stmt.setString(1, name);
+            while (rs.next()) {
+                Category category = new Category();
+                category.setId(rs.getInt("id"));
+                category.setName(rs.getString("name"));
+                category.setDescription(rs.getString("description"));
+                category.setColor(rs.getString("color"));
+                categories.add(category);
+            }
+        }
+        
+        return categories;
+    }
+    
+    /**
+     * Immutable view of the categories table: a name-ordered list plus a
+     * sorted id array for allocation-free lookups by id.
+     */
+    private static final class CategorySnapshot {
+        private final long generation;
+        private final List<Category> byName;
+        private final int[] ids;
+        private final Category[] categoriesById;
+        
+        CategorySnapshot(long generation, List<Category> categories) {
+            this.generation = generation;
+            this.byName = Collections.unmodifiableList(categories);
             
-            try (ResultSet rs = stmt.executeQuery()) {
-                return rs.next() && rs.getInt(1) > 0;
+            Category[] sorted = categories.toArray(new Category[0]);
+            Arrays.sort(sorted, Comparator.comparingInt(Category::getId));
+            this.categoriesById = sorted;
+            this.ids = new int[sorted.length];
+            for (int i = 0; i < sorted.length; i++) {
+                ids[i] = sorted[i].getId();
             }
         }
+        
+        Category get(int id) {
+            int index = Arrays.binarySearch(ids, id);
+            return index >= 0 ? categoriesById[index] : null;
+        }
     }
 }
@@ -0,0 +1,130 @@
+package com.financemanager.dao;
+
+import java.lang.reflect.Method;
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executors behind the asynchronous DAOs.
+ *
+ * Reads run with at most as many in flight as there are pooled reader
+ * connections: on virtual threads when the JDK provides them, otherwise on
+ * a fixed pool of daemon threads. Writes run one at a time, in submission
+ * order, on a single writer thread, matching the single writer connection.
+ */
+final class DaoExecutors {
+    private static final int READ_CONCURRENCY = DatabaseManager.READER_POOL_SIZE;
+    private static final ExecutorService VIRTUAL_READERS = newVirtualThreadExecutor();
+    private static final ExecutorService READERS = VIRTUAL_READERS != null
+        ? VIRTUAL_READERS
+        : new ThreadPoolExecutor(READ_CONCURRENCY, READ_CONCURRENCY, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(), daemonThreads("dao-reader"));
+    // Bounds virtual-thread reads, which otherwise have no pool size to limit them
+    private static final Semaphore READ_PERMITS = new Semaphore(READ_CONCURRENCY);
+    private static final ExecutorService WRITER = Executors.newSingleThreadExecutor(daemonThreads("dao-writer"));
+    
+    /**
+     * A unit of DAO work.
+     */
+    @FunctionalInterface
+    interface SqlTask<T> {
+        T call() throws SQLException;
+    }
+    
+    private DaoExecutors() {
+    }
+    
+    static <T> CompletableFuture<T> read(SqlTask<T> task) {
+        return submit(READERS, task, VIRTUAL_READERS != null);
+    }
+    
+    static <T> CompletableFuture<T> write(SqlTask<T> task) {
+        return submit(WRITER, task, false);
+    }
+    
+    private static <T> CompletableFuture<T> submit(ExecutorService executor, SqlTask<T> task, boolean throttle) {
+        QueryCancellation cancellation = new QueryCancellation();
+        CancellableFuture<T> future = new CancellableFuture<>(cancellation);
+        
+        try {
+            executor.execute(() -> {
+                if (future.isDone()) {
+                    return; // Cancelled while queued
+                }
+                try {
+                    if (throttle) {
+                        READ_PERMITS.acquire();
+                    }
+                    try {
+                        future.complete(cancellation.run(task));
+                    } finally {
+                        if (throttle) {
+                            READ_PERMITS.release();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    future.completeExceptionally(e);
+                } catch (SQLException | RuntimeException e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+    
+    /**
+     * Executors.newVirtualThreadPerTaskExecutor() when running on a JDK that
+     * has it, looked up reflectively because the code targets Java 11.
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+    
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+    
+    /**
+     * A future whose cancellation also cancels the SQL it is running.
+     * Cancelling a stage derived from it with thenApply etc. does not reach
+     * the query; cancel the future the DAO returned.
+     */
+    private static final class CancellableFuture<T> extends CompletableFuture<T> {
+        private final QueryCancellation cancellation;
+        
+        CancellableFuture(QueryCancellation cancellation) {
+            this.cancellation = cancellation;
+        }
+        
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled) {
+                cancellation.cancel();
+            }
+            return cancelled;
+        }
+    }
+}
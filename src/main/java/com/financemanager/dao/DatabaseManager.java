@@ -1,17 +1,39 @@
 package com.financemanager.dao;
 
+import org.sqlite.SQLiteConfig;
+
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
-import java.sql.Statement;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
- * Manages database connections and initialization
+ * Manages database connections and initialization.
+ *
+ * The database runs in WAL mode so that readers never block the writer and
+ * vice versa. Reads are served from a small pool of read-only connections
+ * that may be used concurrently; all writes go through a single writer
+ * connection guarded by a lock. Every connection is configured once when it
+ * is opened and then reused for the lifetime of the application.
  */
 public class DatabaseManager {
     private static final String DB_URL = "jdbc:sqlite:finance_manager.db";
+    static final int READER_POOL_SIZE = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    private static final long ACQUIRE_TIMEOUT_SECONDS = 30;
+    private static final int BUSY_TIMEOUT_MILLIS = 5000;
+    private static final int CACHE_SIZE_KIB = -16384; // negative = KiB, i.e. 16 MiB per connection
+    private static final long MMAP_SIZE_BYTES = 256L * 1024 * 1024;
     private static DatabaseManager instance;
-    private Connection connection;
+    
+    private final BlockingQueue<PooledConnection> idleReaders = new ArrayBlockingQueue<>(READER_POOL_SIZE);
+    private final AtomicInteger openReaders = new AtomicInteger();
+    private final ReentrantLock writerLock = new ReentrantLock();
+    private PooledConnection writer;
+    private volatile boolean shutdown;
     
     private DatabaseManager() {
         initializeDatabase();
@@ -24,76 +46,147 @@ public class DatabaseManager {
         return instance;
     }
     
-    public Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
-            connection = DriverManager.getConnection(DB_URL);
+    /**
+     * Leases a read-only connection from the reader pool. Several readers may
+     * be active at once; the lease must be closed to return it to the pool.
+     */
+    public PooledConnection getReadConnection() throws SQLException {
+        ensureOpen();
+        
+        PooledConnection reader = idleReaders.poll();
+        while (reader == null) {
+            int open = openReaders.get();
+            if (open < READER_POOL_SIZE) {
+                if (openReaders.compareAndSet(open, open + 1)) {
+                    try {
+                        return new PooledConnection(this, openConnection(true), true);
+                    } catch (SQLException e) {
+                        openReaders.decrementAndGet();
+                        throw e;
+                    }
+                }
+                continue;
+            }
+            
+            try {
+                reader = idleReaders.poll(ACQUIRE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a database connection.", e);
+            }
+            if (reader == null) {
+                throw new SQLException("Timed out waiting for a database connection.");
+            }
+        }
+        
+        if (reader.isBroken()) {
+            // Recycle the handle; its cached statements go with it
+            openReaders.decrementAndGet();
+            reader.closePhysical();
+            return getReadConnection();
+        }
+        return reader;
+    }
+    
+    /**
+     * Leases the single writer connection. Only one thread may hold it at a
+     * time; the lease is re-entrant for the owning thread and must be closed
+     * once per acquisition.
+     */
+    public PooledConnection getWriteConnection() throws SQLException {
+        ensureOpen();
+        writerLock.lock();
+        try {
+            if (writer == null || writer.isBroken()) {
+                if (writer != null) {
+                    writer.closePhysical();
+                }
+                writer = new PooledConnection(this, openConnection(false), false);
+            }
+            return writer;
+        } catch (SQLException e) {
+            writerLock.unlock();
+            throw e;
+        }
+    }
+    
+    void release(PooledConnection connection) throws SQLException {
+        if (connection.isReadOnly() || writerLock.getHoldCount() == 1) {
+            QueryCancellation.untrack(connection);
+        }
+        if (connection.isReadOnly()) {
+            if (shutdown || connection.isBroken() || !idleReaders.offer(connection)) {
+                openReaders.decrementAndGet();
+                connection.closePhysical();
+            }
+            return;
+        }
+        
+        if (!writerLock.isHeldByCurrentThread()) {
+            throw new IllegalStateException("Writer connection released by a thread that does not hold it");
+        }
+        try {
+            // A lease must never leak an open transaction to the next writer
+            if (writerLock.getHoldCount() == 1 && !connection.isBroken() && !connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+        } finally {
+            writerLock.unlock();
+        }
+    }
+    
+    private Connection openConnection(boolean readOnly) throws SQLException {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setReadOnly(readOnly);
+        config.setBusyTimeout(BUSY_TIMEOUT_MILLIS);
+        config.setSynchronous(SQLiteConfig.SynchronousMode.NORMAL);
+        config.setCacheSize(CACHE_SIZE_KIB);
+        config.setTempStore(SQLiteConfig.TempStore.MEMORY);
+        config.setPragma(SQLiteConfig.Pragma.MMAP_SIZE, String.valueOf(MMAP_SIZE_BYTES));
+        if (!readOnly) {
+            // journal_mode is persistent in the database file, so only the writer sets it
+            config.setJournalMode(SQLiteConfig.JournalMode.WAL);
+        }
+        return DriverManager.getConnection(DB_URL, config.toProperties());
+    }
+    
+    private void ensureOpen() throws SQLException {
+        if (shutdown) {
+            throw new SQLException("Database manager has been shut down.");
         }
-        return connection;
     }
     
     private void initializeDatabase() {
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             Statement stmt = conn.createStatement()) {
-            
-            // Create categories table
-            String createCategoriesTable = 
-                "CREATE TABLE IF NOT EXISTS categories (" +
-                "    id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                "    name TEXT NOT NULL UNIQUE," +
-                "    description TEXT," +
-                "    color TEXT DEFAULT '#3498db'" +
-                ")";
-            stmt.execute(createCategoriesTable);
-            
-            // Create transactions table
-            String createTransactionsTable = 
-                "CREATE TABLE IF NOT EXISTS transactions (" +
-                "    id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                "    description TEXT NOT NULL," +
-                "    amount DECIMAL(10,2) NOT NULL," +
-                "    type TEXT NOT NULL CHECK (type IN ('INCOME', 'EXPENSE'))," +
-                "    category_id INTEGER," +
-                "    date DATE NOT NULL," +
-                "    notes TEXT," +
-                "    FOREIGN KEY (category_id) REFERENCES categories (id)" +
-                ")";
-            stmt.execute(createTransactionsTable);
-            
-            // Insert default categories
-            insertDefaultCategories(stmt);
-            
+        try (PooledConnection conn = getWriteConnection()) {
+            new SchemaMigrator().migrate(conn);
         } catch (SQLException e) {
             System.err.println("Error initializing database: " + e.getMessage());
             e.printStackTrace();
         }
     }
     
-    private void insertDefaultCategories(Statement stmt) throws SQLException {
-        String[] defaultCategories = {
-            "INSERT OR IGNORE INTO categories (name, description, color) VALUES ('Food & Dining', 'Restaurants, groceries, and food expenses', '#e74c3c')",
-            "INSERT OR IGNORE INTO categories (name, description, color) VALUES ('Transportation', 'Gas, public transport, car maintenance', '#f39c12')",
-            "INSERT OR IGNORE INTO categories (name, description, color) VALUES ('Shopping', 'Clothing, electronics, general shopping', '#9b59b6')",
-            "INSERT OR IGNORE INTO categories (name, description, color) VALUES ('Entertainment', 'Movies, games, hobbies, subscriptions', '#1abc9c')",
-            "INSERT OR IGNORE INTO categories (name, description, color) VALUES ('Bills & Utilities', 'Electricity, water, internet, phone bills', '#34495e')",
-            "INSERT OR IGNORE INTO categories (name, description, color) VALUES ('Healthcare', 'Medical expenses, pharmacy, insurance', '#e67e22')",
-            "INSERT OR IGNORE INTO categories (name, description, color) VALUES ('Education', 'Books, courses, school expenses', '#2ecc71')",
-            "INSERT OR IGNORE INTO categories (name, description, color) VALUES ('Salary', 'Regular income from employment', '#27ae60')",
-            "INSERT OR IGNORE INTO categories (name, description, color) VALUES ('Freelance', 'Income from freelance work', '#16a085')",
-            "INSERT OR IGNORE INTO categories (name, description, color) VALUES ('Investment', 'Investment returns, dividends', '#8e44ad')"
-        };
+    /**
+     * Closes every pooled connection. The writer is closed last so that
+     * SQLite can checkpoint the WAL back into the main database file.
+     */
+    public void shutdown() {
+        shutdown = true;
         
-        for (String sql : defaultCategories) {
-            stmt.execute(sql);
+        PooledConnection reader;
+        while ((reader = idleReaders.poll()) != null) {
+            openReaders.decrementAndGet();
+            reader.closePhysical();
         }
-    }
-    
-    public void closeConnection() {
+        
+        writerLock.lock();
         try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
+            if (writer != null) {
+                writer.closePhysical();
+                writer = null;
             }
-        } catch (SQLException e) {
-            System.err.println("Error closing database connection: " + e.getMessage());
+        } finally {
+            writerLock.unlock();
         }
     }
 }
@@ -0,0 +1,60 @@
+package com.financemanager.dao;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * A single forward-only schema change, identified by a strictly increasing
+ * version number. Migrations are applied in order by {@link SchemaMigrator},
+ * each inside its own SQL transaction.
+ */
+final class Migration {
+    
+    /**
+     * The work performed by a migration, run on the writer connection.
+     */
+    @FunctionalInterface
+    interface Step {
+        void apply(PooledConnection conn) throws SQLException;
+    }
+    
+    private final int version;
+    private final String description;
+    private final Step step;
+    
+    Migration(int version, String description, Step step) {
+        this.version = version;
+        this.description = description;
+        this.step = step;
+    }
+    
+    /**
+     * Creates a migration that executes the given SQL statements in order.
+     */
+    static Migration sql(int version, String description, String... statements) {
+        return new Migration(version, description, conn -> {
+            try (Statement stmt = conn.createStatement()) {
+                for (String sql : statements) {
+                    stmt.execute(sql);
+                }
+            }
+        });
+    }
+    
+    int getVersion() {
+        return version;
+    }
+    
+    String getDescription() {
+        return description;
+    }
+    
+    void apply(PooledConnection conn) throws SQLException {
+        step.apply(conn);
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("Migration{version=%d, description='%s'}", version, description);
+    }
+}
@@ -0,0 +1,201 @@
+package com.financemanager.dao;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The {@code monthly_category_totals} rollup: the sum of amount_cents and the
+ * row count of every (month, category, type), keyed by the month as yyyymm.
+ *
+ * Triggers on {@code transactions} keep it exact inside the same SQL
+ * transaction as the write that changed it, so aggregates over whole months
+ * read a handful of rollup rows instead of every transaction in them.
+ * Transactions without a category are recorded under category 0.
+ */
+final class MonthlyRollup {
+    private static final String CREATE_TABLE =
+        "CREATE TABLE IF NOT EXISTS monthly_category_totals (" +
+        "    year_month INTEGER NOT NULL," +
+        "    category_id INTEGER NOT NULL," +
+        "    type TEXT NOT NULL," +
+        "    total_cents INTEGER NOT NULL," +
+        "    count INTEGER NOT NULL," +
+        "    PRIMARY KEY (year_month, category_id, type)" +
+        ") WITHOUT ROWID";
+    
+    private static final String CREATE_INSERT_TRIGGER =
+        "CREATE TRIGGER IF NOT EXISTS trg_monthly_totals_insert AFTER INSERT ON transactions BEGIN " +
+        addRow("NEW") +
+        " END";
+    
+    private static final String CREATE_DELETE_TRIGGER =
+        "CREATE TRIGGER IF NOT EXISTS trg_monthly_totals_delete AFTER DELETE ON transactions BEGIN " +
+        removeRow("OLD") +
+        " END";
+    
+    private static final String CREATE_UPDATE_TRIGGER =
+        "CREATE TRIGGER IF NOT EXISTS trg_monthly_totals_update " +
+        "AFTER UPDATE OF amount_cents, type, category_id, epoch_day ON transactions BEGIN " +
+        removeRow("OLD") + " " + addRow("NEW") +
+        " END";
+    
+    private MonthlyRollup() {
+    }
+    
+    /**
+     * Creates the rollup table and its maintenance triggers, then fills it.
+     */
+    static void install(PooledConnection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(CREATE_TABLE);
+            stmt.execute(CREATE_INSERT_TRIGGER);
+            stmt.execute(CREATE_DELETE_TRIGGER);
+            stmt.execute(CREATE_UPDATE_TRIGGER);
+        }
+        rebuild(conn);
+    }
+    
+    /**
+     * Recomputes every rollup row from the transactions table. Callers
+     * provide the surrounding SQL transaction.
+     */
+    static void rebuild(PooledConnection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("DELETE FROM monthly_category_totals");
+            stmt.execute(
+                "INSERT INTO monthly_category_totals (year_month, category_id, type, total_cents, count) " +
+                "SELECT " + yearMonthOf("epoch_day") + ", IFNULL(category_id, 0), type, SUM(amount_cents), COUNT(*) " +
+                "FROM transactions GROUP BY 1, 2, 3");
+        }
+    }
+    
+    /**
+     * The rollup key of the month containing {@code date}, e.g. 202403.
+     */
+    static int yearMonth(LocalDate date) {
+        return date.getYear() * 100 + date.getMonthValue();
+    }
+    
+    /**
+     * Splits [startDate, endDate] into the whole months the rollup can answer
+     * and the partial months at either edge that must be read from raw rows.
+     * Either bound may be null for an open range.
+     */
+    static Split split(LocalDate startDate, LocalDate endDate) {
+        if (startDate == null && endDate == null) {
+            return new Split(true, null, null, Collections.emptyList());
+        }
+        
+        LocalDate firstWholeMonth = startDate == null || startDate.getDayOfMonth() == 1
+            ? startDate
+            : startDate.withDayOfMonth(1).plusMonths(1);
+        LocalDate lastWholeMonthEnd = endDate == null || endDate.getDayOfMonth() == endDate.lengthOfMonth()
+            ? endDate
+            : endDate.withDayOfMonth(1).minusDays(1);
+        
+        if (firstWholeMonth != null && lastWholeMonthEnd != null && firstWholeMonth.isAfter(lastWholeMonthEnd)) {
+            // No whole month inside the range; the raw scan is bounded by two months at most
+            return new Split(false, null, null, Collections.singletonList(new LocalDate[] {startDate, endDate}));
+        }
+        
+        List<LocalDate[]> rawRanges = new ArrayList<>(2);
+        if (startDate != null && startDate.isBefore(firstWholeMonth)) {
+            rawRanges.add(new LocalDate[] {startDate, firstWholeMonth.minusDays(1)});
+        }
+        if (endDate != null && endDate.isAfter(lastWholeMonthEnd)) {
+            rawRanges.add(new LocalDate[] {lastWholeMonthEnd.plusDays(1), endDate});
+        }
+        return new Split(true,
+            firstWholeMonth != null ? yearMonth(firstWholeMonth) : null,
+            lastWholeMonthEnd != null ? yearMonth(lastWholeMonthEnd) : null,
+            rawRanges);
+    }
+    
+    /**
+     * SQL expression for the yyyymm month of an epoch day column.
+     */
+    private static String yearMonthOf(String epochDayColumn) {
+        return "CAST(strftime('%Y%m', " + epochDayColumn + " * 86400, 'unixepoch') AS INTEGER)";
+    }
+    
+    private static String addRow(String row) {
+        return "INSERT INTO monthly_category_totals (year_month, category_id, type, total_cents, count) " +
+               "VALUES (" + yearMonthOf(row + ".epoch_day") + ", IFNULL(" + row + ".category_id, 0), " +
+               row + ".type, " + row + ".amount_cents, 1) " +
+               "ON CONFLICT (year_month, category_id, type) DO UPDATE SET " +
+               "total_cents = total_cents + excluded.total_cents, count = count + 1;";
+    }
+    
+    private static String removeRow(String row) {
+        String key = " WHERE year_month = " + yearMonthOf(row + ".epoch_day") +
+                     " AND category_id = IFNULL(" + row + ".category_id, 0) AND type = " + row + ".type";
+        return "UPDATE monthly_category_totals SET total_cents = total_cents - " + row + ".amount_cents, " +
+               "count = count - 1" + key + "; " +
+               "DELETE FROM monthly_category_totals" + key + " AND count = 0;";
+    }
+    
+    /**
+     * A date range divided into a span of whole months, served by the rollup,
+     * and up to two partial-month date ranges served by the transactions table.
+     */
+    static final class Split {
+        private final boolean usesRollup;
+        private final Integer fromMonth;
+        private final Integer toMonth;
+        private final List<LocalDate[]> rawRanges;
+        
+        private Split(boolean usesRollup, Integer fromMonth, Integer toMonth, List<LocalDate[]> rawRanges) {
+            this.usesRollup = usesRollup;
+            this.fromMonth = fromMonth;
+            this.toMonth = toMonth;
+            this.rawRanges = rawRanges;
+        }
+        
+        boolean usesRollup() {
+            return usesRollup;
+        }
+        
+        /**
+         * Date ranges, as {start, end} pairs, that must be aggregated from raw rows.
+         */
+        List<LocalDate[]> getRawRanges() {
+            return rawRanges;
+        }
+        
+        /**
+         * WHERE clause selecting the rollup rows for the whole months of this
+         * split and the category and type predicates of {@code filter}.
+         */
+        String toWhereClause(TransactionFilter filter, String alias) {
+            String prefix = alias.isEmpty() ? "" : alias + ".";
+            StringBuilder where = new StringBuilder(filter.withDateRange(null, null).toWhereClause(alias));
+            if (fromMonth != null) {
+                where.append(where.length() == 0 ? " WHERE " : " AND ").append(prefix).append("year_month >= ?");
+            }
+            if (toMonth != null) {
+                where.append(where.length() == 0 ? " WHERE " : " AND ").append(prefix).append("year_month <= ?");
+            }
+            return where.toString();
+        }
+        
+        /**
+         * Binds the parameters of {@link #toWhereClause} starting at
+         * {@code index} and returns the next free parameter index.
+         */
+        int bind(PreparedStatement stmt, int index, TransactionFilter filter) throws SQLException {
+            index = filter.withDateRange(null, null).bind(stmt, index);
+            if (fromMonth != null) {
+                stmt.setInt(index++, fromMonth);
+            }
+            if (toMonth != null) {
+                stmt.setInt(index++, toMonth);
+            }
+            return index;
+        }
+    }
+}
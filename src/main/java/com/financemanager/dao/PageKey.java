@@ -0,0 +1,31 @@
+package com.financemanager.dao;
+
+import java.time.LocalDate;
+
+/**
+ * Position of a row in the (epoch_day DESC, id DESC) ordering used by keyset
+ * pagination. A page starts immediately after the key of the previous
+ * page's last row.
+ */
+public final class PageKey {
+    private final LocalDate date;
+    private final int id;
+    
+    public PageKey(LocalDate date, int id) {
+        this.date = date;
+        this.id = id;
+    }
+    
+    public LocalDate getDate() {
+        return date;
+    }
+    
+    public int getId() {
+        return id;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("PageKey{date=%s, id=%d}", date, id);
+    }
+}
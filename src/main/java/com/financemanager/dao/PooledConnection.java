@@ -0,0 +1,163 @@
+package com.financemanager.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A long-lived SQLite connection leased from the {@link DatabaseManager}.
+ * Closing the lease hands the connection back to the manager instead of
+ * closing the underlying database handle, so DAOs can keep using
+ * try-with-resources without paying for a reconnect on every call.
+ *
+ * Each connection also keeps a bounded LRU cache of prepared statements,
+ * so the handful of statements the DAOs issue are parsed and planned by
+ * SQLite once per connection rather than once per call. A lease is only
+ * ever used by one thread at a time, so the cache needs no locking.
+ *
+ * Statements handed out while an asynchronous DAO task runs are registered
+ * with its {@link QueryCancellation}, so cancelling the task can stop them.
+ */
+public final class PooledConnection implements AutoCloseable {
+    private static final int STATEMENT_CACHE_SIZE = 32;
+    
+    private final DatabaseManager owner;
+    private final Connection connection;
+    private final boolean readOnly;
+    private final Map<String, PreparedStatement> statementCache =
+        new LinkedHashMap<String, PreparedStatement>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() > STATEMENT_CACHE_SIZE) {
+                    closeStatement(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    
+    PooledConnection(DatabaseManager owner, Connection connection, boolean readOnly) {
+        this.owner = owner;
+        this.connection = connection;
+        this.readOnly = readOnly;
+    }
+    
+    /**
+     * Returns this connection's cached statement for {@code sql}, preparing it
+     * on first use, with its parameters and batch cleared. The statement is
+     * owned by the connection: callers must close any ResultSet they open
+     * but must not close the statement itself.
+     */
+    public PreparedStatement prepareCached(String sql) throws SQLException {
+        PreparedStatement stmt = statementCache.get(sql);
+        if (stmt == null || stmt.isClosed()) {
+            stmt = connection.prepareStatement(sql);
+            statementCache.put(sql, stmt);
+        } else {
+            stmt.clearParameters();
+            stmt.clearBatch();
+        }
+        QueryCancellation.track(this, stmt);
+        return stmt;
+    }
+    
+    /**
+     * Prepares an uncached statement that the caller owns and must close.
+     */
+    public PreparedStatement prepareStatement(String sql) throws SQLException {
+        PreparedStatement stmt = connection.prepareStatement(sql);
+        QueryCancellation.track(this, stmt);
+        return stmt;
+    }
+    
+    public PreparedStatement prepareStatement(String sql, int autoGeneratedKeys) throws SQLException {
+        PreparedStatement stmt = connection.prepareStatement(sql, autoGeneratedKeys);
+        QueryCancellation.track(this, stmt);
+        return stmt;
+    }
+    
+    public Statement createStatement() throws SQLException {
+        Statement stmt = connection.createStatement();
+        QueryCancellation.track(this, stmt);
+        return stmt;
+    }
+    
+    public boolean getAutoCommit() throws SQLException {
+        return connection.getAutoCommit();
+    }
+    
+    public void setAutoCommit(boolean autoCommit) throws SQLException {
+        connection.setAutoCommit(autoCommit);
+    }
+    
+    public void commit() throws SQLException {
+        connection.commit();
+    }
+    
+    public void rollback() throws SQLException {
+        connection.rollback();
+    }
+    
+    /**
+     * Row id of the most recent INSERT on this connection. sqlite-jdbc no
+     * longer implements getGeneratedKeys(), and SQLite tracks this value per
+     * database handle, so it is only meaningful on the writer connection.
+     */
+    public long lastInsertRowId() throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT last_insert_rowid()")) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+    
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+    
+    /**
+     * The underlying JDBC connection. It must not be closed by callers.
+     */
+    public Connection getConnection() {
+        return connection;
+    }
+    
+    boolean isBroken() {
+        try {
+            return connection.isClosed();
+        } catch (SQLException e) {
+            return true;
+        }
+    }
+    
+    void closePhysical() {
+        for (PreparedStatement stmt : statementCache.values()) {
+            closeStatement(stmt);
+        }
+        statementCache.clear();
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing database connection: " + e.getMessage());
+        }
+    }
+    
+    private static void closeStatement(PreparedStatement stmt) {
+        try {
+            stmt.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing cached statement: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Returns the connection to the manager. The database handle stays open.
+     */
+    @Override
+    public void close() throws SQLException {
+        owner.release(this);
+    }
+}
@@ -0,0 +1,101 @@
+package com.financemanager.dao;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Cancellation handle for one asynchronous DAO task.
+ *
+ * While the task runs, every statement its thread prepares on a pooled
+ * connection is recorded here, until that connection is released. Calling
+ * {@link #cancel()} from another thread cancels those statements, which
+ * makes SQLite abandon the running query, and makes any later statement
+ * of the task fail immediately.
+ */
+final class QueryCancellation {
+    private static final ThreadLocal<QueryCancellation> CURRENT = new ThreadLocal<>();
+    
+    // Guarded by this
+    private final List<TrackedStatement> statements = new ArrayList<>();
+    private boolean cancelled;
+    
+    /**
+     * Runs {@code task} on the current thread with this handle in effect.
+     */
+    <T> T run(DaoExecutors.SqlTask<T> task) throws SQLException {
+        CURRENT.set(this);
+        try {
+            checkCancelled();
+            return task.call();
+        } finally {
+            CURRENT.remove();
+            synchronized (this) {
+                statements.clear();
+            }
+        }
+    }
+    
+    synchronized void cancel() {
+        cancelled = true;
+        for (TrackedStatement tracked : statements) {
+            try {
+                tracked.statement.cancel();
+            } catch (SQLException e) {
+                System.err.println("Error cancelling statement: " + e.getMessage());
+            }
+        }
+    }
+    
+    private synchronized void checkCancelled() throws SQLException {
+        if (cancelled) {
+            throw new SQLException("Query was cancelled.");
+        }
+    }
+    
+    /**
+     * Records a statement prepared on {@code connection} by the current
+     * thread, if it is running a cancellable task.
+     */
+    static void track(PooledConnection connection, Statement statement) throws SQLException {
+        QueryCancellation current = CURRENT.get();
+        if (current == null) {
+            return;
+        }
+        synchronized (current) {
+            current.checkCancelled();
+            current.statements.add(new TrackedStatement(connection, statement));
+        }
+    }
+    
+    /**
+     * Forgets the statements of a connection that is being handed back, so a
+     * late cancel cannot interrupt whoever leases the connection next.
+     */
+    static void untrack(PooledConnection connection) {
+        QueryCancellation current = CURRENT.get();
+        if (current == null) {
+            return;
+        }
+        synchronized (current) {
+            Iterator<TrackedStatement> it = current.statements.iterator();
+            while (it.hasNext()) {
+                if (it.next().connection == connection) {
+                    it.remove();
+                }
+            }
+        }
+    }
+    
+    private static final class TrackedStatement {
+        final PooledConnection connection;
+        final Statement statement;
+        
+        TrackedStatement(PooledConnection connection, Statement statement) {
+            this.connection = connection;
+            this.statement = statement;
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package com.financemanager.dao;
+
+import com.financemanager.model.Transaction;
+import com.financemanager.model.TransactionFingerprint;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Brings the database schema up to the latest version.
+ *
+ * Applied versions are recorded in the {@code schema_version} table. When
+ * the recorded version is already current, {@link #migrate} only performs
+ * a single read and runs no DDL at all. Databases created before versioning
+ * existed are upgraded in place: the baseline migration only creates what
+ * is missing.
+ */
+class SchemaMigrator {
+    private static final int FINGERPRINT_PAGE_SIZE = 10_000;
+    
+    private final List<Migration> migrations;
+    
+    SchemaMigrator() {
+        this(standardMigrations());
+    }
+    
+    SchemaMigrator(List<Migration> migrations) {
+        List<Migration> ordered = new ArrayList<>(migrations);
+        for (int i = 0; i < ordered.size(); i++) {
+            if (ordered.get(i).getVersion() != i + 1) {
+                throw new IllegalArgumentException("Migrations must be numbered consecutively from 1: " + ordered.get(i));
+            }
+        }
+        this.migrations = Collections.unmodifiableList(ordered);
+    }
+    
+    int getLatestVersion() {
+        return migrations.size();
+    }
+    
+    /**
+     * Applies every migration newer than the recorded schema version.
+     * Returns the number of migrations applied.
+     */
+    int migrate(PooledConnection conn) throws SQLException {
+        int current = readCurrentVersion(conn);
+        if (current >= getLatestVersion()) {
+            return 0;
+        }
+        
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(
+                "CREATE TABLE IF NOT EXISTS schema_version (" +
+                "    version INTEGER PRIMARY KEY," +
+                "    description TEXT NOT NULL," +
+                "    applied_at TEXT NOT NULL DEFAULT (datetime('now'))" +
+                ")");
+        }
+        
+        int applied = 0;
+        for (Migration migration : migrations.subList(current, migrations.size())) {
+            applyMigration(conn, migration);
+            applied++;
+        }
+        
+        try (Statement stmt = conn.createStatement()) {
+            // Refresh planner statistics so the new schema is used well immediately
+            stmt.execute("PRAGMA optimize");
+        }
+        return applied;
+    }
+    
+    private void applyMigration(PooledConnection conn, Migration migration) throws SQLException {
+        conn.setAutoCommit(false);
+        try {
+            migration.apply(conn);
+            
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "INSERT INTO schema_version (version, description) VALUES (?, ?)")) {
+                stmt.setInt(1, migration.getVersion());
+                stmt.setString(2, migration.getDescription());
+                stmt.executeUpdate();
+            }
+            
+            conn.commit();
+        } catch (SQLException | RuntimeException e) {
+            conn.rollback();
+            throw new SQLException("Schema migration " + migration.getVersion() + " ("
+                + migration.getDescription() + ") failed: " + e.getMessage(), e);
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+    
+    private int readCurrentVersion(PooledConnection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(
+                 "SELECT name FROM sqlite_master WHERE type = 'table' AND name = 'schema_version'")) {
+            if (!rs.next()) {
+                return 0;
+            }
+        }
+        
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+    
+    private static List<Migration> standardMigrations() {
+        return Arrays.asList(
+            new Migration(1, "Baseline categories and transactions tables", SchemaMigrator::createBaselineSchema),
+            
+            // Indexes matched to the DAO's range scans, category lookups and per-type sums
+            Migration.sql(2, "Indexes for date, category and type queries",
+                "CREATE INDEX IF NOT EXISTS idx_transactions_date_id ON transactions (date, id)",
+                "CREATE INDEX IF NOT EXISTS idx_transactions_category_date ON transactions (category_id, date)",
+                "CREATE INDEX IF NOT EXISTS idx_transactions_type_date_amount ON transactions (type, date, amount)"),
+            
+            new Migration(3, "Store transaction amounts as integer cents", SchemaMigrator::convertAmountsToCents),
+            new Migration(4, "Store transaction dates as integer epoch days", SchemaMigrator::convertDatesToEpochDays),
+            new Migration(5, "Monthly per-category totals maintained by triggers", MonthlyRollup::install),
+            new Migration(6, "Fingerprints for duplicate detection", SchemaMigrator::addFingerprints)
+        );
+    }
+    
+    private static void createBaselineSchema(PooledConnection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            
+            // Create categories table
+            String createCategoriesTable = 
+                "CREATE TABLE IF NOT EXISTS categories (" +
+                "    id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                "    name TEXT NOT NULL UNIQUE," +
+                "    description TEXT," +
+                "    color TEXT DEFAULT '#3498db'" +
+                ")";
+            stmt.execute(createCategoriesTable);
+            
+            // Create transactions table
+            String createTransactionsTable = 
+                "CREATE TABLE IF NOT EXISTS transactions (" +
+                "    id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                "    description TEXT NOT NULL," +
+                "    amount DECIMAL(10,2) NOT NULL," +
+                "    type TEXT NOT NULL CHECK (type IN ('INCOME', 'EXPENSE'))," +
+                "    category_id INTEGER," +
+                "    date DATE NOT NULL," +
+                "    notes TEXT," +
+                "    FOREIGN KEY (category_id) REFERENCES categories (id)" +
+                ")";
+            stmt.execute(createTransactionsTable);
+            
+            // Insert default categories
+            insertDefaultCategories(stmt);
+        }
+    }
+    
+    private static void convertAmountsToCents(PooledConnection conn) throws SQLException {
+        rebuildTransactionsTable(conn,
+            "CREATE TABLE transactions_new (" +
+            "    id INTEGER PRIMARY KEY AUTOINCREMENT," +
+            "    description TEXT NOT NULL," +
+            "    amount_cents INTEGER NOT NULL," +
+            "    type TEXT NOT NULL CHECK (type IN ('INCOME', 'EXPENSE'))," +
+            "    category_id INTEGER," +
+            "    date DATE NOT NULL," +
+            "    notes TEXT," +
+            "    FOREIGN KEY (category_id) REFERENCES categories (id)" +
+            ")",
+            "id, description, amount_cents, type, category_id, date, notes",
+            // The old DECIMAL column holds REALs, so round rather than truncate (12.34 * 100 = 1233.999...)
+            "id, description, CAST(ROUND(amount * 100) AS INTEGER), type, category_id, date, notes");
+        
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE INDEX idx_transactions_date_id ON transactions (date, id)");
+            stmt.execute("CREATE INDEX idx_transactions_category_date ON transactions (category_id, date)");
+            stmt.execute("CREATE INDEX idx_transactions_type_date_amount ON transactions (type, date, amount_cents)");
+        }
+    }
+    
+    private static void convertDatesToEpochDays(PooledConnection conn) throws SQLException {
+        rebuildTransactionsTable(conn,
+            "CREATE TABLE transactions_new (" +
+            "    id INTEGER PRIMARY KEY AUTOINCREMENT," +
+            "    description TEXT NOT NULL," +
+            "    amount_cents INTEGER NOT NULL," +
+            "    type TEXT NOT NULL CHECK (type IN ('INCOME', 'EXPENSE'))," +
+            "    category_id INTEGER," +
+            "    epoch_day INTEGER NOT NULL," +
+            "    notes TEXT," +
+            "    FOREIGN KEY (category_id) REFERENCES categories (id)" +
+            ")",
+            "id, description, amount_cents, type, category_id, epoch_day, notes",
+            // java.sql.Date was stored as epoch millis of local midnight, or occasionally as
+            // 'yyyy-MM-dd...' text; both are read back as the local calendar date
+            "id, description, amount_cents, type, category_id, " +
+            "CAST(julianday(CASE WHEN typeof(date) IN ('integer', 'real') " +
+            "THEN date(date / 1000, 'unixepoch', 'localtime') " +
+            "ELSE substr(date, 1, 10) END) - 2440587.5 AS INTEGER), notes");
+        
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE INDEX idx_transactions_day_id ON transactions (epoch_day, id)");
+            stmt.execute("CREATE INDEX idx_transactions_category_day ON transactions (category_id, epoch_day)");
+            stmt.execute("CREATE INDEX idx_transactions_type_day_amount ON transactions (type, epoch_day, amount_cents)");
+        }
+    }
+    
+    /**
+     * Adds the indexed fingerprint column and computes it for existing rows.
+     * ADD COLUMN keeps the table, so its indexes and the rollup triggers
+     * stay in place. The hash is computed in Java, in id order, a page at
+     * a time. The index leads with the date: fingerprints are random, and
+     * statements are imported in date order, so this keeps index inserts
+     * near each other instead of all over the index.
+     */
+    private static void addFingerprints(PooledConnection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("ALTER TABLE transactions ADD COLUMN fingerprint INTEGER");
+        }
+        
+        try (PreparedStatement select = conn.prepareStatement(
+                 "SELECT id, epoch_day, amount_cents, type, description FROM transactions WHERE id > ? ORDER BY id LIMIT ?");
+             PreparedStatement update = conn.prepareStatement("UPDATE transactions SET fingerprint = ? WHERE id = ?")) {
+            int lastId = 0;
+            int[] ids = new int[FINGERPRINT_PAGE_SIZE];
+            long[] fingerprints = new long[FINGERPRINT_PAGE_SIZE];
+            int count;
+            do {
+                // Read a page before writing, so the update never runs under an open cursor on the same table
+                count = 0;
+                select.setInt(1, lastId);
+                select.setInt(2, FINGERPRINT_PAGE_SIZE);
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        ids[count] = rs.getInt(1);
+                        fingerprints[count] = TransactionFingerprint.of(rs.getLong(2), rs.getLong(3),
+                            Transaction.TransactionType.valueOf(rs.getString(4)), rs.getString(5));
+                        count++;
+                    }
+                }
+                
+                for (int i = 0; i < count; i++) {
+                    update.setLong(1, fingerprints[i]);
+                    update.setInt(2, ids[i]);
+                    update.addBatch();
+                }
+                if (count > 0) {
+                    update.executeBatch();
+                    lastId = ids[count - 1];
+                }
+            } while (count == FINGERPRINT_PAGE_SIZE);
+        }
+        
+        try (Statement stmt = conn.createStatement()) {
+            // Built after the backfill, which is much faster than maintaining it row by row
+            stmt.execute("CREATE INDEX idx_transactions_day_fingerprint ON transactions (epoch_day, fingerprint)");
+        }
+    }
+    
+    /**
+     * Replaces the transactions table with {@code transactions_new}, created by
+     * {@code createSql}, copying every row through {@code selectColumns}.
+     * The AUTOINCREMENT counter is carried over so ids of deleted rows are
+     * never reused. Indexes and triggers are dropped with the old table;
+     * callers recreate the ones the new definition needs, including the
+     * {@link MonthlyRollup} triggers once that migration has run.
+     */
+    private static void rebuildTransactionsTable(PooledConnection conn, String createSql,
+                                                 String insertColumns, String selectColumns) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            Long sequence = null;
+            try (ResultSet rs = stmt.executeQuery("SELECT seq FROM sqlite_sequence WHERE name = 'transactions'")) {
+                if (rs.next()) {
+                    sequence = rs.getLong(1);
+                }
+            }
+            
+            stmt.execute(createSql);
+            stmt.execute("INSERT INTO transactions_new (" + insertColumns + ") SELECT " + selectColumns + " FROM transactions");
+            stmt.execute("DROP TABLE transactions");
+            stmt.execute("ALTER TABLE transactions_new RENAME TO transactions");
+            
+            if (sequence != null) {
+                stmt.execute("DELETE FROM sqlite_sequence WHERE name = 'transactions'");
+                stmt.execute("INSERT INTO sqlite_sequence (name, seq) VALUES ('transactions', " + sequence + ")");
+            }
+        }
+    }
+    
+    private static void insertDefaultCategories(Statement stmt) throws SQLException {
+        String[] defaultCategories = {
+            "INSERT OR IGNORE INTO categories (name, description, color) VALUES ('Food & Dining', 'Restaurants, groceries, and food expenses', '#e74c3c')",
+            "INSERT OR IGNORE INTO categories (name, description, color) VALUES ('Transportation', 'Gas, public transport, car maintenance', '#f39c12')",
+            "INSERT OR IGNORE INTO categories (name, description, color) VALUES ('Shopping', 'Clothing, electronics, general shopping', '#9b59b6')",
+            "INSERT OR IGNORE INTO categories (name, description, color) VALUES ('Entertainment', 'Movies, games, hobbies, subscriptions', '#1abc9c')",
+            "INSERT OR IGNORE INTO categories (name, description, color) VALUES ('Bills & Utilities', 'Electricity, water, internet, phone bills', '#34495e')",
+            "INSERT OR IGNORE INTO categories (name, description, color) VALUES ('Healthcare', 'Medical expenses, pharmacy, insurance', '#e67e22')",
+            "INSERT OR IGNORE INTO categories (name, description, color) VALUES ('Education', 'Books, courses, school expenses', '#2ecc71')",
+            "INSERT OR IGNORE INTO categories (name, description, color) VALUES ('Salary', 'Regular income from employment', '#27ae60')",
+            "INSERT OR IGNORE INTO categories (name, description, color) VALUES ('Freelance', 'Income from freelance work', '#16a085')",
+            "INSERT OR IGNORE INTO categories (name, description, color) VALUES ('Investment', 'Investment returns, dividends', '#8e44ad')"
+        };
+        
+        for (String sql : defaultCategories) {
+            stmt.execute(sql);
+        }
+    }
+}
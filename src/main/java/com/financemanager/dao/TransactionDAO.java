@@ -1,83 +1,376 @@
 package com.financemanager.dao;
 
+import com.financemanager.event.BulkDeleted;
+import com.financemanager.event.BulkImported;
+import com.financemanager.event.DataChangeBus;
+import com.financemanager.event.TransactionDeleted;
+import com.financemanager.event.TransactionInserted;
+import com.financemanager.event.TransactionUpdated;
+import com.financemanager.model.CategoryTotal;
+import com.financemanager.model.DashboardSummary;
+import com.financemanager.model.LedgerRow;
+import com.financemanager.model.Money;
 import com.financemanager.model.Transaction;
+import com.financemanager.model.TransactionFingerprint;
+import com.financemanager.model.TrendSeries;
 
-import java.math.BigDecimal;
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Data Access Object for Transaction operations
  */
 public class TransactionDAO {
+    private static final String INSERT_SQL =
+        "INSERT INTO transactions (description, amount_cents, type, category_id, epoch_day, notes, fingerprint) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final int DEFAULT_BATCH_SIZE = 1000;
+    private static final int DEFAULT_FETCH_SIZE = 512;
+    
     private final DatabaseManager dbManager;
+    private volatile int batchSize = DEFAULT_BATCH_SIZE;
+    private volatile int fetchSize = DEFAULT_FETCH_SIZE;
     
     public TransactionDAO() {
         this.dbManager = DatabaseManager.getInstance();
     }
     
+    public int getFetchSize() {
+        return fetchSize;
+    }
+    
+    /**
+     * Sets the number of rows the driver pulls per round-trip when streaming.
+     */
+    public void setFetchSize(int fetchSize) {
+        if (fetchSize <= 0) {
+            throw new IllegalArgumentException("Fetch size must be positive: " + fetchSize);
+        }
+        this.fetchSize = fetchSize;
+    }
+    
+    public int getBatchSize() {
+        return batchSize;
+    }
+    
+    /**
+     * Sets how many rows bulk inserts hand to SQLite per executeBatch call.
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+        this.batchSize = batchSize;
+    }
+    
     public List<Transaction> getAllTransactions() throws SQLException {
+        return getTransactions(TransactionFilter.all());
+    }
+    
+    public List<Transaction> getTransactionsByDateRange(LocalDate startDate, LocalDate endDate) throws SQLException {
+        return getTransactions(TransactionFilter.all().withDateRange(startDate, endDate));
+    }
+    
+    public List<Transaction> getTransactionsByCategory(int categoryId) throws SQLException {
+        return getTransactions(TransactionFilter.all().withCategory(categoryId));
+    }
+    
+    public List<Transaction> getTransactions(TransactionFilter filter) throws SQLException {
         List<Transaction> transactions = new ArrayList<>();
-        String sql = "SELECT * FROM transactions ORDER BY date DESC, id DESC";
+        forEachTransaction(filter, transactions::add);
+        return transactions;
+    }
+    
+    /**
+     * Feeds every matching transaction to {@code action} straight from the
+     * cursor, newest first, without materialising the result. Memory use is
+     * bounded by the fetch size regardless of how many rows match.
+     */
+    public void forEachTransaction(TransactionFilter filter, Consumer<? super Transaction> action) throws SQLException {
+        String sql = "SELECT * FROM transactions" + filter.toWhereClause("") + " ORDER BY epoch_day DESC, id DESC";
         
-        try (Connection conn = dbManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
+        try (PooledConnection conn = dbManager.getReadConnection()) {
+            PreparedStatement stmt = conn.prepareCached(sql);
+            
+            filter.bind(stmt, 1);
+            stmt.setFetchSize(fetchSize);
             
-            while (rs.next()) {
-                transactions.add(mapResultSetToTransaction(rs));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    action.accept(mapResultSetToTransaction(rs));
+                }
             }
         }
+    }
+    
+    /**
+     * Feeds every transaction with an id above {@code afterId} to
+     * {@code action} in ascending id order. Scanning from the highest id
+     * already seen picks up exactly the rows inserted since.
+     */
+    public void forEachTransactionAfter(int afterId, Consumer<? super Transaction> action) throws SQLException {
+        String sql = "SELECT * FROM transactions WHERE id > ? ORDER BY id";
         
-        return transactions;
+        try (PooledConnection conn = dbManager.getReadConnection()) {
+            PreparedStatement stmt = conn.prepareCached(sql);
+            
+            stmt.setInt(1, afterId);
+            stmt.setFetchSize(fetchSize);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    action.accept(mapResultSetToTransaction(rs));
+                }
+            }
+        }
     }
     
-    public List<Transaction> getTransactionsByDateRange(LocalDate startDate, LocalDate endDate) throws SQLException {
-        List<Transaction> transactions = new ArrayList<>();
-        String sql = "SELECT * FROM transactions WHERE date BETWEEN ? AND ? ORDER BY date DESC, id DESC";
+    /**
+     * Feeds every matching transaction, oldest first, to {@code action}
+     * with its category name joined in, straight from a forward-only cursor.
+     * Like {@link #forEachTransaction}, memory use does not depend on the
+     * number of rows; the walk stops at the first exception {@code action}
+     * throws, which is passed on.
+     */
+    public void forEachLedgerRow(TransactionFilter filter, Consumer<? super LedgerRow> action) throws SQLException {
+        String sql = "SELECT t.id, t.epoch_day, t.description, t.amount_cents, t.type, c.name, t.notes " +
+                    "FROM transactions t LEFT JOIN categories c ON c.id = t.category_id" +
+                    filter.toWhereClause("t") + " ORDER BY t.epoch_day, t.id";
         
-        try (Connection conn = dbManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (PooledConnection conn = dbManager.getReadConnection()) {
+            PreparedStatement stmt = conn.prepareCached(sql);
             
-            stmt.setDate(1, Date.valueOf(startDate));
-            stmt.setDate(2, Date.valueOf(endDate));
+            filter.bind(stmt, 1);
+            stmt.setFetchSize(fetchSize);
             
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    transactions.add(mapResultSetToTransaction(rs));
+                    action.accept(new LedgerRow(
+                        rs.getInt(1),
+                        rs.getLong(2),
+                        rs.getString(3),
+                        rs.getLong(4),
+                        Transaction.TransactionType.valueOf(rs.getString(5)),
+                        rs.getString(6),
+                        rs.getString(7)));
                 }
             }
         }
+    }
+    
+    /**
+     * Lazily streams matching transactions, newest first. The stream holds a
+     * pooled read connection until it is closed, so callers must use it in a
+     * try-with-resources block. Database errors surface as
+     * {@link UncheckedSQLException}.
+     */
+    public Stream<Transaction> streamTransactions(TransactionFilter filter) throws SQLException {
+        String sql = "SELECT * FROM transactions" + filter.toWhereClause("") + " ORDER BY epoch_day DESC, id DESC";
         
-        return transactions;
+        PooledConnection conn = dbManager.getReadConnection();
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        try {
+            stmt = conn.prepareStatement(sql);
+            filter.bind(stmt, 1);
+            stmt.setFetchSize(fetchSize);
+            rs = stmt.executeQuery();
+        } catch (SQLException | RuntimeException e) {
+            closeQuietly(rs, stmt, conn);
+            throw e;
+        }
+        
+        ResultSet cursor = rs;
+        Spliterator<Transaction> spliterator = new Spliterators.AbstractSpliterator<Transaction>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super Transaction> action) {
+                try {
+                    if (!cursor.next()) {
+                        return false;
+                    }
+                    action.accept(mapResultSetToTransaction(cursor));
+                    return true;
+                } catch (SQLException e) {
+                    throw new UncheckedSQLException(e);
+                }
+            }
+        };
+        
+        PreparedStatement statement = stmt;
+        return StreamSupport.stream(spliterator, false)
+            .onClose(() -> closeQuietly(cursor, statement, conn));
     }
     
-    public List<Transaction> getTransactionsByCategory(int categoryId) throws SQLException {
-        List<Transaction> transactions = new ArrayList<>();
-        String sql = "SELECT * FROM transactions WHERE category_id = ? ORDER BY date DESC, id DESC";
+    /**
+     * Returns up to {@code limit} transactions that sort after {@code after}
+     * in (date DESC, id DESC) order, or the first page when {@code after} is
+     * null. Seeking on the key instead of using OFFSET keeps every page
+     * equally cheap no matter how deep into the ledger it is.
+     */
+    public List<Transaction> getTransactionPage(PageKey after, int limit) throws SQLException {
+        String sql = after == null
+            ? "SELECT * FROM transactions ORDER BY epoch_day DESC, id DESC LIMIT ?"
+            : "SELECT * FROM transactions WHERE (epoch_day, id) < (?, ?) ORDER BY epoch_day DESC, id DESC LIMIT ?";
+        List<Transaction> page = new ArrayList<>(limit);
         
-        try (Connection conn = dbManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (PooledConnection conn = dbManager.getReadConnection()) {
+            PreparedStatement stmt = conn.prepareCached(sql);
             
-            stmt.setInt(1, categoryId);
+            int index = 1;
+            if (after != null) {
+                stmt.setLong(index++, after.getDate().toEpochDay());
+                stmt.setInt(index++, after.getId());
+            }
+            stmt.setInt(index, limit);
             
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    transactions.add(mapResultSetToTransaction(rs));
+                    page.add(mapResultSetToTransaction(rs));
                 }
             }
         }
         
-        return transactions;
+        return page;
+    }
+    
+    /**
+     * Key of the row at {@code offset} in (date DESC, id DESC) order, or null
+     * past the end. Used to start keyset pagination at an arbitrary row when
+     * the user jumps to a part of the table that has not been visited yet.
+     */
+    public PageKey getPageKeyAtOffset(int offset) throws SQLException {
+        String sql = "SELECT epoch_day, id FROM transactions ORDER BY epoch_day DESC, id DESC LIMIT 1 OFFSET ?";
+        
+        try (PooledConnection conn = dbManager.getReadConnection()) {
+            PreparedStatement stmt = conn.prepareCached(sql);
+            
+            stmt.setInt(1, offset);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return new PageKey(LocalDate.ofEpochDay(rs.getLong("epoch_day")), rs.getInt("id"));
+                }
+            }
+        }
+        
+        return null;
+    }
+    
+    /**
+     * Number of transactions ahead of {@code key} in the (epoch_day DESC,
+     * id DESC) order of the transaction list: the row index a transaction
+     * with that key has, or would have if it were inserted.
+     */
+    public int countTransactionsBefore(PageKey key) throws SQLException {
+        String sql = "SELECT COUNT(*) FROM transactions WHERE (epoch_day, id) > (?, ?)";
+        
+        try (PooledConnection conn = dbManager.getReadConnection()) {
+            PreparedStatement stmt = conn.prepareCached(sql);
+            
+            stmt.setLong(1, key.getDate().toEpochDay());
+            stmt.setInt(2, key.getId());
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+    
+    public int countTransactions() throws SQLException {
+        String sql = "SELECT COUNT(*) FROM transactions";
+        
+        try (PooledConnection conn = dbManager.getReadConnection();
+             ResultSet rs = conn.prepareCached(sql).executeQuery()) {
+            
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+    
+    public int countTransactions(TransactionFilter filter) throws SQLException {
+        String sql = "SELECT COUNT(*) FROM transactions" + filter.toWhereClause("");
+        
+        try (PooledConnection conn = dbManager.getReadConnection()) {
+            PreparedStatement stmt = conn.prepareCached(sql);
+            
+            filter.bind(stmt, 1);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+    
+    /**
+     * The highest transaction id in use, or 0 if there are no transactions.
+     */
+    public int getMaxTransactionId() throws SQLException {
+        String sql = "SELECT COALESCE(MAX(id), 0) FROM transactions";
+        
+        try (PooledConnection conn = dbManager.getReadConnection();
+             ResultSet rs = conn.prepareCached(sql).executeQuery()) {
+            
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+    
+    /**
+     * Feeds the {@link TransactionFingerprint} of every transaction to
+     * {@code action}, in no particular order. The fingerprint index covers
+     * the query, so the table rows themselves are never read.
+     */
+    public void forEachFingerprint(LongConsumer action) throws SQLException {
+        String sql = "SELECT fingerprint FROM transactions";
+        
+        try (PooledConnection conn = dbManager.getReadConnection()) {
+            PreparedStatement stmt = conn.prepareCached(sql);
+            
+            stmt.setFetchSize(fetchSize);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    action.accept(rs.getLong(1));
+                }
+            }
+        }
+    }
+    
+    /**
+     * Number of transactions dated {@code date} with the given fingerprint
+     * among those with an id of at most {@code maxId}, answered from the
+     * fingerprint index.
+     */
+    public int countTransactionsWithFingerprint(LocalDate date, long fingerprint, int maxId) throws SQLException {
+        String sql = "SELECT COUNT(*) FROM transactions WHERE epoch_day = ? AND fingerprint = ? AND id <= ?";
+        
+        try (PooledConnection conn = dbManager.getReadConnection()) {
+            PreparedStatement stmt = conn.prepareCached(sql);
+            
+            stmt.setLong(1, date.toEpochDay());
+            stmt.setLong(2, fingerprint);
+            stmt.setInt(3, maxId);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
     }
     
     public Transaction getTransactionById(int id) throws SQLException {
         String sql = "SELECT * FROM transactions WHERE id = ?";
         
-        try (Connection conn = dbManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (PooledConnection conn = dbManager.getReadConnection()) {
+            PreparedStatement stmt = conn.prepareCached(sql);
             
             stmt.setInt(1, id);
             
@@ -92,17 +385,10 @@ public class TransactionDAO {
     }
     
     public int insertTransaction(Transaction transaction) throws SQLException {
-        String sql = "INSERT INTO transactions (description, amount, type, category_id, date, notes) VALUES (?, ?, ?, ?, ?, ?)";
-        
-        try (Connection conn = dbManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        try (PooledConnection conn = dbManager.getWriteConnection()) {
+            PreparedStatement stmt = conn.prepareCached(INSERT_SQL);
             
-            stmt.setString(1, transaction.getDescription());
-            stmt.setBigDecimal(2, transaction.getAmount());
-            stmt.setString(3, transaction.getType().name());
-            stmt.setInt(4, transaction.getCategoryId());
-            stmt.setDate(5, Date.valueOf(transaction.getDate()));
-            stmt.setString(6, transaction.getNotes());
+            bindTransaction(stmt, transaction);
             
             int affectedRows = stmt.executeUpdate();
             
@@ -110,121 +396,540 @@ public class TransactionDAO {
                 throw new SQLException("Creating transaction failed, no rows affected.");
             }
             
-            try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
-                if (generatedKeys.next()) {
-                    return generatedKeys.getInt(1);
-                } else {
-                    throw new SQLException("Creating transaction failed, no ID obtained.");
+            long id = conn.lastInsertRowId();
+            if (id == 0) {
+                throw new SQLException("Creating transaction failed, no ID obtained.");
+            }
+            transaction.setId((int) id);
+            
+            DataChangeBus.publish(new TransactionInserted(new Transaction(transaction)));
+        }
+        
+        return transaction.getId();
+    }
+    
+    /**
+     * Inserts all transactions in one SQL transaction using JDBC batching.
+     * Each transaction's id is set to its generated key, and the ids are
+     * returned in the same order as the input list.
+     */
+    public int[] insertTransactions(List<Transaction> transactions) throws SQLException {
+        insertTransactions(transactions.iterator(), batchSize);
+        
+        int[] ids = new int[transactions.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = transactions.get(i).getId();
+        }
+        return ids;
+    }
+    
+    /**
+     * Streaming variant of {@link #insertTransactions(List)} for sources that
+     * should not be materialised in memory. Returns the number of rows inserted.
+     */
+    public int insertTransactions(Iterator<Transaction> transactions) throws SQLException {
+        return insertTransactions(transactions, batchSize);
+    }
+    
+    /**
+     * Inserts transactions in chunks of {@code chunkSize} rows, all within a
+     * single SQL transaction so the whole load costs one commit, and
+     * publishes one {@link BulkImported} event once it is committed.
+     */
+    public int insertTransactions(Iterator<Transaction> transactions, int chunkSize) throws SQLException {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        
+        int inserted = 0;
+        try (PooledConnection conn = dbManager.getWriteConnection()) {
+            conn.setAutoCommit(false);
+            
+            try {
+                PreparedStatement stmt = conn.prepareCached(INSERT_SQL);
+                List<Transaction> chunk = new ArrayList<>(Math.min(chunkSize, 10_000));
+                
+                while (transactions.hasNext()) {
+                    Transaction transaction = transactions.next();
+                    bindTransaction(stmt, transaction);
+                    stmt.addBatch();
+                    chunk.add(transaction);
+                    
+                    if (chunk.size() == chunkSize) {
+                        inserted += flushChunk(conn, stmt, chunk);
+                    }
+                }
+                if (!chunk.isEmpty()) {
+                    inserted += flushChunk(conn, stmt, chunk);
                 }
+                
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+            
+            if (inserted > 0) {
+                DataChangeBus.publish(new BulkImported(inserted));
+            }
+        }
+        
+        return inserted;
+    }
+    
+    /**
+     * Executes the pending batch and assigns ids to the rows in it. Only the
+     * writer inserts, and it does so inside one SQL transaction, so the rows
+     * of a batch receive consecutive AUTOINCREMENT ids ending at
+     * last_insert_rowid().
+     */
+    private int flushChunk(PooledConnection conn, PreparedStatement stmt, List<Transaction> chunk) throws SQLException {
+        int[] counts = stmt.executeBatch();
+        for (int count : counts) {
+            if (count == 0) {
+                throw new SQLException("Creating transaction failed, no rows affected.");
             }
         }
+        
+        long lastId = conn.lastInsertRowId();
+        long firstId = lastId - chunk.size() + 1;
+        for (int i = 0; i < chunk.size(); i++) {
+            chunk.get(i).setId((int) (firstId + i));
+        }
+        
+        int size = chunk.size();
+        chunk.clear();
+        return size;
     }
     
     public boolean updateTransaction(Transaction transaction) throws SQLException {
-        String sql = "UPDATE transactions SET description = ?, amount = ?, type = ?, category_id = ?, date = ?, notes = ? WHERE id = ?";
+        String sql = "UPDATE transactions SET description = ?, amount_cents = ?, type = ?, category_id = ?, epoch_day = ?, notes = ?, fingerprint = ? WHERE id = ?";
         
-        try (Connection conn = dbManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        Transaction before;
+        try (PooledConnection conn = dbManager.getWriteConnection()) {
+            // Only the writer changes rows, so the row cannot move between this read and the update
+            before = readForWrite(conn, transaction.getId());
+            if (before == null) {
+                return false;
+            }
             
-            stmt.setString(1, transaction.getDescription());
-            stmt.setBigDecimal(2, transaction.getAmount());
-            stmt.setString(3, transaction.getType().name());
-            stmt.setInt(4, transaction.getCategoryId());
-            stmt.setDate(5, Date.valueOf(transaction.getDate()));
-            stmt.setString(6, transaction.getNotes());
-            stmt.setInt(7, transaction.getId());
+            PreparedStatement stmt = conn.prepareCached(sql);
             
-            return stmt.executeUpdate() > 0;
+            bindTransaction(stmt, transaction);
+            stmt.setInt(8, transaction.getId());
+            
+            if (stmt.executeUpdate() == 0) {
+                return false;
+            }
+            
+            DataChangeBus.publish(new TransactionUpdated(before, new Transaction(transaction)));
         }
+        
+        return true;
     }
     
     public boolean deleteTransaction(int id) throws SQLException {
         String sql = "DELETE FROM transactions WHERE id = ?";
         
-        try (Connection conn = dbManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        Transaction before;
+        try (PooledConnection conn = dbManager.getWriteConnection()) {
+            before = readForWrite(conn, id);
+            if (before == null) {
+                return false;
+            }
+            
+            PreparedStatement stmt = conn.prepareCached(sql);
             
             stmt.setInt(1, id);
-            return stmt.executeUpdate() > 0;
+            if (stmt.executeUpdate() == 0) {
+                return false;
+            }
+            
+            DataChangeBus.publish(new TransactionDeleted(before));
+        }
+        
+        return true;
+    }
+    
+    /**
+     * Deletes the transactions with the given ids in one SQL transaction,
+     * batched like {@link #insertTransactions(Iterator, int)}, and publishes
+     * a single {@link BulkDeleted} event for them. Ids of rows that do not
+     * exist are ignored. Returns the number of rows deleted.
+     */
+    public int deleteTransactions(Collection<Integer> ids) throws SQLException {
+        String sql = "DELETE FROM transactions WHERE id = ?";
+        
+        int[] deleted = new int[ids.size()];
+        int deletedCount = 0;
+        try (PooledConnection conn = dbManager.getWriteConnection()) {
+            conn.setAutoCommit(false);
+            
+            try {
+                PreparedStatement stmt = conn.prepareCached(sql);
+                int[] chunk = new int[Math.min(batchSize, Math.max(ids.size(), 1))];
+                int chunkSize = 0;
+                for (Iterator<Integer> it = ids.iterator(); it.hasNext(); ) {
+                    int id = it.next();
+                    stmt.setInt(1, id);
+                    stmt.addBatch();
+                    chunk[chunkSize++] = id;
+                    
+                    if (chunkSize == chunk.length || !it.hasNext()) {
+                        int[] counts = stmt.executeBatch();
+                        for (int i = 0; i < chunkSize; i++) {
+                            if (counts[i] > 0) {
+                                deleted[deletedCount++] = chunk[i];
+                            }
+                        }
+                        chunkSize = 0;
+                    }
+                }
+                
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+            
+            if (deletedCount > 0) {
+                DataChangeBus.publish(new BulkDeleted(Arrays.copyOf(deleted, deletedCount)));
+            }
         }
+        
+        return deletedCount;
     }
     
-    public BigDecimal getTotalIncome() throws SQLException {
-        String sql = "SELECT COALESCE(SUM(amount), 0) FROM transactions WHERE type = 'INCOME'";
+    public Money getTotalIncome() throws SQLException {
+        String sql = "SELECT COALESCE(SUM(total_cents), 0) FROM monthly_category_totals WHERE type = 'INCOME'";
         
-        try (Connection conn = dbManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
+        try (PooledConnection conn = dbManager.getReadConnection();
+             ResultSet rs = conn.prepareCached(sql).executeQuery()) {
             
             if (rs.next()) {
-                return rs.getBigDecimal(1);
+                return Money.ofCents(rs.getLong(1));
             }
         }
         
-        return BigDecimal.ZERO;
+        return Money.ZERO;
     }
     
-    public BigDecimal getTotalExpenses() throws SQLException {
-        String sql = "SELECT COALESCE(SUM(amount), 0) FROM transactions WHERE type = 'EXPENSE'";
+    public Money getTotalExpenses() throws SQLException {
+        String sql = "SELECT COALESCE(SUM(total_cents), 0) FROM monthly_category_totals WHERE type = 'EXPENSE'";
         
-        try (Connection conn = dbManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
+        try (PooledConnection conn = dbManager.getReadConnection();
+             ResultSet rs = conn.prepareCached(sql).executeQuery()) {
             
             if (rs.next()) {
-                return rs.getBigDecimal(1);
+                return Money.ofCents(rs.getLong(1));
             }
         }
         
-        return BigDecimal.ZERO;
+        return Money.ZERO;
     }
     
-    public BigDecimal getTotalIncomeByDateRange(LocalDate startDate, LocalDate endDate) throws SQLException {
-        String sql = "SELECT COALESCE(SUM(amount), 0) FROM transactions WHERE type = 'INCOME' AND date BETWEEN ? AND ?";
+    public Money getTotalIncomeByDateRange(LocalDate startDate, LocalDate endDate) throws SQLException {
+        String sql = "SELECT COALESCE(SUM(amount_cents), 0) FROM transactions WHERE type = 'INCOME' AND epoch_day BETWEEN ? AND ?";
         
-        try (Connection conn = dbManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (PooledConnection conn = dbManager.getReadConnection()) {
+            PreparedStatement stmt = conn.prepareCached(sql);
             
-            stmt.setDate(1, Date.valueOf(startDate));
-            stmt.setDate(2, Date.valueOf(endDate));
+            stmt.setLong(1, startDate.toEpochDay());
+            stmt.setLong(2, endDate.toEpochDay());
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return rs.getBigDecimal(1);
+                    return Money.ofCents(rs.getLong(1));
                 }
             }
         }
         
-        return BigDecimal.ZERO;
+        return Money.ZERO;
     }
     
-    public BigDecimal getTotalExpensesByDateRange(LocalDate startDate, LocalDate endDate) throws SQLException {
-        String sql = "SELECT COALESCE(SUM(amount), 0) FROM transactions WHERE type = 'EXPENSE' AND date BETWEEN ? AND ?";
+    public Money getTotalExpensesByDateRange(LocalDate startDate, LocalDate endDate) throws SQLException {
+        String sql = "SELECT COALESCE(SUM(amount_cents), 0) FROM transactions WHERE type = 'EXPENSE' AND epoch_day BETWEEN ? AND ?";
         
-        try (Connection conn = dbManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (PooledConnection conn = dbManager.getReadConnection()) {
+            PreparedStatement stmt = conn.prepareCached(sql);
             
-            stmt.setDate(1, Date.valueOf(startDate));
-            stmt.setDate(2, Date.valueOf(endDate));
+            stmt.setLong(1, startDate.toEpochDay());
+            stmt.setLong(2, endDate.toEpochDay());
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return rs.getBigDecimal(1);
+                    return Money.ofCents(rs.getLong(1));
                 }
             }
         }
         
-        return BigDecimal.ZERO;
+        return Money.ZERO;
+    }
+    
+    /**
+     * Computes every dashboard total in one query: all-time, the month
+     * [monthStart, monthEnd], the year to date ending at monthEnd, and the
+     * calendar month before monthStart. When the month is a whole calendar
+     * month, as on the dashboard, every period is answered from the monthly
+     * rollup; otherwise the transactions table is scanned once.
+     */
+    public DashboardSummary getSummary(LocalDate monthStart, LocalDate monthEnd) throws SQLException {
+        LocalDate yearStart = monthEnd.withDayOfYear(1);
+        LocalDate previousMonthStart = monthStart.minusMonths(1).withDayOfMonth(1);
+        LocalDate previousMonthEnd = monthStart.minusDays(1);
+        boolean wholeMonths = monthStart.getDayOfMonth() == 1
+            && monthEnd.getDayOfMonth() == monthEnd.lengthOfMonth()
+            && !monthStart.isAfter(monthEnd);
+        String sql = wholeMonths
+            ? summarySql("monthly_category_totals", "total_cents", "year_month")
+            : summarySql("transactions", "amount_cents", "epoch_day");
+        
+        try (PooledConnection conn = dbManager.getReadConnection()) {
+            PreparedStatement stmt = conn.prepareCached(sql);
+            
+            if (wholeMonths) {
+                stmt.setInt(1, MonthlyRollup.yearMonth(monthStart));
+                stmt.setInt(2, MonthlyRollup.yearMonth(monthEnd));
+                stmt.setInt(3, MonthlyRollup.yearMonth(yearStart));
+                stmt.setInt(4, MonthlyRollup.yearMonth(previousMonthStart));
+                stmt.setInt(5, MonthlyRollup.yearMonth(previousMonthEnd));
+            } else {
+                stmt.setLong(1, monthStart.toEpochDay());
+                stmt.setLong(2, monthEnd.toEpochDay());
+                stmt.setLong(3, yearStart.toEpochDay());
+                stmt.setLong(4, previousMonthStart.toEpochDay());
+                stmt.setLong(5, previousMonthEnd.toEpochDay());
+            }
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return new DashboardSummary(monthStart, monthEnd,
+                    Money.ofCents(rs.getLong(1)), Money.ofCents(rs.getLong(2)),
+                    Money.ofCents(rs.getLong(3)), Money.ofCents(rs.getLong(4)),
+                    Money.ofCents(rs.getLong(5)), Money.ofCents(rs.getLong(6)),
+                    Money.ofCents(rs.getLong(7)), Money.ofCents(rs.getLong(8)));
+            }
+        }
+    }
+    
+    /**
+     * Builds the summary query over {@code table}. Each total is a conditional
+     * SUM over the same scan, so further periods only add columns; the period
+     * bounds are compared against {@code periodColumn}.
+     */
+    private static String summarySql(String table, String amountColumn, String periodColumn) {
+        String amount = "t." + amountColumn;
+        String period = "t." + periodColumn;
+        return "WITH bounds (month_start, month_end, year_start, prev_start, prev_end) AS (SELECT ?, ?, ?, ?, ?) " +
+               "SELECT " +
+               "COALESCE(SUM(CASE WHEN t.type = 'INCOME' THEN " + amount + " END), 0), " +
+               "COALESCE(SUM(CASE WHEN t.type = 'EXPENSE' THEN " + amount + " END), 0), " +
+               "COALESCE(SUM(CASE WHEN t.type = 'INCOME' AND " + period + " BETWEEN b.month_start AND b.month_end THEN " + amount + " END), 0), " +
+               "COALESCE(SUM(CASE WHEN t.type = 'EXPENSE' AND " + period + " BETWEEN b.month_start AND b.month_end THEN " + amount + " END), 0), " +
+               "COALESCE(SUM(CASE WHEN t.type = 'INCOME' AND " + period + " BETWEEN b.year_start AND b.month_end THEN " + amount + " END), 0), " +
+               "COALESCE(SUM(CASE WHEN t.type = 'EXPENSE' AND " + period + " BETWEEN b.year_start AND b.month_end THEN " + amount + " END), 0), " +
+               "COALESCE(SUM(CASE WHEN t.type = 'INCOME' AND " + period + " BETWEEN b.prev_start AND b.prev_end THEN " + amount + " END), 0), " +
+               "COALESCE(SUM(CASE WHEN t.type = 'EXPENSE' AND " + period + " BETWEEN b.prev_start AND b.prev_end THEN " + amount + " END), 0) " +
+               "FROM " + table + " t CROSS JOIN bounds b";
+    }
+    
+    /**
+     * Sums one transaction type by category over [startDate, endDate]; either
+     * bound may be null for an open range. Ordered by total, largest first.
+     */
+    public List<CategoryTotal> getTotalsByCategory(Transaction.TransactionType type, LocalDate startDate,
+                                                   LocalDate endDate) throws SQLException {
+        return getTotalsByCategory(TransactionFilter.all().withDateRange(startDate, endDate).withType(type));
+    }
+    
+    /**
+     * Sums both income and expenses by category in a single pass over
+     * [startDate, endDate]; either bound may be null for an open range.
+     */
+    public List<CategoryTotal> getTotalsByCategory(LocalDate startDate, LocalDate endDate) throws SQLException {
+        return getTotalsByCategory(TransactionFilter.all().withDateRange(startDate, endDate));
+    }
+    
+    /**
+     * Groups the transactions matching {@code filter} by category and type in
+     * SQL and joins in each category's name and colour, so callers receive
+     * one row per category rather than one per transaction. Whole months are
+     * read from the monthly rollup and only partial months at the edges of
+     * the date range from the transactions table.
+     */
+    public List<CategoryTotal> getTotalsByCategory(TransactionFilter filter) throws SQLException {
+        MonthlyRollup.Split split = MonthlyRollup.split(filter.getStartDate(), filter.getEndDate());
+        List<TransactionFilter> rawParts = new ArrayList<>(2);
+        for (LocalDate[] range : split.getRawRanges()) {
+            rawParts.add(filter.withDateRange(range[0], range[1]));
+        }
+        
+        StringBuilder source = new StringBuilder();
+        if (split.usesRollup()) {
+            source.append("SELECT r.category_id, r.type, r.total_cents, r.count AS row_count FROM monthly_category_totals r")
+                  .append(split.toWhereClause(filter, "r"));
+        }
+        for (TransactionFilter part : rawParts) {
+            if (source.length() > 0) {
+                source.append(" UNION ALL ");
+            }
+            source.append("SELECT t.category_id, t.type, SUM(t.amount_cents) AS total_cents, COUNT(*) AS row_count FROM transactions t")
+                  .append(part.toWhereClause("t"))
+                  .append(" GROUP BY t.category_id, t.type");
+        }
+        
+        String sql = "SELECT c.id, c.name, c.color, x.type, SUM(x.total_cents) AS total_cents, SUM(x.row_count) AS row_count " +
+                     "FROM (" + source + ") x JOIN categories c ON c.id = x.category_id" +
+                     " GROUP BY x.category_id, x.type ORDER BY total_cents DESC";
+        List<CategoryTotal> totals = new ArrayList<>();
+        
+        try (PooledConnection conn = dbManager.getReadConnection()) {
+            PreparedStatement stmt = conn.prepareCached(sql);
+            
+            int index = 1;
+            if (split.usesRollup()) {
+                index = split.bind(stmt, index, filter);
+            }
+            for (TransactionFilter part : rawParts) {
+                index = part.bind(stmt, index);
+            }
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    totals.add(new CategoryTotal(
+                        rs.getInt("id"),
+                        rs.getString("name"),
+                        rs.getString("color"),
+                        Transaction.TransactionType.valueOf(rs.getString("type")),
+                        rs.getLong("total_cents"),
+                        rs.getInt("row_count")));
+                }
+            }
+        }
+        
+        return totals;
+    }
+    
+    /**
+     * Dates of the oldest and newest transactions as {first, last}, or null
+     * when there are none.
+     */
+    public LocalDate[] getDateRange() throws SQLException {
+        String sql = "SELECT MIN(epoch_day), MAX(epoch_day) FROM transactions";
+        
+        try (PooledConnection conn = dbManager.getReadConnection();
+             ResultSet rs = conn.prepareCached(sql).executeQuery()) {
+            
+            if (rs.next() && rs.getObject(1) != null) {
+                return new LocalDate[] {LocalDate.ofEpochDay(rs.getLong(1)), LocalDate.ofEpochDay(rs.getLong(2))};
+            }
+        }
+        
+        return null;
+    }
+    
+    /**
+     * Monthly income and expense totals of every month overlapping
+     * [startDate, endDate], read from the monthly rollup. Finer buckets come
+     * only from the analytics column store, never from a table scan.
+     */
+    public TrendSeries getMonthlyTrend(LocalDate startDate, LocalDate endDate) throws SQLException {
+        TrendSeries.Granularity granularity = TrendSeries.Granularity.MONTH;
+        LocalDate first = granularity.bucketStart(startDate);
+        LocalDate last = granularity.bucketEnd(endDate);
+        TrendSeries.Builder series = TrendSeries.builder(granularity, first, last);
+        String sql = "SELECT year_month, type, SUM(total_cents) FROM monthly_category_totals " +
+                     "WHERE year_month BETWEEN ? AND ? GROUP BY year_month, type";
+        
+        try (PooledConnection conn = dbManager.getReadConnection()) {
+            PreparedStatement stmt = conn.prepareCached(sql);
+            stmt.setInt(1, MonthlyRollup.yearMonth(first));
+            stmt.setInt(2, MonthlyRollup.yearMonth(last));
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    LocalDate date = LocalDate.of(rs.getInt(1) / 100, rs.getInt(1) % 100, 1);
+                    series.add(date, Transaction.TransactionType.valueOf(rs.getString(2)), rs.getLong(3));
+                }
+            }
+        }
+        
+        return series.build();
+    }
+    
+    /**
+     * Recomputes the monthly rollup from the transactions table. The triggers
+     * keep it exact on their own; this is for repair after manual edits.
+     */
+    public void rebuildMonthlyTotals() throws SQLException {
+        try (PooledConnection conn = dbManager.getWriteConnection()) {
+            conn.setAutoCommit(false);
+            
+            try {
+                MonthlyRollup.rebuild(conn);
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+    
+    /**
+     * Reads a row through the writer's own connection, for the snapshot an
+     * update or delete event carries.
+     */
+    private Transaction readForWrite(PooledConnection conn, int id) throws SQLException {
+        PreparedStatement stmt = conn.prepareCached("SELECT * FROM transactions WHERE id = ?");
+        stmt.setInt(1, id);
+        try (ResultSet rs = stmt.executeQuery()) {
+            return rs.next() ? mapResultSetToTransaction(rs) : null;
+        }
+    }
+    
+    private void bindTransaction(PreparedStatement stmt, Transaction transaction) throws SQLException {
+        stmt.setString(1, transaction.getDescription());
+        stmt.setLong(2, transaction.getAmountCents());
+        stmt.setString(3, transaction.getType().name());
+        stmt.setInt(4, transaction.getCategoryId());
+        stmt.setLong(5, transaction.getDate().toEpochDay());
+        stmt.setString(6, transaction.getNotes());
+        stmt.setLong(7, TransactionFingerprint.of(transaction));
+    }
+    
+    private static void closeQuietly(ResultSet rs, Statement stmt, PooledConnection conn) {
+        try {
+            if (rs != null) {
+                rs.close();
+            }
+            if (stmt != null) {
+                stmt.close();
+            }
+        } catch (SQLException e) {
+            System.err.println("Error closing transaction cursor: " + e.getMessage());
+        } finally {
+            try {
+                conn.close();
+            } catch (SQLException e) {
+                System.err.println("Error releasing database connection: " + e.getMessage());
+            }
+        }
     }
     
     private Transaction mapResultSetToTransaction(ResultSet rs) throws SQLException {
         Transaction transaction = new Transaction();
         transaction.setId(rs.getInt("id"));
         transaction.setDescription(rs.getString("description"));
-        transaction.setAmount(rs.getBigDecimal("amount"));
+        transaction.setAmountCents(rs.getLong("amount_cents"));
         transaction.setType(Transaction.TransactionType.valueOf(rs.getString("type")));
         transaction.setCategoryId(rs.getInt("category_id"));
-        transaction.setDate(rs.getDate("date").toLocalDate());
+        transaction.setDate(LocalDate.ofEpochDay(rs.getLong("epoch_day")));
         transaction.setNotes(rs.getString("notes"));
         return transaction;
     }
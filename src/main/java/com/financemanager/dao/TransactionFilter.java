@@ -0,0 +1,116 @@
+package com.financemanager.dao;
+
+import com.financemanager.model.Transaction;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+/**
+ * Immutable set of optional predicates for transaction queries.
+ * Start from {@link #all()} and narrow it with the {@code with...} methods.
+ */
+public final class TransactionFilter {
+    private static final TransactionFilter ALL = new TransactionFilter(null, null, null, null);
+    
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final Integer categoryId;
+    private final Transaction.TransactionType type;
+    
+    private TransactionFilter(LocalDate startDate, LocalDate endDate, Integer categoryId,
+                              Transaction.TransactionType type) {
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.categoryId = categoryId;
+        this.type = type;
+    }
+    
+    public static TransactionFilter all() {
+        return ALL;
+    }
+    
+    /**
+     * Restricts to dates in [startDate, endDate]; either bound may be null.
+     */
+    public TransactionFilter withDateRange(LocalDate startDate, LocalDate endDate) {
+        return new TransactionFilter(startDate, endDate, categoryId, type);
+    }
+    
+    public TransactionFilter withCategory(int categoryId) {
+        return new TransactionFilter(startDate, endDate, categoryId, type);
+    }
+    
+    public TransactionFilter withType(Transaction.TransactionType type) {
+        return new TransactionFilter(startDate, endDate, categoryId, type);
+    }
+    
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+    
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+    
+    public Integer getCategoryId() {
+        return categoryId;
+    }
+    
+    public Transaction.TransactionType getType() {
+        return type;
+    }
+    
+    /**
+     * SQL predicate for this filter, starting with " WHERE", or an empty
+     * string when nothing is filtered. Column names are prefixed with
+     * {@code alias} so the clause can be used in joins.
+     */
+    String toWhereClause(String alias) {
+        String prefix = alias.isEmpty() ? "" : alias + ".";
+        StringBuilder where = new StringBuilder();
+        if (startDate != null) {
+            appendCondition(where, prefix + "epoch_day >= ?");
+        }
+        if (endDate != null) {
+            appendCondition(where, prefix + "epoch_day <= ?");
+        }
+        if (categoryId != null) {
+            appendCondition(where, prefix + "category_id = ?");
+        }
+        if (type != null) {
+            appendCondition(where, prefix + "type = ?");
+        }
+        return where.toString();
+    }
+    
+    /**
+     * Binds the parameters of {@link #toWhereClause(String)} starting at
+     * {@code index} and returns the next free parameter index.
+     */
+    int bind(PreparedStatement stmt, int index) throws SQLException {
+        if (startDate != null) {
+            stmt.setLong(index++, startDate.toEpochDay());
+        }
+        if (endDate != null) {
+            stmt.setLong(index++, endDate.toEpochDay());
+        }
+        if (categoryId != null) {
+            stmt.setInt(index++, categoryId);
+        }
+        if (type != null) {
+            stmt.setString(index++, type.name());
+        }
+        return index;
+    }
+    
+    private static void appendCondition(StringBuilder where, String condition) {
+        where.append(where.length() == 0 ? " WHERE " : " AND ").append(condition);
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("TransactionFilter{startDate=%s, endDate=%s, categoryId=%s, type=%s}",
+                           startDate, endDate, categoryId, type);
+    }
+}
@@ -0,0 +1,19 @@
+package com.financemanager.dao;
+
+import java.sql.SQLException;
+
+/**
+ * Wraps a {@link SQLException} raised inside a callback or stream that
+ * cannot throw checked exceptions.
+ */
+public class UncheckedSQLException extends RuntimeException {
+    
+    public UncheckedSQLException(SQLException cause) {
+        super(cause.getMessage(), cause);
+    }
+    
+    @Override
+    public synchronized SQLException getCause() {
+        return (SQLException) super.getCause();
+    }
+}
@@ -0,0 +1,27 @@
+package com.financemanager.event;
+
+/**
+ * A batch of transactions was deleted in one SQL transaction. Only the ids
+ * of the rows actually deleted are carried; the array is shared by all
+ * subscribers and must not be modified.
+ */
+public final class BulkDeleted extends DataChangeEvent {
+    private final int[] ids;
+    
+    public BulkDeleted(int[] ids) {
+        this.ids = ids;
+    }
+    
+    public int[] getIds() {
+        return ids;
+    }
+    
+    public int getCount() {
+        return ids.length;
+    }
+    
+    @Override
+    public Kind getKind() {
+        return Kind.TRANSACTIONS;
+    }
+}
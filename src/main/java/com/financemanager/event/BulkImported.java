@@ -0,0 +1,23 @@
+package com.financemanager.event;
+
+/**
+ * A batch of transactions was inserted in one SQL transaction. Rows are not
+ * carried individually; their ids are higher than that of every transaction
+ * that existed before the batch, so subscribers can read them back by id.
+ */
+public final class BulkImported extends DataChangeEvent {
+    private final int count;
+    
+    public BulkImported(int count) {
+        this.count = count;
+    }
+    
+    public int getCount() {
+        return count;
+    }
+    
+    @Override
+    public Kind getKind() {
+        return Kind.TRANSACTIONS;
+    }
+}
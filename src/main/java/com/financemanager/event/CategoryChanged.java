@@ -0,0 +1,34 @@
+package com.financemanager.event;
+
+/**
+ * A category was inserted, renamed or recoloured, or deleted.
+ */
+public final class CategoryChanged extends DataChangeEvent {
+    
+    public enum Change {
+        INSERTED,
+        UPDATED,
+        DELETED
+    }
+    
+    private final int categoryId;
+    private final Change change;
+    
+    public CategoryChanged(int categoryId, Change change) {
+        this.categoryId = categoryId;
+        this.change = change;
+    }
+    
+    public int getCategoryId() {
+        return categoryId;
+    }
+    
+    public Change getChange() {
+        return change;
+    }
+    
+    @Override
+    public Kind getKind() {
+        return Kind.CATEGORIES;
+    }
+}
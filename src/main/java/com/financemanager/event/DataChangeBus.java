@@ -0,0 +1,91 @@
+package com.financemanager.event;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * Typed notifications of committed data changes, plus a version counter for
+ * each {@link DataChangeEvent.Kind} of data.
+ *
+ * The DAOs publish after every commit. A version is bumped before the event
+ * is delivered, so a component that records the version it loaded at can
+ * skip reloading until the version moves on, without subscribing at all.
+ * State derived from the events, like the analytics column store, is behind
+ * the version until its subscriber has run, so loads answered from it must
+ * key on a version that state records as it applies each event.
+ * Events are delivered synchronously on the writing thread: subscribers
+ * must be quick and thread-safe, and UI subscribers must hop to the EDT.
+ * Transaction events are published while that thread still holds the
+ * database writer, so a subscriber that reads sees the database exactly as
+ * the change left it, and must not wait on other threads that might write.
+ */
+public final class DataChangeBus {
+    private static final List<Registration<?>> SUBSCRIBERS = new CopyOnWriteArrayList<>();
+    private static final AtomicLongArray VERSIONS = new AtomicLongArray(DataChangeEvent.Kind.values().length);
+    
+    private DataChangeBus() {
+    }
+    
+    /**
+     * Delivers every published event of {@code type}, or of a subtype, to
+     * {@code subscriber} until the returned subscription is cancelled.
+     */
+    public static <E extends DataChangeEvent> Subscription subscribe(Class<E> type, Consumer<? super E> subscriber) {
+        Registration<E> registration = new Registration<>(type, subscriber);
+        SUBSCRIBERS.add(registration);
+        return () -> SUBSCRIBERS.remove(registration);
+    }
+    
+    /**
+     * Bumps the version of the event's kind of data, then notifies the
+     * subscribers. A failing subscriber is logged and does not keep the
+     * others from hearing about the change.
+     */
+    public static void publish(DataChangeEvent event) {
+        event.setVersion(VERSIONS.incrementAndGet(event.getKind().ordinal()));
+        for (Registration<?> registration : SUBSCRIBERS) {
+            try {
+                registration.deliver(event);
+            } catch (RuntimeException e) {
+                System.err.println("Data change subscriber failed: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+    }
+    
+    /**
+     * A number that changes whenever data of any of {@code kinds} changes.
+     */
+    public static long getVersion(DataChangeEvent.Kind... kinds) {
+        long version = 0;
+        for (DataChangeEvent.Kind kind : kinds) {
+            version += VERSIONS.get(kind.ordinal());
+        }
+        return version;
+    }
+    
+    /**
+     * Handle for removing a subscriber.
+     */
+    public interface Subscription {
+        void cancel();
+    }
+    
+    private static final class Registration<E extends DataChangeEvent> {
+        private final Class<E> type;
+        private final Consumer<? super E> subscriber;
+        
+        Registration(Class<E> type, Consumer<? super E> subscriber) {
+            this.type = type;
+            this.subscriber = subscriber;
+        }
+        
+        void deliver(DataChangeEvent event) {
+            if (type.isInstance(event)) {
+                subscriber.accept(type.cast(event));
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.financemanager.event;
+
+/**
+ * A committed change to the data behind the UI, published on
+ * {@link DataChangeBus} by the DAO that made it.
+ */
+public abstract class DataChangeEvent {
+    
+    /**
+     * The kinds of data a change to this event's subject affects.
+     */
+    public enum Kind {
+        TRANSACTIONS,
+        CATEGORIES
+    }
+    
+    private long version;
+    
+    DataChangeEvent() {
+    }
+    
+    public abstract Kind getKind();
+    
+    /**
+     * The {@link DataChangeBus} version of this event's kind of data that the
+     * change produced, assigned when it is published.
+     */
+    public long getVersion() {
+        return version;
+    }
+    
+    void setVersion(long version) {
+        this.version = version;
+    }
+}
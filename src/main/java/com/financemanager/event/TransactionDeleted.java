@@ -0,0 +1,31 @@
+package com.financemanager.event;
+
+import com.financemanager.model.Transaction;
+
+/**
+ * One transaction was deleted. The snapshot of the deleted row is shared by
+ * all subscribers and must not be modified.
+ */
+public final class TransactionDeleted extends DataChangeEvent {
+    private final Transaction transaction;
+    
+    public TransactionDeleted(Transaction transaction) {
+        this.transaction = transaction;
+    }
+    
+    public int getId() {
+        return transaction.getId();
+    }
+    
+    /**
+     * The row as it was before it was deleted.
+     */
+    public Transaction getTransaction() {
+        return transaction;
+    }
+    
+    @Override
+    public Kind getKind() {
+        return Kind.TRANSACTIONS;
+    }
+}
@@ -0,0 +1,24 @@
+package com.financemanager.event;
+
+import com.financemanager.model.Transaction;
+
+/**
+ * One transaction was inserted. The transaction is a snapshot taken at
+ * commit, shared by all subscribers, and must not be modified.
+ */
+public final class TransactionInserted extends DataChangeEvent {
+    private final Transaction transaction;
+    
+    public TransactionInserted(Transaction transaction) {
+        this.transaction = transaction;
+    }
+    
+    public Transaction getTransaction() {
+        return transaction;
+    }
+    
+    @Override
+    public Kind getKind() {
+        return Kind.TRANSACTIONS;
+    }
+}
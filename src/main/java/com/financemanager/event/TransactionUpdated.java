@@ -0,0 +1,36 @@
+package com.financemanager.event;
+
+import com.financemanager.model.Transaction;
+
+/**
+ * One transaction was changed. Both snapshots are shared by all
+ * subscribers and must not be modified.
+ */
+public final class TransactionUpdated extends DataChangeEvent {
+    private final Transaction before;
+    private final Transaction after;
+    
+    public TransactionUpdated(Transaction before, Transaction after) {
+        this.before = before;
+        this.after = after;
+    }
+    
+    /**
+     * The row as it was before the update.
+     */
+    public Transaction getBefore() {
+        return before;
+    }
+    
+    /**
+     * The row as it was committed.
+     */
+    public Transaction getAfter() {
+        return after;
+    }
+    
+    @Override
+    public Kind getKind() {
+        return Kind.TRANSACTIONS;
+    }
+}
@@ -0,0 +1,139 @@
+package com.financemanager.exporter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * UTF-8 writer to a file channel through a one-megabyte buffer, optionally
+ * gzip-compressed. ASCII text, which is nearly all of an export, is copied
+ * into the buffer byte by byte; anything else goes through an encoder.
+ * Not thread-safe.
+ */
+final class ChannelWriter extends Writer {
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final int GZIP_BUFFER_SIZE = 1 << 16;
+    
+    private final FileChannel channel;
+    // Null unless compressing; then the buffer is written through it instead of to the channel
+    private final OutputStream gzip;
+    private final ByteBuffer bytes = ByteBuffer.allocate(BUFFER_SIZE);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private long bytesWritten;
+    
+    ChannelWriter(Path file, boolean compress) throws IOException {
+        this.channel = FileChannel.open(file,
+            StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        OutputStream stream = null;
+        if (compress) {
+            try {
+                stream = new GZIPOutputStream(Channels.newOutputStream(channel), GZIP_BUFFER_SIZE);
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+        this.gzip = stream;
+    }
+    
+    @Override
+    public void write(int c) throws IOException {
+        if (c < 0x80 && bytes.hasRemaining()) {
+            bytes.put((byte) c);
+        } else {
+            write(String.valueOf((char) c), 0, 1);
+        }
+    }
+    
+    @Override
+    public void write(String text, int offset, int length) throws IOException {
+        int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            char c = text.charAt(i);
+            if (c >= 0x80) {
+                encode(CharBuffer.wrap(text, i, end));
+                return;
+            }
+            if (!bytes.hasRemaining()) {
+                drain();
+            }
+            bytes.put((byte) c);
+        }
+    }
+    
+    @Override
+    public void write(char[] chars, int offset, int length) throws IOException {
+        encode(CharBuffer.wrap(chars, offset, length));
+    }
+    
+    private void encode(CharBuffer chars) throws IOException {
+        encoder.reset();
+        while (true) {
+            CoderResult result = encoder.encode(chars, bytes, true);
+            if (result.isOverflow()) {
+                drain();
+            } else {
+                break;
+            }
+        }
+        while (encoder.flush(bytes).isOverflow()) {
+            drain();
+        }
+    }
+    
+    /**
+     * Number of bytes written so far, before compression.
+     */
+    long getBytesWritten() {
+        return bytesWritten + bytes.position();
+    }
+    
+    private void drain() throws IOException {
+        bytes.flip();
+        bytesWritten += bytes.remaining();
+        if (gzip != null) {
+            gzip.write(bytes.array(), 0, bytes.limit());
+        } else {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        }
+        bytes.clear();
+    }
+    
+    @Override
+    public void flush() throws IOException {
+        drain();
+        if (gzip != null) {
+            gzip.flush();
+        }
+    }
+    
+    @Override
+    public void close() throws IOException {
+        if (!channel.isOpen()) {
+            return;
+        }
+        try {
+            drain();
+            if (gzip != null) {
+                gzip.close();
+            }
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.financemanager.exporter;
+
+/**
+ * File formats transactions can be exported to
+ */
+public enum ExportFormat {
+    /**
+     * Comma-separated values with a header row, readable by the CSV importer.
+     */
+    CSV("CSV", "csv"),
+    /**
+     * One JSON object per line.
+     */
+    JSON_LINES("JSON Lines", "jsonl");
+    
+    private final String displayName;
+    private final String extension;
+    
+    ExportFormat(String displayName, String extension) {
+        this.displayName = displayName;
+        this.extension = extension;
+    }
+    
+    public String getDisplayName() {
+        return displayName;
+    }
+    
+    /**
+     * File name extension, without the dot and without ".gz".
+     */
+    public String getExtension() {
+        return extension;
+    }
+    
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
@@ -0,0 +1,59 @@
+package com.financemanager.exporter;
+
+/**
+ * Outcome and throughput of an export
+ */
+public final class ExportResult {
+    private final int rowCount;
+    private final long bytesWritten;
+    private final long fileSize;
+    private final long elapsedMillis;
+    
+    ExportResult(int rowCount, long bytesWritten, long fileSize, long elapsedMillis) {
+        this.rowCount = rowCount;
+        this.bytesWritten = bytesWritten;
+        this.fileSize = fileSize;
+        this.elapsedMillis = elapsedMillis;
+    }
+    
+    public int getRowCount() {
+        return rowCount;
+    }
+    
+    /**
+     * Size of the exported text, before any compression.
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+    
+    /**
+     * Size of the file on disk, which is smaller than
+     * {@link #getBytesWritten()} when it is compressed.
+     */
+    public long getFileSize() {
+        return fileSize;
+    }
+    
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+    
+    public long getRowsPerSecond() {
+        return elapsedMillis > 0 ? rowCount * 1000L / elapsedMillis : rowCount;
+    }
+    
+    /**
+     * Uncompressed megabytes written per second.
+     */
+    public double getMegabytesPerSecond() {
+        return elapsedMillis > 0 ? bytesWritten / 1_048_576.0 / (elapsedMillis / 1000.0) : 0;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("Exported %,d rows (%,.1f MB, %,.1f MB on disk) in %.1f s: %,d rows/s, %.1f MB/s",
+            rowCount, bytesWritten / 1_048_576.0, fileSize / 1_048_576.0, elapsedMillis / 1000.0,
+            getRowsPerSecond(), getMegabytesPerSecond());
+    }
+}
@@ -0,0 +1,243 @@
+package com.financemanager.exporter;
+
+import com.financemanager.dao.TransactionDAO;
+import com.financemanager.dao.TransactionFilter;
+import com.financemanager.model.LedgerRow;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Exports the transactions matching a filter, oldest first, to a CSV or
+ * JSON Lines file, optionally gzip-compressed.
+ *
+ * Rows are written one at a time as the database cursor returns them, so
+ * memory use stays flat however many rows are exported. CSV files use the
+ * columns the CSV importer reads, plus the id. The export runs on one
+ * background thread; progress can be read and the export cancelled from
+ * any thread. A cancelled or failed export deletes its partial file.
+ */
+public class LedgerExporter {
+    private static final String CSV_HEADER = "id,date,description,amount,type,category,notes\n";
+    
+    private final TransactionDAO transactionDAO;
+    private final TransactionFilter filter;
+    private final ExportFormat format;
+    private final boolean compress;
+    private final Path file;
+    private final AtomicInteger exportedCount = new AtomicInteger();
+    private volatile int totalCount = -1;
+    private volatile boolean cancelled;
+    
+    public LedgerExporter(TransactionDAO transactionDAO, TransactionFilter filter, ExportFormat format,
+                          boolean compress, Path file) {
+        this.transactionDAO = transactionDAO;
+        this.filter = filter;
+        this.format = format;
+        this.compress = compress;
+        this.file = file;
+    }
+    
+    /**
+     * Writes the file and reports the throughput, or returns null if the
+     * export was cancelled.
+     */
+    public ExportResult run() throws IOException, SQLException {
+        long start = System.nanoTime();
+        totalCount = transactionDAO.countTransactions(filter);
+        
+        boolean complete = false;
+        long bytesWritten;
+        try (ChannelWriter writer = new ChannelWriter(file, compress)) {
+            if (format == ExportFormat.CSV) {
+                writer.write(CSV_HEADER);
+            }
+            transactionDAO.forEachLedgerRow(filter, row -> {
+                if (cancelled) {
+                    throw new CancellationException();
+                }
+                try {
+                    if (format == ExportFormat.CSV) {
+                        writeCsv(writer, row);
+                    } else {
+                        writeJson(writer, row);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                exportedCount.incrementAndGet();
+            });
+            bytesWritten = writer.getBytesWritten();
+            complete = true;
+        } catch (CancellationException e) {
+            return null;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            if (!complete) {
+                Files.deleteIfExists(file);
+            }
+        }
+        
+        return new ExportResult(exportedCount.get(), bytesWritten, Files.size(file),
+            (System.nanoTime() - start) / 1_000_000);
+    }
+    
+    public void cancel() {
+        cancelled = true;
+    }
+    
+    public int getExportedCount() {
+        return exportedCount.get();
+    }
+    
+    /**
+     * Number of rows being exported, or -1 until it has been counted.
+     */
+    public int getTotalCount() {
+        return totalCount;
+    }
+    
+    private static void writeCsv(Writer writer, LedgerRow row) throws IOException {
+        writer.write(Integer.toString(row.getId()));
+        writer.write(',');
+        writeDate(writer, row.getEpochDay());
+        writer.write(',');
+        writeCsvField(writer, row.getDescription());
+        writer.write(',');
+        writeAmount(writer, row.getAmountCents());
+        writer.write(',');
+        writer.write(row.getType().getDisplayName());
+        writer.write(',');
+        writeCsvField(writer, row.getCategoryName());
+        writer.write(',');
+        writeCsvField(writer, row.getNotes());
+        writer.write('\n');
+    }
+    
+    /**
+     * Writes a field, quoted only if it contains a separator, quote or line
+     * break; null is written as an empty field.
+     */
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+    
+    private static void writeJson(Writer writer, LedgerRow row) throws IOException {
+        writer.write("{\"id\":");
+        writer.write(Integer.toString(row.getId()));
+        writer.write(",\"date\":\"");
+        writeDate(writer, row.getEpochDay());
+        writer.write("\",\"description\":");
+        writeJsonString(writer, row.getDescription());
+        writer.write(",\"amount\":");
+        writeAmount(writer, row.getAmountCents());
+        writer.write(",\"type\":\"");
+        writer.write(row.getType().getDisplayName());
+        writer.write("\",\"category\":");
+        writeJsonString(writer, row.getCategoryName());
+        writer.write(",\"notes\":");
+        writeJsonString(writer, row.getNotes());
+        writer.write("}\n");
+    }
+    
+    private static void writeJsonString(Writer writer, String value) throws IOException {
+        if (value == null) {
+            writer.write("null");
+            return;
+        }
+        writer.write('"');
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 0x20 && c != '"' && c != '\\') {
+                continue;
+            }
+            writer.write(value, start, i - start);
+            switch (c) {
+                case '"':
+                    writer.write("\\\"");
+                    break;
+                case '\\':
+                    writer.write("\\\\");
+                    break;
+                case '\n':
+                    writer.write("\\n");
+                    break;
+                case '\r':
+                    writer.write("\\r");
+                    break;
+                case '\t':
+                    writer.write("\\t");
+                    break;
+                default:
+                    writer.write(String.format("\\u%04x", (int) c));
+            }
+            start = i + 1;
+        }
+        writer.write(value, start, value.length() - start);
+        writer.write('"');
+    }
+    
+    /**
+     * Writes yyyy-MM-dd without going through a formatter.
+     */
+    private static void writeDate(Writer writer, long epochDay) throws IOException {
+        LocalDate date = LocalDate.ofEpochDay(epochDay);
+        int year = date.getYear();
+        if (year < 0 || year > 9999) {
+            writer.write(date.toString());
+            return;
+        }
+        writeDigits(writer, year, 4);
+        writer.write('-');
+        writeDigits(writer, date.getMonthValue(), 2);
+        writer.write('-');
+        writeDigits(writer, date.getDayOfMonth(), 2);
+    }
+    
+    private static void writeDigits(Writer writer, int value, int digits) throws IOException {
+        int divisor = 1;
+        for (int i = 1; i < digits; i++) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            writer.write('0' + value / divisor % 10);
+        }
+    }
+    
+    /**
+     * Writes an amount in cents as a plain decimal such as 1234.50.
+     */
+    private static void writeAmount(Writer writer, long cents) throws IOException {
+        if (cents < 0) {
+            writer.write('-');
+        }
+        long magnitude = Math.abs(cents);
+        writer.write(Long.toString(magnitude / 100));
+        writer.write('.');
+        writer.write('0' + (int) (magnitude / 10 % 10));
+        writer.write('0' + (int) (magnitude % 10));
+    }
+}
@@ -0,0 +1,46 @@
+package com.financemanager.importer;
+
+/**
+ * Bloom filter over 64-bit fingerprints, which are already well mixed, so
+ * the probe positions come straight from the fingerprint's two halves by
+ * double hashing. Sized at 10 or more bits per element with 7 probes, it
+ * answers "definitely absent" for all but about 1% of absent keys.
+ * Not thread-safe.
+ */
+final class BloomFilter {
+    private static final int BITS_PER_ELEMENT = 10;
+    private static final int PROBES = 7;
+    private static final int MIN_BITS = 1 << 16;
+    
+    private final long[] words;
+    private final int mask;
+    
+    BloomFilter(long expectedElements) {
+        long wanted = Math.max(MIN_BITS, expectedElements * BITS_PER_ELEMENT);
+        // A power of two lets a probe be reduced with a mask; capped at 2^31 bits (256 MB)
+        int bits = wanted >= 1L << 30 ? Integer.MIN_VALUE : Integer.highestOneBit((int) wanted - 1) << 1;
+        this.words = new long[(int) ((bits & 0xffffffffL) >>> 6)];
+        this.mask = bits - 1;
+    }
+    
+    void add(long fingerprint) {
+        int h1 = (int) fingerprint;
+        int h2 = (int) (fingerprint >>> 32) | 1;
+        for (int i = 0; i < PROBES; i++) {
+            int bit = (h1 + i * h2) & mask;
+            words[bit >>> 6] |= 1L << bit;
+        }
+    }
+    
+    boolean mightContain(long fingerprint) {
+        int h1 = (int) fingerprint;
+        int h2 = (int) (fingerprint >>> 32) | 1;
+        for (int i = 0; i < PROBES; i++) {
+            int bit = (h1 + i * h2) & mask;
+            if ((words[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
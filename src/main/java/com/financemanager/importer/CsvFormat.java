@@ -0,0 +1,187 @@
+package com.financemanager.importer;
+
+import com.financemanager.model.Money;
+import com.financemanager.model.Transaction;
+import com.financemanager.util.DateUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Column layout of a transactions CSV file, taken from its header row, and
+ * the conversion of its records into transactions.
+ *
+ * Columns are matched by name, ignoring case and order: date (yyyy-MM-dd),
+ * description, amount and category are required; type (Income or Expense)
+ * and notes are optional. Without a type column a negative amount is an
+ * expense and a positive one income; with one, the sign is ignored.
+ * Amounts may use commas as thousands separators. Instances are immutable
+ * and shared by the parser threads.
+ */
+final class CsvFormat {
+    private final int dateColumn;
+    private final int descriptionColumn;
+    private final int amountColumn;
+    private final int typeColumn;
+    private final int categoryColumn;
+    private final int notesColumn;
+    private final int requiredFields;
+    private final Function<String, Integer> categoryIds;
+    
+    private CsvFormat(List<String> header, Function<String, Integer> categoryIds) throws IOException {
+        this.dateColumn = column(header, "date", true);
+        this.descriptionColumn = column(header, "description", true);
+        this.amountColumn = column(header, "amount", true);
+        this.typeColumn = column(header, "type", false);
+        this.categoryColumn = column(header, "category", true);
+        this.notesColumn = column(header, "notes", false);
+        this.requiredFields = Math.max(Math.max(dateColumn, descriptionColumn), Math.max(amountColumn, categoryColumn)) + 1;
+        this.categoryIds = categoryIds;
+    }
+    
+    /**
+     * Reads the layout from a header record; category names are resolved to
+     * ids, or null if unknown, by {@code categoryIds}.
+     */
+    static CsvFormat fromHeader(String header, Function<String, Integer> categoryIds) throws IOException {
+        return new CsvFormat(split(header, new ArrayList<>()), categoryIds);
+    }
+    
+    private static int column(List<String> header, String name, boolean required) throws IOException {
+        for (int i = 0; i < header.size(); i++) {
+            if (header.get(i).trim().equalsIgnoreCase(name)) {
+                return i;
+            }
+        }
+        if (required) {
+            throw new IOException("The header row has no '" + name + "' column. Expected columns: "
+                                  + "date, description, amount, category and optionally type and notes.");
+        }
+        return -1;
+    }
+    
+    /**
+     * Converts one record, using {@code fields} as scratch space.
+     *
+     * @throws IllegalArgumentException if the record is not a valid
+     *         transaction; the message says why
+     */
+    Transaction parse(String record, List<String> fields) {
+        split(record, fields);
+        if (fields.size() < requiredFields) {
+            throw new IllegalArgumentException("Expected at least " + requiredFields + " fields but found " + fields.size());
+        }
+        
+        String description = fields.get(descriptionColumn).trim();
+        if (description.isEmpty()) {
+            throw new IllegalArgumentException("Missing description");
+        }
+        
+        String dateText = fields.get(dateColumn).trim();
+        LocalDate date;
+        try {
+            date = DateUtils.parseDate(dateText);
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Invalid date '" + dateText + "' (expected yyyy-MM-dd)");
+        }
+        if (!DateUtils.isValidTransactionDate(date)) {
+            throw new IllegalArgumentException("Date '" + dateText + "' is out of range");
+        }
+        
+        String amountText = fields.get(amountColumn).trim();
+        long cents;
+        try {
+            cents = Money.toCents(new BigDecimal(amountText.replace(",", "")));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid amount '" + amountText + "'");
+        }
+        if (cents == 0) {
+            throw new IllegalArgumentException("Amount must not be zero");
+        }
+        
+        Transaction.TransactionType type;
+        if (typeColumn >= 0 && typeColumn < fields.size() && !fields.get(typeColumn).trim().isEmpty()) {
+            type = parseType(fields.get(typeColumn).trim());
+        } else {
+            type = cents < 0 ? Transaction.TransactionType.EXPENSE : Transaction.TransactionType.INCOME;
+        }
+        
+        String categoryName = fields.get(categoryColumn).trim();
+        if (categoryName.isEmpty()) {
+            throw new IllegalArgumentException("Missing category");
+        }
+        Integer categoryId = categoryIds.apply(categoryName);
+        if (categoryId == null) {
+            throw new IllegalArgumentException("Unknown category '" + categoryName + "'");
+        }
+        
+        String notes = notesColumn >= 0 && notesColumn < fields.size() ? fields.get(notesColumn).trim() : "";
+        
+        Transaction transaction = new Transaction();
+        transaction.setDescription(description);
+        transaction.setAmountCents(Math.abs(cents));
+        transaction.setType(type);
+        transaction.setCategoryId(categoryId);
+        transaction.setDate(date);
+        transaction.setNotes(notes);
+        return transaction;
+    }
+    
+    private static Transaction.TransactionType parseType(String text) {
+        for (Transaction.TransactionType type : Transaction.TransactionType.values()) {
+            if (type.getDisplayName().equalsIgnoreCase(text)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown type '" + text + "' (expected Income or Expense)");
+    }
+    
+    /**
+     * Splits a record into its fields, unquoting quoted ones; a doubled
+     * quote inside quotes stands for one quote character.
+     */
+    static List<String> split(String record, List<String> fields) {
+        fields.clear();
+        int length = record.length();
+        int i = 0;
+        while (true) {
+            if (i < length && record.charAt(i) == '"') {
+                StringBuilder field = new StringBuilder();
+                i++;
+                while (i < length) {
+                    char c = record.charAt(i++);
+                    if (c != '"') {
+                        field.append(c);
+                    } else if (i < length && record.charAt(i) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        break;
+                    }
+                }
+                int comma = record.indexOf(',', i);
+                int end = comma < 0 ? length : comma;
+                // Anything between the closing quote and the comma is kept as is
+                field.append(record, i, end);
+                fields.add(field.toString());
+                if (comma < 0) {
+                    return fields;
+                }
+                i = comma + 1;
+            } else {
+                int comma = record.indexOf(',', i);
+                if (comma < 0) {
+                    fields.add(record.substring(i));
+                    return fields;
+                }
+                fields.add(record.substring(i, comma));
+                i = comma + 1;
+            }
+        }
+    }
+}
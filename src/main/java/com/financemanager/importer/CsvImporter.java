@@ -0,0 +1,282 @@
+package com.financemanager.importer;
+
+import com.financemanager.dao.CategoryDAO;
+import com.financemanager.dao.TransactionDAO;
+import com.financemanager.model.Transaction;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Imports transactions from a CSV file laid out as described by
+ * {@link CsvFormat}.
+ *
+ * The import is a three-stage pipeline. A reader thread splits the file
+ * into chunks of records; a pool of parser threads converts each chunk into
+ * transactions, rejecting invalid records; and the thread calling
+ * {@link #run()} inserts the chunks, in file order, in large SQL
+ * transactions. The stages are joined by small bounded queues, so a stage
+ * that falls behind blocks the one before it and only a few chunks are in
+ * memory at any time, however large the file.
+ */
+public class CsvImporter extends TransactionImporter {
+    private static final int CHUNK_RECORDS = 2_000;
+    private static final int PARSER_COUNT = Math.max(1, Runtime.getRuntime().availableProcessors() - 2);
+    private static final int QUEUE_CHUNKS = PARSER_COUNT * 2;
+    private static final long POLL_MILLIS = 50;
+    // Marks the end of the records, and of a parser's output
+    private static final Chunk END = new Chunk(-1);
+    
+    private final BlockingQueue<Chunk> records = new ArrayBlockingQueue<>(QUEUE_CHUNKS);
+    private final BlockingQueue<Chunk> parsed = new ArrayBlockingQueue<>(QUEUE_CHUNKS);
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    
+    public CsvImporter(Path file, TransactionDAO transactionDAO, CategoryDAO categoryDAO) {
+        super(file, transactionDAO, categoryDAO);
+    }
+    
+    @Override
+    protected void importFile() throws IOException, SQLException {
+        try (CsvRecordReader reader = new CsvRecordReader(file, this::addBytesRead)) {
+            String header = reader.next();
+            if (header == null) {
+                throw new IOException("The file is empty.");
+            }
+            CsvFormat format = CsvFormat.fromHeader(header, this::resolveCategory);
+            
+            Thread readerThread = new Thread(() -> readChunks(reader), "csv-reader");
+            readerThread.setDaemon(true);
+            AtomicInteger parserNumber = new AtomicInteger();
+            ExecutorService parsers = Executors.newFixedThreadPool(PARSER_COUNT, r -> {
+                Thread thread = new Thread(r, "csv-parser-" + parserNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            
+            readerThread.start();
+            for (int i = 0; i < PARSER_COUNT; i++) {
+                parsers.execute(() -> parseChunks(format));
+            }
+            try {
+                insert(new ParsedTransactions());
+            } catch (SQLException | RuntimeException | Error e) {
+                failure.compareAndSet(null, e);
+            } finally {
+                // Unless the input simply ran out, the other stages see the cancellation or failure within a poll
+                parsers.shutdown();
+                readerThread.join();
+                parsers.awaitTermination(1, TimeUnit.MINUTES);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancel();
+        }
+        
+        Throwable error = failure.get();
+        if (error instanceof IOException) {
+            throw (IOException) error;
+        } else if (error instanceof SQLException) {
+            throw (SQLException) error;
+        } else if (error instanceof RuntimeException) {
+            throw (RuntimeException) error;
+        } else if (error instanceof Error) {
+            throw (Error) error;
+        }
+    }
+    
+    /**
+     * Reader stage: groups records into chunks, numbering the chunks so the
+     * writer can restore file order after parallel parsing.
+     */
+    private void readChunks(CsvRecordReader reader) {
+        try {
+            long sequence = 0;
+            Chunk chunk = new Chunk(sequence++);
+            String record;
+            while (!stopped() && (record = reader.next()) != null) {
+                chunk.add(record, reader.getLineNumber());
+                if (chunk.size() == CHUNK_RECORDS) {
+                    if (!put(records, chunk)) {
+                        return;
+                    }
+                    chunk = new Chunk(sequence++);
+                }
+            }
+            if (chunk.size() > 0 && !put(records, chunk)) {
+                return;
+            }
+            put(records, END);
+        } catch (IOException | RuntimeException e) {
+            failure.compareAndSet(null, e);
+        } catch (InterruptedException e) {
+            // Stopped by the writer
+        }
+    }
+    
+    /**
+     * Parser stage: converts chunks until the reader runs out, then passes
+     * the end marker on to the next parser and to the writer.
+     */
+    private void parseChunks(CsvFormat format) {
+        List<String> fields = new ArrayList<>();
+        try {
+            while (true) {
+                Chunk chunk = take(records);
+                if (chunk == null) {
+                    return;
+                }
+                if (chunk == END) {
+                    put(records, END);
+                    put(parsed, END);
+                    return;
+                }
+                
+                for (int i = 0; i < chunk.size(); i++) {
+                    String record = chunk.records.get(i);
+                    if (record.trim().isEmpty()) {
+                        continue;
+                    }
+                    try {
+                        chunk.transactions.add(format.parse(record, fields));
+                    } catch (IllegalArgumentException e) {
+                        reject(chunk.lineNumbers[i], e.getMessage(), record);
+                    }
+                }
+                chunk.records.clear();
+                if (!put(parsed, chunk)) {
+                    return;
+                }
+            }
+        } catch (RuntimeException e) {
+            failure.compareAndSet(null, e);
+        } catch (InterruptedException e) {
+            // Stopped by the writer
+        }
+    }
+    
+    private boolean stopped() {
+        return isCancelled() || failure.get() != null;
+    }
+    
+    /**
+     * Blocks until the queue has room, giving up if the import stops.
+     */
+    private boolean put(BlockingQueue<Chunk> queue, Chunk chunk) throws InterruptedException {
+        while (!queue.offer(chunk, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+            if (stopped()) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Blocks until the queue has a chunk, returning null if the import stops.
+     */
+    private Chunk take(BlockingQueue<Chunk> queue) throws InterruptedException {
+        Chunk chunk;
+        while ((chunk = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS)) == null) {
+            if (stopped()) {
+                return null;
+            }
+        }
+        return chunk;
+    }
+    
+    /**
+     * Writer stage input: the parsed transactions in file order. Chunks
+     * parsed ahead of an earlier one wait in {@link #pending}.
+     */
+    private final class ParsedTransactions implements Iterator<Transaction> {
+        private final Map<Long, Chunk> pending = new HashMap<>();
+        private long nextSequence;
+        private int finishedParsers;
+        private Iterator<Transaction> current = Collections.emptyIterator();
+        
+        @Override
+        public boolean hasNext() {
+            while (!current.hasNext()) {
+                Chunk chunk = nextChunk();
+                if (chunk == null) {
+                    return false;
+                }
+                current = chunk.transactions.iterator();
+            }
+            return true;
+        }
+        
+        @Override
+        public Transaction next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current.next();
+        }
+        
+        private Chunk nextChunk() {
+            try {
+                while (true) {
+                    Chunk chunk = pending.remove(nextSequence);
+                    if (chunk != null) {
+                        nextSequence++;
+                        return chunk;
+                    }
+                    if (finishedParsers == PARSER_COUNT || stopped()) {
+                        return null;
+                    }
+                    chunk = take(parsed);
+                    if (chunk == null) {
+                        return null;
+                    }
+                    if (chunk == END) {
+                        finishedParsers++;
+                    } else {
+                        pending.put(chunk.sequence, chunk);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancel();
+                return null;
+            }
+        }
+    }
+    
+    /**
+     * A run of consecutive records and, once parsed, their transactions.
+     */
+    private static final class Chunk {
+        final long sequence;
+        final List<String> records = new ArrayList<>(CHUNK_RECORDS);
+        final long[] lineNumbers = new long[CHUNK_RECORDS];
+        final List<Transaction> transactions = new ArrayList<>(CHUNK_RECORDS);
+        
+        Chunk(long sequence) {
+            this.sequence = sequence;
+        }
+        
+        void add(String record, long lineNumber) {
+            lineNumbers[records.size()] = lineNumber;
+            records.add(record);
+        }
+        
+        int size() {
+            return records.size();
+        }
+    }
+}
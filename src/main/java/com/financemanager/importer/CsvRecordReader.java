@@ -0,0 +1,128 @@
+package com.financemanager.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.LongConsumer;
+
+/**
+ * Splits a UTF-8 CSV file into records, one per line except that line
+ * breaks inside double quotes belong to the field. Bytes are read through a
+ * file channel into a direct buffer and decoded a megabyte at a time.
+ * A byte order mark is skipped and CRLF line ends are accepted.
+ * Not thread-safe.
+ */
+final class CsvRecordReader implements Closeable {
+    // Bytes read and chars decoded at a time; tests place input across this boundary
+    static final int BUFFER_SIZE = 1 << 20;
+    
+    private final FileChannel channel;
+    private final LongConsumer bytesRead;
+    private final ByteBuffer bytes = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final StringBuilder record = new StringBuilder(256);
+    private boolean endOfInput;
+    private boolean firstFill = true;
+    private long nextLineNumber = 1;
+    private long lineNumber;
+    
+    CsvRecordReader(Path file, LongConsumer bytesRead) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.bytesRead = bytesRead;
+        chars.flip();
+    }
+    
+    /**
+     * The next record without its line end, or null at the end of the file.
+     */
+    String next() throws IOException {
+        record.setLength(0);
+        lineNumber = nextLineNumber;
+        boolean quoted = false;
+        boolean any = false;
+        char[] buffer = chars.array();
+        
+        while (true) {
+            if (!chars.hasRemaining() && !fill()) {
+                return any ? record.toString() : null;
+            }
+            any = true;
+            
+            int start = chars.position();
+            int limit = chars.limit();
+            for (int i = start; i < limit; i++) {
+                char c = buffer[i];
+                if (c == '"') {
+                    quoted = !quoted;
+                } else if (c == '\n') {
+                    nextLineNumber++;
+                    if (!quoted) {
+                        int end = i > start && buffer[i - 1] == '\r' ? i - 1 : i;
+                        record.append(buffer, start, end - start);
+                        chars.position(i + 1);
+                        int length = record.length();
+                        if (end == start && length > 0 && record.charAt(length - 1) == '\r') {
+                            // The CR ended the previous buffer
+                            record.setLength(length - 1);
+                        }
+                        return record.toString();
+                    }
+                }
+            }
+            record.append(buffer, start, limit - start);
+            chars.position(limit);
+        }
+    }
+    
+    /**
+     * One-based line number on which the last record returned by
+     * {@link #next()} starts.
+     */
+    long getLineNumber() {
+        return lineNumber;
+    }
+    
+    private boolean fill() throws IOException {
+        chars.clear();
+        while (chars.position() == 0) {
+            if (!endOfInput) {
+                int read = channel.read(bytes);
+                if (read < 0) {
+                    endOfInput = true;
+                } else {
+                    bytesRead.accept(read);
+                }
+            }
+            bytes.flip();
+            decoder.decode(bytes, chars, endOfInput);
+            bytes.compact();
+            if (endOfInput && bytes.position() == 0) {
+                break;
+            }
+        }
+        chars.flip();
+        
+        if (firstFill) {
+            firstFill = false;
+            if (chars.hasRemaining() && chars.get(chars.position()) == '\uFEFF') {
+                chars.get();
+            }
+        }
+        return chars.hasRemaining();
+    }
+    
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
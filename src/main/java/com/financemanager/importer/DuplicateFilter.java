@@ -0,0 +1,68 @@
+package com.financemanager.importer;
+
+import com.financemanager.dao.TransactionDAO;
+import com.financemanager.model.Transaction;
+import com.financemanager.model.TransactionFingerprint;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Recognises imported rows that are already in the ledger by their
+ * {@link TransactionFingerprint}.
+ *
+ * A Bloom filter of the fingerprints present when the import starts
+ * clears almost every new row in memory; only the rest, about 1% of new
+ * rows plus the real duplicates, are checked against the fingerprint
+ * index. Rows are matched one for one: if the ledger holds two identical
+ * entries, as when the same coffee is bought twice in a day, the first two
+ * identical rows in the file are duplicates and a third is imported.
+ * Used by the importing thread only.
+ */
+final class DuplicateFilter {
+    private final TransactionDAO transactionDAO;
+    private final int lastExistingId;
+    private final BloomFilter existing;
+    // Rows of the file matched so far, per fingerprint
+    private final Map<Long, Integer> matched = new HashMap<>();
+    
+    private DuplicateFilter(TransactionDAO transactionDAO, int lastExistingId, BloomFilter existing) {
+        this.transactionDAO = transactionDAO;
+        this.lastExistingId = lastExistingId;
+        this.existing = existing;
+    }
+    
+    /**
+     * Builds the filter from the fingerprints of the transactions with an
+     * id of at most {@code lastExistingId}. Rows added concurrently only
+     * make the filter slightly less selective.
+     */
+    static DuplicateFilter load(TransactionDAO transactionDAO, int lastExistingId) throws SQLException {
+        BloomFilter existing = new BloomFilter(transactionDAO.countTransactions());
+        transactionDAO.forEachFingerprint(existing::add);
+        return new DuplicateFilter(transactionDAO, lastExistingId, existing);
+    }
+    
+    /**
+     * Whether {@code transaction} matches an existing transaction that no
+     * earlier row of the file has matched.
+     */
+    boolean isDuplicate(Transaction transaction) throws SQLException {
+        long fingerprint = TransactionFingerprint.of(transaction);
+        if (!existing.mightContain(fingerprint)) {
+            return false;
+        }
+        
+        int existingCount = transactionDAO.countTransactionsWithFingerprint(transaction.getDate(), fingerprint, lastExistingId);
+        if (existingCount == 0) {
+            return false;
+        }
+        int matchedCount = matched.getOrDefault(fingerprint, 0);
+        if (matchedCount >= existingCount) {
+            return false;
+        }
+        matched.put(fingerprint, matchedCount + 1);
+        return true;
+    }
+}
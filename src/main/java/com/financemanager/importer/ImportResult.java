@@ -0,0 +1,130 @@
+package com.financemanager.importer;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of an import: how many rows were inserted, which input lines were
+ * rejected and why, how many rows were skipped as already in the ledger,
+ * and whether the user cancelled it part way.
+ */
+public final class ImportResult {
+    private final int importedCount;
+    private final long rejectedCount;
+    private final List<RejectedLine> rejectedLines;
+    private final int duplicateCount;
+    private final int lastExistingId;
+    private final LocalDate firstDate;
+    private final LocalDate lastDate;
+    private final boolean cancelled;
+    private final long elapsedMillis;
+    
+    ImportResult(int importedCount, long rejectedCount, List<RejectedLine> rejectedLines, int duplicateCount,
+                 int lastExistingId, LocalDate firstDate, LocalDate lastDate, boolean cancelled, long elapsedMillis) {
+        this.importedCount = importedCount;
+        this.rejectedCount = rejectedCount;
+        this.rejectedLines = Collections.unmodifiableList(rejectedLines);
+        this.duplicateCount = duplicateCount;
+        this.lastExistingId = lastExistingId;
+        this.firstDate = firstDate;
+        this.lastDate = lastDate;
+        this.cancelled = cancelled;
+        this.elapsedMillis = elapsedMillis;
+    }
+    
+    public int getImportedCount() {
+        return importedCount;
+    }
+    
+    /**
+     * Number of rejected lines, which may exceed the number of
+     * {@link #getRejectedLines() lines kept} for the report.
+     */
+    public long getRejectedCount() {
+        return rejectedCount;
+    }
+    
+    /**
+     * The first rejected lines, in input order.
+     */
+    public List<RejectedLine> getRejectedLines() {
+        return rejectedLines;
+    }
+    
+    /**
+     * Number of rows skipped because the ledger already held them.
+     */
+    public int getDuplicateCount() {
+        return duplicateCount;
+    }
+    
+    /**
+     * Highest transaction id before the import; the imported rows have
+     * greater ids.
+     */
+    public int getLastExistingId() {
+        return lastExistingId;
+    }
+    
+    /**
+     * Date of the oldest imported row, or null if none was imported.
+     */
+    public LocalDate getFirstDate() {
+        return firstDate;
+    }
+    
+    /**
+     * Date of the newest imported row, or null if none was imported.
+     */
+    public LocalDate getLastDate() {
+        return lastDate;
+    }
+    
+    public boolean isCancelled() {
+        return cancelled;
+    }
+    
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+    
+    public long getRowsPerMinute() {
+        return elapsedMillis > 0 ? importedCount * 60_000L / elapsedMillis : importedCount;
+    }
+    
+    /**
+     * An input line that could not be turned into a transaction.
+     */
+    public static final class RejectedLine {
+        private final long lineNumber;
+        private final String reason;
+        private final String text;
+        
+        RejectedLine(long lineNumber, String reason, String text) {
+            this.lineNumber = lineNumber;
+            this.reason = reason;
+            this.text = text;
+        }
+        
+        /**
+         * One-based number of the line the record starts on.
+         */
+        public long getLineNumber() {
+            return lineNumber;
+        }
+        
+        public String getReason() {
+            return reason;
+        }
+        
+        public String getText() {
+            return text;
+        }
+        
+        @Override
+        public String toString() {
+            return "Line " + lineNumber + ": " + reason + " | " + text;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.financemanager.importer;
+
+import com.financemanager.dao.CategoryDAO;
+import com.financemanager.dao.TransactionDAO;
+import com.financemanager.model.Transaction;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Imports the transactions of an OFX or QFX bank or credit card statement,
+ * SGML (OFX 1.x) or XML (OFX 2.x).
+ *
+ * Each STMTTRN element becomes one transaction: DTPOSTED gives the date,
+ * the sign of TRNAMT the type, NAME (or the payee's name) the description
+ * and MEMO the notes. OFX has no categories, so every entry goes into the
+ * default category. The file is read through {@link OfxTokenizer} and
+ * entries are inserted as they are parsed, so memory use does not depend on
+ * the size of the statement.
+ */
+public class OfxImporter extends StatementImporter {
+    private static final int HEADER_SNIFF_BYTES = 4096;
+    
+    public OfxImporter(Path file, TransactionDAO transactionDAO, CategoryDAO categoryDAO, int defaultCategoryId) {
+        super(file, transactionDAO, categoryDAO, defaultCategoryId);
+    }
+    
+    @Override
+    protected void importFile() throws IOException, SQLException {
+        try (InputStream in = openFile()) {
+            OfxTokenizer tokenizer = new OfxTokenizer(new InputStreamReader(in, detectCharset(in)));
+            insert(() -> nextTransaction(tokenizer));
+        }
+    }
+    
+    /**
+     * Reads up to the end of the next STMTTRN element and converts it,
+     * skipping entries that are rejected. Returns null at the end of the file.
+     */
+    private Transaction nextTransaction(OfxTokenizer tokenizer) throws IOException {
+        Map<String, String> fields = new LinkedHashMap<>();
+        String element = null;
+        boolean inTransaction = false;
+        long startLine = 0;
+        
+        while (true) {
+            switch (tokenizer.next()) {
+                case EOF:
+                    return null;
+                case START:
+                    element = tokenizer.getName();
+                    if (element.equals("STMTTRN")) {
+                        inTransaction = true;
+                        startLine = tokenizer.getLineNumber();
+                        fields.clear();
+                    }
+                    break;
+                case TEXT:
+                    if (inTransaction && element != null) {
+                        // A payee aggregate's NAME does not override the entry's own NAME
+                        fields.putIfAbsent(element, tokenizer.getText());
+                    }
+                    break;
+                case END:
+                    element = null;
+                    if (inTransaction && tokenizer.getName().equals("STMTTRN")) {
+                        inTransaction = false;
+                        Transaction transaction = toTransaction(startLine, describe(fields),
+                            parseDate(fields.get("DTPOSTED")),
+                            fields.containsKey("TRNAMT") ? fields.get("TRNAMT").replace(',', '.') : null,
+                            fields.get("NAME"), fields.get("MEMO"), null);
+                        if (transaction != null) {
+                            return transaction;
+                        }
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+    
+    /**
+     * The date part of an OFX date-time, YYYYMMDD followed by an optional
+     * time and time zone, or null if it is missing or invalid.
+     */
+    private static LocalDate parseDate(String text) {
+        if (text == null || text.length() < 8) {
+            return null;
+        }
+        try {
+            return LocalDate.of(Integer.parseInt(text.substring(0, 4)),
+                Integer.parseInt(text.substring(4, 6)),
+                Integer.parseInt(text.substring(6, 8)));
+        } catch (NumberFormatException | DateTimeException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Text of an entry for the rejected-lines report.
+     */
+    private static String describe(Map<String, String> fields) {
+        StringBuilder text = new StringBuilder("<STMTTRN>");
+        for (Map.Entry<String, String> field : fields.entrySet()) {
+            text.append('<').append(field.getKey()).append('>').append(field.getValue());
+        }
+        return text.toString();
+    }
+    
+    /**
+     * Reads the encoding from the OFX 1.x header or the XML declaration,
+     * leaving the stream at its start. OFX 1.x files are Windows-1252 unless
+     * they say UTF-8; XML ones are UTF-8 unless they say otherwise.
+     */
+    private static Charset detectCharset(InputStream in) throws IOException {
+        in.mark(HEADER_SNIFF_BYTES);
+        byte[] bytes = new byte[HEADER_SNIFF_BYTES];
+        int length = 0;
+        int count;
+        while (length < bytes.length && (count = in.read(bytes, length, bytes.length - length)) > 0) {
+            length += count;
+        }
+        in.reset();
+        
+        String header = new String(bytes, 0, length, StandardCharsets.ISO_8859_1).toUpperCase(Locale.ROOT);
+        if (header.contains("<?XML")) {
+            int encoding = header.indexOf("ENCODING=");
+            if (encoding >= 0 && header.length() > encoding + 10) {
+                char quote = header.charAt(encoding + 9);
+                int end = header.indexOf(quote, encoding + 10);
+                if (end > 0) {
+                    try {
+                        return Charset.forName(header.substring(encoding + 10, end));
+                    } catch (IllegalArgumentException e) {
+                        // Unknown encoding name; fall back to UTF-8
+                    }
+                }
+            }
+            return StandardCharsets.UTF_8;
+        }
+        if (header.contains("ENCODING:UTF-8") || header.contains("CHARSET:UTF-8")) {
+            return StandardCharsets.UTF_8;
+        }
+        return Charset.forName("windows-1252");
+    }
+}
@@ -0,0 +1,213 @@
+package com.financemanager.importer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Locale;
+
+/**
+ * Pull tokenizer for OFX documents, both the SGML dialect of OFX 1.x, whose
+ * leaf elements have no end tags, and the XML of OFX 2.x. Like a StAX
+ * reader, each call to {@link #next()} reads just enough input for one
+ * start tag, end tag or text value, so a statement of any size is read in
+ * constant memory.
+ *
+ * The plain-text header of OFX 1.x, processing instructions, comments and
+ * attributes are skipped. Tag names are upper-cased and text values are
+ * trimmed with entities decoded. Not thread-safe.
+ */
+final class OfxTokenizer {
+    enum Token { START, END, TEXT, EOF }
+    
+    private static final int BUFFER_SIZE = 1 << 16;
+    
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private final StringBuilder value = new StringBuilder();
+    private int position;
+    private int limit;
+    private long lineNumber = 1;
+    private boolean inBody;
+    private String name;
+    private String text;
+    
+    OfxTokenizer(Reader reader) {
+        this.reader = reader;
+    }
+    
+    /**
+     * Advances to the next token.
+     */
+    Token next() throws IOException {
+        while (true) {
+            int c = peek();
+            if (c < 0) {
+                return Token.EOF;
+            }
+            if (c != '<') {
+                readText();
+                // Text before the first tag is the OFX 1.x header; whitespace between tags is insignificant
+                if (!inBody || text.isEmpty()) {
+                    continue;
+                }
+                return Token.TEXT;
+            }
+            
+            inBody = true;
+            read();
+            c = peek();
+            if (c == '?') {
+                skipPast("?>");
+            } else if (c == '!') {
+                read();
+                if (peek() == '-') {
+                    skipPast("-->");
+                } else {
+                    skipPast(">");
+                }
+            } else if (c == '/') {
+                read();
+                readName();
+                return Token.END;
+            } else {
+                readName();
+                return Token.START;
+            }
+        }
+    }
+    
+    /**
+     * Name of the current start or end tag.
+     */
+    String getName() {
+        return name;
+    }
+    
+    /**
+     * Value of the current text token.
+     */
+    String getText() {
+        return text;
+    }
+    
+    /**
+     * One-based line number of the input read so far.
+     */
+    long getLineNumber() {
+        return lineNumber;
+    }
+    
+    private void readName() throws IOException {
+        value.setLength(0);
+        int c;
+        while ((c = read()) >= 0 && c != '>') {
+            value.append((char) c);
+        }
+        String tag = value.toString().trim();
+        int end = 0;
+        while (end < tag.length() && !Character.isWhitespace(tag.charAt(end)) && tag.charAt(end) != '/') {
+            end++;
+        }
+        name = tag.substring(0, end).toUpperCase(Locale.ROOT);
+    }
+    
+    private void readText() throws IOException {
+        value.setLength(0);
+        int c;
+        while ((c = peek()) >= 0 && c != '<') {
+            value.append((char) read());
+        }
+        text = decodeEntities(value.toString().trim());
+    }
+    
+    private void skipPast(String terminator) throws IOException {
+        int matched = 0;
+        int c;
+        while (matched < terminator.length() && (c = read()) >= 0) {
+            if (c == terminator.charAt(matched)) {
+                matched++;
+            } else {
+                matched = c == terminator.charAt(0) ? 1 : 0;
+            }
+        }
+    }
+    
+    private static String decodeEntities(String raw) {
+        int amp = raw.indexOf('&');
+        if (amp < 0) {
+            return raw;
+        }
+        StringBuilder decoded = new StringBuilder(raw.length());
+        int start = 0;
+        while (amp >= 0) {
+            int semicolon = raw.indexOf(';', amp);
+            if (semicolon < 0) {
+                break;
+            }
+            String entity = raw.substring(amp + 1, semicolon);
+            String replacement = replacement(entity);
+            if (replacement != null) {
+                decoded.append(raw, start, amp).append(replacement);
+                start = semicolon + 1;
+            }
+            amp = raw.indexOf('&', amp + 1);
+        }
+        return decoded.append(raw, start, raw.length()).toString();
+    }
+    
+    private static String replacement(String entity) {
+        switch (entity) {
+            case "amp":
+                return "&";
+            case "lt":
+                return "<";
+            case "gt":
+                return ">";
+            case "quot":
+                return "\"";
+            case "apos":
+                return "'";
+            case "nbsp":
+                return " ";
+            default:
+                if (entity.startsWith("#")) {
+                    try {
+                        int codePoint = entity.startsWith("#x") || entity.startsWith("#X")
+                            ? Integer.parseInt(entity.substring(2), 16)
+                            : Integer.parseInt(entity.substring(1));
+                        return new String(Character.toChars(codePoint));
+                    } catch (IllegalArgumentException e) {
+                        return null;
+                    }
+                }
+                return null;
+        }
+    }
+    
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position];
+    }
+    
+    private int read() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        char c = buffer[position++];
+        if (c == '\n') {
+            lineNumber++;
+        }
+        return c;
+    }
+    
+    private boolean fill() throws IOException {
+        int count;
+        do {
+            count = reader.read(buffer, 0, buffer.length);
+        } while (count == 0);
+        position = 0;
+        limit = Math.max(count, 0);
+        return count > 0;
+    }
+}
@@ -0,0 +1,313 @@
+package com.financemanager.importer;
+
+import com.financemanager.dao.CategoryDAO;
+import com.financemanager.dao.TransactionDAO;
+import com.financemanager.model.Transaction;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * Imports the transactions of a QIF (Quicken Interchange Format) file.
+ *
+ * The file is read line by line through a small state machine: a "!Type:"
+ * header opens a section, whose records are entered one field per line
+ * and closed by "^". Records of bank, cash, credit card and asset or
+ * liability accounts are imported; other sections, such as category lists
+ * and memorised payees, are skipped. D gives the date, the sign of T the
+ * type, P the description, M the notes and L the category, which is used
+ * when it names an existing category (for "Parent:Child", the child or
+ * else the parent). Split lines are ignored in favour of the record's total.
+ * Only the current record is held in memory.
+ *
+ * QIF declares neither its encoding nor its number format. A file is read
+ * as UTF-8 if it starts with a byte order mark or its first
+ * {@value #CHARSET_SNIFF_BYTES} bytes are valid UTF-8 with some non-ASCII
+ * text, and as Windows-1252 otherwise. In amounts, the last of a comma and
+ * a period is the decimal separator, so both 1,234.56 and 1.234,56 read
+ * as 1234.56; a lone separator followed by exactly three digits, as in
+ * 1,234, could be either and is rejected.
+ */
+public class QifImporter extends StatementImporter {
+    private static final int CHARSET_SNIFF_BYTES = 1 << 16;
+    
+    private enum State {
+        // Before the first header, or in a section whose records are not transactions
+        SKIPPING,
+        // Between records of a transaction section
+        BETWEEN_RECORDS,
+        // Inside a transaction record
+        IN_RECORD
+    }
+    
+    public QifImporter(Path file, TransactionDAO transactionDAO, CategoryDAO categoryDAO, int defaultCategoryId) {
+        super(file, transactionDAO, categoryDAO, defaultCategoryId);
+    }
+    
+    @Override
+    protected void importFile() throws IOException, SQLException {
+        try (InputStream in = openFile();
+             BufferedReader reader = new BufferedReader(new InputStreamReader(in, detectCharset(in)))) {
+            RecordReader records = new RecordReader(reader);
+            insert(records::next);
+        }
+    }
+    
+    /**
+     * Tells UTF-8 from Windows-1252 by the byte order mark or by whether
+     * the start of the file decodes as UTF-8, leaving the stream at its
+     * start, past the byte order mark if there is one.
+     */
+    private static Charset detectCharset(InputStream in) throws IOException {
+        in.mark(CHARSET_SNIFF_BYTES);
+        byte[] bytes = new byte[CHARSET_SNIFF_BYTES];
+        int length = 0;
+        int count;
+        while (length < bytes.length && (count = in.read(bytes, length, bytes.length - length)) > 0) {
+            length += count;
+        }
+        in.reset();
+        
+        if (length >= 3 && bytes[0] == (byte) 0xEF && bytes[1] == (byte) 0xBB && bytes[2] == (byte) 0xBF) {
+            // Otherwise it would precede the first header, which would not be recognised
+            in.readNBytes(3);
+            return StandardCharsets.UTF_8;
+        }
+        boolean ascii = true;
+        for (int i = 0; i < length && ascii; i++) {
+            ascii = bytes[i] >= 0;
+        }
+        if (ascii) {
+            // Nothing to tell them apart by; UTF-8 reads plain ASCII the same way
+            return StandardCharsets.UTF_8;
+        }
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPORT)
+            .onUnmappableCharacter(CodingErrorAction.REPORT);
+        ByteBuffer input = ByteBuffer.wrap(bytes, 0, length);
+        // Not end of input, so a character cut off at the end of the sniff is not an error
+        CoderResult result = decoder.decode(input, CharBuffer.allocate(length), length < CHARSET_SNIFF_BYTES);
+        return result.isError() ? Charset.forName("windows-1252") : StandardCharsets.UTF_8;
+    }
+    
+    /**
+     * The state machine, returning one transaction per call.
+     */
+    private final class RecordReader {
+        private final BufferedReader reader;
+        private final StringBuilder recordText = new StringBuilder();
+        private State state = State.SKIPPING;
+        private long lineNumber;
+        private long recordLine;
+        private String date;
+        private String amount;
+        private String payee;
+        private String memo;
+        private String category;
+        
+        RecordReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+        
+        Transaction next() throws IOException {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                
+                if (line.startsWith("!")) {
+                    // A header ends any unterminated record
+                    Transaction pending = state == State.IN_RECORD ? endRecord() : null;
+                    state = isTransactionSection(line) ? State.BETWEEN_RECORDS : State.SKIPPING;
+                    if (pending != null) {
+                        return pending;
+                    }
+                    continue;
+                }
+                if (state == State.SKIPPING) {
+                    continue;
+                }
+                
+                if (line.startsWith("^")) {
+                    if (state == State.IN_RECORD) {
+                        state = State.BETWEEN_RECORDS;
+                        Transaction transaction = endRecord();
+                        if (transaction != null) {
+                            return transaction;
+                        }
+                    }
+                    continue;
+                }
+                
+                if (state == State.BETWEEN_RECORDS) {
+                    startRecord();
+                    state = State.IN_RECORD;
+                }
+                field(line);
+            }
+            
+            if (state == State.IN_RECORD) {
+                state = State.SKIPPING;
+                return endRecord();
+            }
+            return null;
+        }
+        
+        private void startRecord() {
+            recordLine = lineNumber;
+            recordText.setLength(0);
+            date = null;
+            amount = null;
+            payee = null;
+            memo = null;
+            category = null;
+        }
+        
+        private void field(String line) {
+            if (recordText.length() > 0) {
+                recordText.append(" | ");
+            }
+            recordText.append(line);
+            
+            String value = line.substring(1).trim();
+            switch (line.charAt(0)) {
+                case 'D':
+                    date = value;
+                    break;
+                case 'T':
+                case 'U':
+                    if (amount == null) {
+                        amount = value;
+                    }
+                    break;
+                case 'P':
+                    payee = value;
+                    break;
+                case 'M':
+                    memo = value;
+                    break;
+                case 'L':
+                    category = value;
+                    break;
+                default:
+                    // Check numbers, cleared flags, addresses and split lines are not imported
+                    break;
+            }
+        }
+        
+        private Transaction endRecord() {
+            String amountText = amount != null ? normalizeAmount(amount) : null;
+            if (amount != null && amountText == null) {
+                reject(recordLine, "Ambiguous amount '" + amount + "'", recordText.toString());
+                return null;
+            }
+            return toTransaction(recordLine, recordText.toString(), parseDate(date),
+                amountText, payee, memo, categoryName(category));
+        }
+    }
+    
+    private static boolean isTransactionSection(String header) {
+        String type = header.trim().toLowerCase(Locale.ROOT);
+        return type.equals("!type:bank") || type.equals("!type:cash") || type.equals("!type:ccard")
+               || type.equals("!type:oth a") || type.equals("!type:oth l");
+    }
+    
+    /**
+     * The category to look up for an L field: none for transfers, written
+     * as [Account], and without any /Class suffix. For a subcategory, the
+     * most specific part that names an existing category.
+     */
+    private String categoryName(String field) {
+        if (field == null || field.isEmpty() || field.startsWith("[")) {
+            return null;
+        }
+        int slash = field.indexOf('/');
+        String name = slash >= 0 ? field.substring(0, slash) : field;
+        int colon = name.lastIndexOf(':');
+        if (colon >= 0 && resolveCategory(name) == null) {
+            String child = name.substring(colon + 1);
+            name = resolveCategory(child) != null ? child : name.substring(0, name.indexOf(':'));
+        }
+        return name;
+    }
+    
+    /**
+     * Rewrites an amount with a period as the decimal separator and no
+     * digit grouping, or returns null if the separator cannot be told:
+     * a single comma or period followed by exactly three digits.
+     */
+    static String normalizeAmount(String text) {
+        int comma = text.lastIndexOf(',');
+        int period = text.lastIndexOf('.');
+        if (comma < 0 && period < 0) {
+            return text;
+        }
+        
+        char decimal;
+        if (comma >= 0 && period >= 0) {
+            decimal = comma > period ? ',' : '.';
+        } else {
+            char separator = comma >= 0 ? ',' : '.';
+            int last = Math.max(comma, period);
+            if (text.indexOf(separator) != last) {
+                // Repeated, so it groups digits: 1,234,567
+                return text.replace(String.valueOf(separator), "");
+            }
+            if (text.length() - last - 1 == 3) {
+                return null;
+            }
+            decimal = separator;
+        }
+        String grouping = decimal == ',' ? "." : ",";
+        return text.replace(grouping, "").replace(decimal, '.');
+    }
+    
+    /**
+     * Parses the date forms Quicken writes: month first, as in 12/31/2023,
+     * 12/31/23 or 12/31'05 (an apostrophe marks a year after 1999), or
+     * ISO yyyy-MM-dd. A first number above 12 is read as the day.
+     * Returns null if the date is missing or invalid.
+     */
+    private static LocalDate parseDate(String text) {
+        if (text == null) {
+            return null;
+        }
+        String[] parts = text.trim().replace(" ", "").split("[/'.-]");
+        if (parts.length != 3) {
+            return null;
+        }
+        try {
+            int first = Integer.parseInt(parts[0]);
+            int second = Integer.parseInt(parts[1]);
+            int third = Integer.parseInt(parts[2]);
+            if (parts[0].length() == 4) {
+                return LocalDate.of(first, second, third);
+            }
+            
+            int year = third;
+            if (parts[2].length() <= 2) {
+                boolean apostrophe = text.indexOf('\'') >= 0;
+                year += apostrophe || third < 50 ? 2000 : 1900;
+            }
+            return first > 12 ? LocalDate.of(year, second, first) : LocalDate.of(year, first, second);
+        } catch (NumberFormatException | DateTimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.financemanager.importer;
+
+import com.financemanager.dao.CategoryDAO;
+import com.financemanager.dao.TransactionDAO;
+import com.financemanager.model.Money;
+import com.financemanager.model.Transaction;
+import com.financemanager.util.DateUtils;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+/**
+ * Base class of the bank statement importers. Statements carry signed
+ * amounts: negative entries become expenses and positive ones income.
+ * Entries go into a category chosen by the user unless the statement names
+ * an existing category.
+ */
+public abstract class StatementImporter extends TransactionImporter {
+    private final int defaultCategoryId;
+    
+    protected StatementImporter(Path file, TransactionDAO transactionDAO, CategoryDAO categoryDAO,
+                                int defaultCategoryId) {
+        super(file, transactionDAO, categoryDAO);
+        this.defaultCategoryId = defaultCategoryId;
+    }
+    
+    /**
+     * Builds the transaction for one statement entry, or rejects the entry
+     * and returns null if it is incomplete or invalid.
+     *
+     * @param date         the entry's date, or null if it was missing or unreadable
+     * @param amountText   the signed amount, with a period as the decimal separator
+     * @param categoryName a category name from the statement, or null
+     */
+    protected final Transaction toTransaction(long lineNumber, String entryText, LocalDate date,
+                                              String amountText, String description, String notes,
+                                              String categoryName) {
+        if (date == null) {
+            reject(lineNumber, "Missing or invalid date", entryText);
+            return null;
+        }
+        if (!DateUtils.isValidTransactionDate(date)) {
+            reject(lineNumber, "Date " + date + " is out of range", entryText);
+            return null;
+        }
+        if (amountText == null || amountText.trim().isEmpty()) {
+            reject(lineNumber, "Missing amount", entryText);
+            return null;
+        }
+        
+        long cents;
+        try {
+            cents = Money.toCents(new BigDecimal(amountText.trim()));
+        } catch (NumberFormatException e) {
+            reject(lineNumber, "Invalid amount '" + amountText.trim() + "'", entryText);
+            return null;
+        }
+        if (cents == 0) {
+            reject(lineNumber, "Amount must not be zero", entryText);
+            return null;
+        }
+        
+        String trimmedDescription = description != null ? description.trim() : "";
+        String trimmedNotes = notes != null ? notes.trim() : "";
+        if (trimmedDescription.isEmpty()) {
+            // Some banks put everything in the memo
+            trimmedDescription = trimmedNotes;
+            trimmedNotes = "";
+        }
+        if (trimmedDescription.isEmpty()) {
+            reject(lineNumber, "Missing description", entryText);
+            return null;
+        }
+        
+        Integer categoryId = categoryName != null && !categoryName.trim().isEmpty()
+            ? resolveCategory(categoryName) : null;
+        
+        Transaction transaction = new Transaction();
+        transaction.setDescription(trimmedDescription);
+        transaction.setAmountCents(Math.abs(cents));
+        transaction.setType(cents < 0 ? Transaction.TransactionType.EXPENSE : Transaction.TransactionType.INCOME);
+        transaction.setCategoryId(categoryId != null ? categoryId : defaultCategoryId);
+        transaction.setDate(date);
+        transaction.setNotes(trimmedNotes);
+        return transaction;
+    }
+}
@@ -0,0 +1,339 @@
+package com.financemanager.importer;
+
+import com.financemanager.dao.CategoryDAO;
+import com.financemanager.dao.TransactionDAO;
+import com.financemanager.dao.UncheckedSQLException;
+import com.financemanager.model.Category;
+import com.financemanager.model.Transaction;
+
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Base class of the file importers. Subclasses turn a file into
+ * transactions and hand them to {@link #insert(Iterator)} or
+ * {@link #insert(TransactionReader)}, which write them in large SQL
+ * transactions; lines that cannot be imported are reported through
+ * {@link #reject(long, String, String)}. Unless turned off with
+ * {@link #setSkipDuplicates(boolean)}, rows already in the ledger, as when
+ * overlapping statements are imported, are counted and skipped.
+ *
+ * An import runs on one background thread. Progress can be read and the
+ * import cancelled from any thread, e.g. the EDT; rows already committed
+ * when an import is cancelled stay in the database.
+ */
+public abstract class TransactionImporter {
+    // Rows per SQL transaction; each commit publishes one BulkImported event
+    private static final int COMMIT_ROWS = 50_000;
+    // Rows per JDBC batch within a transaction
+    private static final int INSERT_CHUNK = 1_000;
+    private static final int MAX_REPORTED_REJECTIONS = 10_000;
+    private static final int MAX_REPORTED_TEXT = 200;
+    private static final int READ_BUFFER_SIZE = 1 << 16;
+    
+    protected final Path file;
+    private final TransactionDAO transactionDAO;
+    private final CategoryDAO categoryDAO;
+    private final AtomicLong bytesRead = new AtomicLong();
+    private final AtomicInteger importedCount = new AtomicInteger();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicInteger duplicateCount = new AtomicInteger();
+    // The rejections with the lowest line numbers, highest at the head, as
+    // parallel parsers report them out of order; guarded by itself
+    private final PriorityQueue<ImportResult.RejectedLine> rejectedLines = new PriorityQueue<>(
+        Comparator.comparingLong(ImportResult.RejectedLine::getLineNumber).reversed());
+    private volatile boolean cancelled;
+    private volatile long fileSize;
+    private volatile boolean skipDuplicates = true;
+    private Map<String, Integer> categoryIds;
+    private DuplicateFilter duplicates;
+    private int lastExistingId;
+    // Date range of the imported rows, as epoch days
+    private long firstDay = Long.MAX_VALUE;
+    private long lastDay = Long.MIN_VALUE;
+    
+    protected TransactionImporter(Path file, TransactionDAO transactionDAO, CategoryDAO categoryDAO) {
+        this.file = file;
+        this.transactionDAO = transactionDAO;
+        this.categoryDAO = categoryDAO;
+    }
+    
+    /**
+     * Imports the whole file, or as much of it as was read before
+     * {@link #cancel()}. Not reusable: call once per importer.
+     */
+    public final ImportResult run() throws IOException, SQLException {
+        long start = System.nanoTime();
+        fileSize = Files.size(file);
+        categoryIds = loadCategoryIds();
+        lastExistingId = transactionDAO.getMaxTransactionId();
+        duplicates = skipDuplicates ? DuplicateFilter.load(transactionDAO, lastExistingId) : null;
+        
+        importFile();
+        
+        List<ImportResult.RejectedLine> rejected;
+        synchronized (rejectedLines) {
+            rejected = new ArrayList<>(rejectedLines);
+        }
+        rejected.sort(Comparator.comparingLong(ImportResult.RejectedLine::getLineNumber));
+        return new ImportResult(importedCount.get(), rejectedCount.get(), rejected, duplicateCount.get(),
+            lastExistingId,
+            importedCount.get() > 0 ? LocalDate.ofEpochDay(firstDay) : null,
+            importedCount.get() > 0 ? LocalDate.ofEpochDay(lastDay) : null,
+            cancelled, (System.nanoTime() - start) / 1_000_000);
+    }
+    
+    /**
+     * Reads {@link #file} and inserts its transactions.
+     */
+    protected abstract void importFile() throws IOException, SQLException;
+    
+    /**
+     * Asks the import to stop. It finishes the SQL transaction in progress
+     * with the rows read so far and returns from {@link #run()}.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+    
+    public boolean isCancelled() {
+        return cancelled;
+    }
+    
+    /**
+     * Fraction of the file read so far, from 0 to 1.
+     */
+    public double getProgress() {
+        long size = fileSize;
+        return size > 0 ? Math.min(1.0, (double) bytesRead.get() / size) : 0.0;
+    }
+    
+    public int getImportedCount() {
+        return importedCount.get();
+    }
+    
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+    
+    public int getDuplicateCount() {
+        return duplicateCount.get();
+    }
+    
+    /**
+     * Whether rows matching a transaction already in the ledger are skipped,
+     * which they are by default. Must be set before {@link #run()}.
+     */
+    public void setSkipDuplicates(boolean skipDuplicates) {
+        this.skipDuplicates = skipDuplicates;
+    }
+    
+    /**
+     * Inserts every transaction the iterator yields until it is exhausted
+     * or the import is cancelled, committing every {@value #COMMIT_ROWS}
+     * rows so other writers are not locked out for the whole import.
+     */
+    protected final void insert(Iterator<Transaction> source) throws SQLException {
+        Iterator<Transaction> transactions = duplicates != null ? withoutDuplicates(source) : source;
+        try {
+            insertBatches(transactions);
+        } catch (UncheckedSQLException e) {
+            throw e.getCause();
+        }
+    }
+    
+    private void insertBatches(Iterator<Transaction> transactions) throws SQLException {
+        while (!cancelled && transactions.hasNext()) {
+            Iterator<Transaction> batch = new Iterator<Transaction>() {
+                private int remaining = COMMIT_ROWS;
+                
+                @Override
+                public boolean hasNext() {
+                    return remaining > 0 && !cancelled && transactions.hasNext();
+                }
+                
+                @Override
+                public Transaction next() {
+                    remaining--;
+                    Transaction transaction = transactions.next();
+                    long day = transaction.getDate().toEpochDay();
+                    firstDay = Math.min(firstDay, day);
+                    lastDay = Math.max(lastDay, day);
+                    importedCount.incrementAndGet();
+                    return transaction;
+                }
+            };
+            transactionDAO.insertTransactions(batch, INSERT_CHUNK);
+        }
+    }
+    
+    /**
+     * Passes on the transactions that {@link #duplicates} does not recognise.
+     */
+    private Iterator<Transaction> withoutDuplicates(Iterator<Transaction> transactions) {
+        return new Iterator<Transaction>() {
+            private Transaction next;
+            
+            @Override
+            public boolean hasNext() {
+                try {
+                    while (next == null && !cancelled && transactions.hasNext()) {
+                        Transaction transaction = transactions.next();
+                        if (duplicates.isDuplicate(transaction)) {
+                            duplicateCount.incrementAndGet();
+                        } else {
+                            next = transaction;
+                        }
+                    }
+                } catch (SQLException e) {
+                    throw new UncheckedSQLException(e);
+                }
+                return next != null;
+            }
+            
+            @Override
+            public Transaction next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Transaction transaction = next;
+                next = null;
+                return transaction;
+            }
+        };
+    }
+    
+    /**
+     * Inserts the transactions {@code reader} returns, in large SQL
+     * transactions as {@link #insert(Iterator)} does, pulling them one at a
+     * time so only the rows of the current batch are held in memory.
+     */
+    protected final void insert(TransactionReader reader) throws IOException, SQLException {
+        Iterator<Transaction> transactions = new Iterator<Transaction>() {
+            private Transaction next;
+            
+            @Override
+            public boolean hasNext() {
+                if (next == null) {
+                    try {
+                        next = reader.read();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                return next != null;
+            }
+            
+            @Override
+            public Transaction next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Transaction transaction = next;
+                next = null;
+                return transaction;
+            }
+        };
+        
+        try {
+            insert(transactions);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+    
+    /**
+     * Records an input line that was skipped. Safe to call from any thread,
+     * in any order: the report keeps the rejections earliest in the file.
+     */
+    protected final void reject(long lineNumber, String reason, String text) {
+        rejectedCount.incrementAndGet();
+        if (text.length() > MAX_REPORTED_TEXT) {
+            text = text.substring(0, MAX_REPORTED_TEXT) + "...";
+        }
+        synchronized (rejectedLines) {
+            if (rejectedLines.size() < MAX_REPORTED_REJECTIONS) {
+                rejectedLines.add(new ImportResult.RejectedLine(lineNumber, reason, text));
+            } else if (lineNumber < rejectedLines.peek().getLineNumber()) {
+                rejectedLines.poll();
+                rejectedLines.add(new ImportResult.RejectedLine(lineNumber, reason, text));
+            }
+        }
+    }
+    
+    protected final void addBytesRead(long count) {
+        bytesRead.addAndGet(count);
+    }
+    
+    /**
+     * Opens {@link #file} for buffered sequential reading, counting the
+     * bytes read towards {@link #getProgress()}.
+     */
+    protected final InputStream openFile() throws IOException {
+        InputStream counting = new FilterInputStream(Files.newInputStream(file)) {
+            @Override
+            public int read() throws IOException {
+                int b = super.read();
+                if (b >= 0) {
+                    addBytesRead(1);
+                }
+                return b;
+            }
+            
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                int count = super.read(buffer, offset, length);
+                if (count > 0) {
+                    addBytesRead(count);
+                }
+                return count;
+            }
+        };
+        return new BufferedInputStream(counting, READ_BUFFER_SIZE);
+    }
+    
+    /**
+     * Id of the category with the given name, ignoring case and surrounding
+     * whitespace, or null if there is none. Safe to call from any thread.
+     */
+    protected final Integer resolveCategory(String name) {
+        return categoryIds.get(name.trim().toLowerCase(Locale.ROOT));
+    }
+    
+    /**
+     * Source of transactions parsed one at a time from the file.
+     */
+    @FunctionalInterface
+    protected interface TransactionReader {
+        /**
+         * The next transaction, or null at the end of the file.
+         */
+        Transaction read() throws IOException;
+    }
+    
+    private Map<String, Integer> loadCategoryIds() throws SQLException {
+        Map<String, Integer> ids = new HashMap<>();
+        for (Category category : categoryDAO.getAllCategories()) {
+            ids.put(category.getName().trim().toLowerCase(Locale.ROOT), category.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,58 @@
+package com.financemanager.model;
+
+/**
+ * Aggregated amount and row count of one category and transaction type
+ * over some period
+ */
+public class CategoryTotal {
+    private final int categoryId;
+    private final String categoryName;
+    private final String categoryColor;
+    private final Transaction.TransactionType type;
+    private final long totalCents;
+    private final int count;
+    
+    public CategoryTotal(int categoryId, String categoryName, String categoryColor,
+                         Transaction.TransactionType type, long totalCents, int count) {
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+        this.categoryColor = categoryColor;
+        this.type = type;
+        this.totalCents = totalCents;
+        this.count = count;
+    }
+    
+    public int getCategoryId() {
+        return categoryId;
+    }
+    
+    public String getCategoryName() {
+        return categoryName;
+    }
+    
+    public String getCategoryColor() {
+        return categoryColor;
+    }
+    
+    public Transaction.TransactionType getType() {
+        return type;
+    }
+    
+    public long getTotalCents() {
+        return totalCents;
+    }
+    
+    public Money getTotal() {
+        return Money.ofCents(totalCents);
+    }
+    
+    public int getCount() {
+        return count;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("CategoryTotal{categoryId=%d, categoryName='%s', type=%s, total=%s, count=%d}",
+                           categoryId, categoryName, type, getTotal(), count);
+    }
+}
@@ -0,0 +1,113 @@
+package com.financemanager.model;
+
+import java.time.LocalDate;
+
+/**
+ * Income and expense totals shown on the dashboard: all time, the selected
+ * month, the year to date and the month before, for comparison.
+ */
+public final class DashboardSummary {
+    private final LocalDate monthStart;
+    private final LocalDate monthEnd;
+    private final Money totalIncome;
+    private final Money totalExpenses;
+    private final Money monthlyIncome;
+    private final Money monthlyExpenses;
+    private final Money yearToDateIncome;
+    private final Money yearToDateExpenses;
+    private final Money previousMonthIncome;
+    private final Money previousMonthExpenses;
+    
+    public DashboardSummary(LocalDate monthStart, LocalDate monthEnd,
+                            Money totalIncome, Money totalExpenses,
+                            Money monthlyIncome, Money monthlyExpenses,
+                            Money yearToDateIncome, Money yearToDateExpenses,
+                            Money previousMonthIncome, Money previousMonthExpenses) {
+        this.monthStart = monthStart;
+        this.monthEnd = monthEnd;
+        this.totalIncome = totalIncome;
+        this.totalExpenses = totalExpenses;
+        this.monthlyIncome = monthlyIncome;
+        this.monthlyExpenses = monthlyExpenses;
+        this.yearToDateIncome = yearToDateIncome;
+        this.yearToDateExpenses = yearToDateExpenses;
+        this.previousMonthIncome = previousMonthIncome;
+        this.previousMonthExpenses = previousMonthExpenses;
+    }
+    
+    public LocalDate getMonthStart() {
+        return monthStart;
+    }
+    
+    public LocalDate getMonthEnd() {
+        return monthEnd;
+    }
+    
+    public Money getTotalIncome() {
+        return totalIncome;
+    }
+    
+    public Money getTotalExpenses() {
+        return totalExpenses;
+    }
+    
+    public Money getNetBalance() {
+        return totalIncome.minus(totalExpenses);
+    }
+    
+    public Money getMonthlyIncome() {
+        return monthlyIncome;
+    }
+    
+    public Money getMonthlyExpenses() {
+        return monthlyExpenses;
+    }
+    
+    public Money getMonthlyBalance() {
+        return monthlyIncome.minus(monthlyExpenses);
+    }
+    
+    public Money getYearToDateIncome() {
+        return yearToDateIncome;
+    }
+    
+    public Money getYearToDateExpenses() {
+        return yearToDateExpenses;
+    }
+    
+    public Money getYearToDateBalance() {
+        return yearToDateIncome.minus(yearToDateExpenses);
+    }
+    
+    public Money getPreviousMonthIncome() {
+        return previousMonthIncome;
+    }
+    
+    public Money getPreviousMonthExpenses() {
+        return previousMonthExpenses;
+    }
+    
+    public Money getPreviousMonthBalance() {
+        return previousMonthIncome.minus(previousMonthExpenses);
+    }
+    
+    /**
+     * Change in monthly income against the previous month.
+     */
+    public Money getMonthlyIncomeDelta() {
+        return monthlyIncome.minus(previousMonthIncome);
+    }
+    
+    /**
+     * Change in monthly expenses against the previous month.
+     */
+    public Money getMonthlyExpensesDelta() {
+        return monthlyExpenses.minus(previousMonthExpenses);
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("DashboardSummary{month=%s..%s, income=%s, expenses=%s, monthlyIncome=%s, monthlyExpenses=%s}",
+                           monthStart, monthEnd, totalIncome, totalExpenses, monthlyIncome, monthlyExpenses);
+    }
+}
@@ -0,0 +1,65 @@
+package com.financemanager.model;
+
+/**
+ * Two transactions that look like the same entry recorded twice: the
+ * original, the earlier of the two to be added, and the suspected
+ * duplicate, which may not have been saved yet.
+ */
+public class DuplicateCandidate {
+    public enum Match {
+        // Same date, amount, type and normalised description
+        EXACT("Exact"),
+        // Same amount and type within a few days, with a similar description
+        SIMILAR("Similar");
+        
+        private final String displayName;
+        
+        Match(String displayName) {
+            this.displayName = displayName;
+        }
+        
+        public String getDisplayName() {
+            return displayName;
+        }
+        
+        @Override
+        public String toString() {
+            return displayName;
+        }
+    }
+    
+    private final Transaction original;
+    private final Transaction duplicate;
+    private final Match match;
+    
+    public DuplicateCandidate(Transaction original, Transaction duplicate, Match match) {
+        this.original = original;
+        this.duplicate = duplicate;
+        this.match = match;
+    }
+    
+    public Transaction getOriginal() {
+        return original;
+    }
+    
+    public Transaction getDuplicate() {
+        return duplicate;
+    }
+    
+    public Match getMatch() {
+        return match;
+    }
+    
+    /**
+     * Number of days between the two dates.
+     */
+    public long getDaysApart() {
+        return Math.abs(duplicate.getDate().toEpochDay() - original.getDate().toEpochDay());
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("DuplicateCandidate{match=%s, original=%d, duplicate=%d}",
+            match, original.getId(), duplicate.getId());
+    }
+}
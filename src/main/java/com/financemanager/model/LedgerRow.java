@@ -0,0 +1,68 @@
+package com.financemanager.model;
+
+import java.time.LocalDate;
+
+/**
+ * A transaction with its category name, as exported to a ledger file
+ */
+public class LedgerRow {
+    private final int id;
+    private final long epochDay;
+    private final String description;
+    private final long amountCents;
+    private final Transaction.TransactionType type;
+    private final String categoryName;
+    private final String notes;
+    
+    public LedgerRow(int id, long epochDay, String description, long amountCents,
+                     Transaction.TransactionType type, String categoryName, String notes) {
+        this.id = id;
+        this.epochDay = epochDay;
+        this.description = description;
+        this.amountCents = amountCents;
+        this.type = type;
+        this.categoryName = categoryName;
+        this.notes = notes;
+    }
+    
+    public int getId() {
+        return id;
+    }
+    
+    public long getEpochDay() {
+        return epochDay;
+    }
+    
+    public LocalDate getDate() {
+        return LocalDate.ofEpochDay(epochDay);
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    public long getAmountCents() {
+        return amountCents;
+    }
+    
+    public Transaction.TransactionType getType() {
+        return type;
+    }
+    
+    /**
+     * Name of the category, or null if the transaction has none.
+     */
+    public String getCategoryName() {
+        return categoryName;
+    }
+    
+    public String getNotes() {
+        return notes;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("LedgerRow{id=%d, date=%s, description='%s', amountCents=%d, type=%s, category='%s'}",
+                           id, getDate(), description, amountCents, type, categoryName);
+    }
+}
@@ -0,0 +1,129 @@
+package com.financemanager.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * An exact monetary amount held as a whole number of cents.
+ * Arithmetic is plain long arithmetic, so sums never drift and never
+ * allocate intermediate BigDecimals.
+ */
+public final class Money implements Comparable<Money> {
+    public static final Money ZERO = new Money(0);
+    // Whole digits of the largest accepted amount; 17 could overflow a long of cents
+    public static final int MAX_WHOLE_DIGITS = 16;
+    
+    private final long cents;
+    
+    private Money(long cents) {
+        this.cents = cents;
+    }
+    
+    public static Money ofCents(long cents) {
+        return cents == 0 ? ZERO : new Money(cents);
+    }
+    
+    /**
+     * Converts a decimal amount, rounding half-up to whole cents.
+     *
+     * @throws NumberFormatException if the amount has more than
+     *         {@link #MAX_WHOLE_DIGITS} whole digits
+     */
+    public static Money of(BigDecimal amount) throws NumberFormatException {
+        return ofCents(toCents(amount));
+    }
+    
+    /**
+     * Parses a plain decimal string such as "12.34" or "-5".
+     *
+     * @throws NumberFormatException if the text is not a decimal number or
+     *         the amount is out of range
+     */
+    public static Money parse(String text) throws NumberFormatException {
+        return of(new BigDecimal(text.trim()));
+    }
+    
+    /**
+     * Converts a decimal amount to cents, rounding half-up.
+     *
+     * The magnitude is checked before rescaling: rescaling a parsed
+     * "1e99999999" would build a hundred-million-digit number first.
+     *
+     * @throws NumberFormatException if the amount has more than
+     *         {@link #MAX_WHOLE_DIGITS} whole digits
+     */
+    public static long toCents(BigDecimal amount) throws NumberFormatException {
+        // precision - scale is the number of whole digits, negative below 0.1
+        int wholeDigits = amount.precision() - amount.scale();
+        if (wholeDigits > MAX_WHOLE_DIGITS) {
+            throw new NumberFormatException("Amount has more than " + MAX_WHOLE_DIGITS + " whole digits");
+        }
+        if (wholeDigits < -2) {
+            // Below 0.001, so rounds to zero
+            return 0;
+        }
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+    
+    public long getCents() {
+        return cents;
+    }
+    
+    public Money plus(Money other) {
+        return ofCents(Math.addExact(cents, other.cents));
+    }
+    
+    public Money minus(Money other) {
+        return ofCents(Math.subtractExact(cents, other.cents));
+    }
+    
+    public Money negate() {
+        return ofCents(Math.negateExact(cents));
+    }
+    
+    public int signum() {
+        return Long.signum(cents);
+    }
+    
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(cents, 2);
+    }
+    
+    /**
+     * Plain decimal form with exactly two fraction digits, e.g. "-1234.50".
+     */
+    @Override
+    public String toString() {
+        if (cents == Long.MIN_VALUE) {
+            return toBigDecimal().toPlainString();
+        }
+        long abs = Math.abs(cents);
+        long fraction = abs % 100;
+        StringBuilder text = new StringBuilder(24);
+        if (cents < 0) {
+            text.append('-');
+        }
+        text.append(abs / 100).append('.');
+        if (fraction < 10) {
+            text.append('0');
+        }
+        return text.append(fraction).toString();
+    }
+    
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+    
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        return cents == ((Money) obj).cents;
+    }
+    
+    @Override
+    public int hashCode() {
+        return Long.hashCode(cents);
+    }
+}
@@ -9,7 +9,7 @@ import java.time.LocalDate;
 public class Transaction {
     private int id;
     private String description;
-    private BigDecimal amount;
+    private long amountCents;
     private TransactionType type;
     private int categoryId;
     private LocalDate date;
@@ -41,13 +41,23 @@ public class Transaction {
     public Transaction(String description, BigDecimal amount, TransactionType type, 
                      int categoryId, LocalDate date, String notes) {
         this.description = description;
-        this.amount = amount;
+        this.amountCents = Money.toCents(amount);
         this.type = type;
         this.categoryId = categoryId;
         this.date = date;
         this.notes = notes;
     }
     
+    public Transaction(Transaction other) {
+        this.id = other.id;
+        this.description = other.description;
+        this.amountCents = other.amountCents;
+        this.type = other.type;
+        this.categoryId = other.categoryId;
+        this.date = other.date;
+        this.notes = other.notes;
+    }
+    
     // Getters and Setters
     public int getId() {
         return id;
@@ -66,11 +76,26 @@ public class Transaction {
     }
     
     public BigDecimal getAmount() {
-        return amount;
+        return BigDecimal.valueOf(amountCents, 2);
     }
     
+    /**
+     * Sets the amount, rounding half-up to whole cents.
+     */
     public void setAmount(BigDecimal amount) {
-        this.amount = amount;
+        this.amountCents = Money.toCents(amount);
+    }
+    
+    public long getAmountCents() {
+        return amountCents;
+    }
+    
+    public void setAmountCents(long amountCents) {
+        this.amountCents = amountCents;
+    }
+    
+    public Money getMoney() {
+        return Money.ofCents(amountCents);
     }
     
     public TransactionType getType() {
@@ -108,6 +133,6 @@ public class Transaction {
     @Override
     public String toString() {
         return String.format("Transaction{id=%d, description='%s', amount=%s, type=%s, categoryId=%d, date=%s}", 
-                           id, description, amount, type, categoryId, date);
+                           id, description, getMoney(), type, categoryId, date);
     }
 }
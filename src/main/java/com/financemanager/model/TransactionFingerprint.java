@@ -0,0 +1,96 @@
+package com.financemanager.model;
+
+/**
+ * 64-bit fingerprint of what makes two ledger rows the same entry: the
+ * date, amount, type and normalised description. Category and notes are
+ * left out, since a re-imported row often lands in a different category.
+ *
+ * Descriptions are normalised by {@link #normalizeDescription}, so
+ * "ACME  Corp." and "acme corp" fingerprint alike. The hash is FNV-1a
+ * followed by a 64-bit finaliser; among a million rows the chance of two
+ * different entries colliding is about 3 in 100 million.
+ */
+public final class TransactionFingerprint {
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    
+    private TransactionFingerprint() {
+    }
+    
+    public static long of(Transaction transaction) {
+        return of(transaction.getDate().toEpochDay(), transaction.getAmountCents(),
+            transaction.getType(), transaction.getDescription());
+    }
+    
+    public static long of(long epochDay, long amountCents, Transaction.TransactionType type, String description) {
+        long hash = FNV_OFFSET_BASIS;
+        hash = mixLong(hash, epochDay);
+        hash = mixLong(hash, amountCents);
+        hash = (hash ^ type.ordinal()) * FNV_PRIME;
+        
+        // Hash the normalised form on the fly rather than building the string
+        boolean pendingSpace = false;
+        boolean started = false;
+        if (description != null) {
+            for (int i = 0; i < description.length(); i++) {
+                char c = description.charAt(i);
+                if (Character.isLetterOrDigit(c)) {
+                    if (pendingSpace && started) {
+                        hash = (hash ^ ' ') * FNV_PRIME;
+                    }
+                    pendingSpace = false;
+                    started = true;
+                    hash = (hash ^ Character.toLowerCase(c)) * FNV_PRIME;
+                } else {
+                    pendingSpace = true;
+                }
+            }
+        }
+        return finish(hash);
+    }
+    
+    /**
+     * Lower-cases {@code description} and reduces every run of characters
+     * other than letters and digits to a single space, trimming the ends.
+     */
+    public static String normalizeDescription(String description) {
+        if (description == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(description.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < description.length(); i++) {
+            char c = description.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && normalized.length() > 0) {
+                    normalized.append(' ');
+                }
+                pendingSpace = false;
+                normalized.append(Character.toLowerCase(c));
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return normalized.toString();
+    }
+    
+    private static long mixLong(long hash, long value) {
+        for (int shift = 0; shift < 64; shift += 8) {
+            hash = (hash ^ ((value >>> shift) & 0xff)) * FNV_PRIME;
+        }
+        return hash;
+    }
+    
+    /**
+     * Spreads FNV's weak low bits over the whole word (the MurmurHash3
+     * finaliser), so every bit of the fingerprint can index a Bloom filter.
+     */
+    private static long finish(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb53a07e2d2d9L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,179 @@
+package com.financemanager.model;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Income and expense totals over consecutive date buckets of one size,
+ * e.g. every week between two dates. Buckets without transactions are
+ * present with zero totals, so bucket {@code i} always starts
+ * {@code i} buckets after the first.
+ */
+public final class TrendSeries {
+    private final Granularity granularity;
+    private final LocalDate[] bucketStarts;
+    private final long[] incomeCents;
+    private final long[] expenseCents;
+    
+    private TrendSeries(Granularity granularity, LocalDate[] bucketStarts, long[] incomeCents, long[] expenseCents) {
+        this.granularity = granularity;
+        this.bucketStarts = bucketStarts;
+        this.incomeCents = incomeCents;
+        this.expenseCents = expenseCents;
+    }
+    
+    /**
+     * Starts a series covering every bucket that overlaps [firstDate, lastDate].
+     */
+    public static Builder builder(Granularity granularity, LocalDate firstDate, LocalDate lastDate) {
+        return new Builder(granularity, firstDate, lastDate);
+    }
+    
+    public static TrendSeries empty(Granularity granularity) {
+        return new TrendSeries(granularity, new LocalDate[0], new long[0], new long[0]);
+    }
+    
+    public Granularity getGranularity() {
+        return granularity;
+    }
+    
+    public int size() {
+        return bucketStarts.length;
+    }
+    
+    public LocalDate getBucketStart(int bucket) {
+        return bucketStarts[bucket];
+    }
+    
+    public long getIncomeCents(int bucket) {
+        return incomeCents[bucket];
+    }
+    
+    public long getExpenseCents(int bucket) {
+        return expenseCents[bucket];
+    }
+    
+    public long getNetCents(int bucket) {
+        return incomeCents[bucket] - expenseCents[bucket];
+    }
+    
+    /**
+     * Size of a bucket. Weeks start on Monday and months on their first day.
+     */
+    public enum Granularity {
+        DAY("Daily"),
+        WEEK("Weekly"),
+        MONTH("Monthly");
+        
+        private final String displayName;
+        
+        Granularity(String displayName) {
+            this.displayName = displayName;
+        }
+        
+        public String getDisplayName() {
+            return displayName;
+        }
+        
+        /**
+         * First day of the bucket containing {@code date}.
+         */
+        public LocalDate bucketStart(LocalDate date) {
+            switch (this) {
+                case WEEK:
+                    return date.minusDays(date.getDayOfWeek().getValue() - 1);
+                case MONTH:
+                    return date.withDayOfMonth(1);
+                default:
+                    return date;
+            }
+        }
+        
+        /**
+         * Last day of the bucket containing {@code date}.
+         */
+        public LocalDate bucketEnd(LocalDate date) {
+            return plus(bucketStart(date), 1).minusDays(1);
+        }
+        
+        /**
+         * Number of buckets from the one containing {@code first} to the one
+         * containing {@code last}, both included.
+         */
+        public int bucketCount(LocalDate first, LocalDate last) {
+            return index(bucketStart(first), last) + 1;
+        }
+        
+        private LocalDate plus(LocalDate bucketStart, int buckets) {
+            switch (this) {
+                case WEEK:
+                    return bucketStart.plusWeeks(buckets);
+                case MONTH:
+                    return bucketStart.plusMonths(buckets);
+                default:
+                    return bucketStart.plusDays(buckets);
+            }
+        }
+        
+        /**
+         * Index of the bucket containing {@code date}, counted from the
+         * bucket starting on {@code firstStart}.
+         */
+        private int index(LocalDate firstStart, LocalDate date) {
+            switch (this) {
+                case WEEK:
+                    return (int) Math.floorDiv(date.toEpochDay() - firstStart.toEpochDay(), 7);
+                case MONTH:
+                    return (date.getYear() - firstStart.getYear()) * 12
+                           + date.getMonthValue() - firstStart.getMonthValue();
+                default:
+                    return (int) (date.toEpochDay() - firstStart.toEpochDay());
+            }
+        }
+        
+        @Override
+        public String toString() {
+            return displayName;
+        }
+    }
+    
+    /**
+     * Accumulates amounts into the buckets of a series. Amounts dated
+     * outside the series are ignored.
+     */
+    public static final class Builder {
+        private final Granularity granularity;
+        private final LocalDate firstStart;
+        private final long[] incomeCents;
+        private final long[] expenseCents;
+        
+        private Builder(Granularity granularity, LocalDate firstDate, LocalDate lastDate) {
+            this.granularity = granularity;
+            this.firstStart = granularity.bucketStart(firstDate);
+            int buckets = Math.max(0, granularity.bucketCount(firstDate, lastDate));
+            this.incomeCents = new long[buckets];
+            this.expenseCents = new long[buckets];
+        }
+        
+        public Builder add(LocalDate date, Transaction.TransactionType type, long cents) {
+            int bucket = granularity.index(firstStart, date);
+            if (bucket >= 0 && bucket < incomeCents.length) {
+                if (type == Transaction.TransactionType.INCOME) {
+                    incomeCents[bucket] += cents;
+                } else {
+                    expenseCents[bucket] += cents;
+                }
+            }
+            return this;
+        }
+        
+        public TrendSeries build() {
+            LocalDate[] starts = new LocalDate[incomeCents.length];
+            for (int i = 0; i < starts.length; i++) {
+                starts[i] = granularity.plus(firstStart, i);
+            }
+            return new TrendSeries(granularity, starts,
+                Arrays.copyOf(incomeCents, incomeCents.length), Arrays.copyOf(expenseCents, expenseCents.length));
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.financemanager.ui;
 
+import com.financemanager.dao.AsyncCategoryDAO;
 import com.financemanager.dao.CategoryDAO;
+import com.financemanager.event.DataChangeEvent;
 import com.financemanager.model.Category;
 
 import javax.swing.*;
@@ -17,6 +19,7 @@ import java.util.List;
  */
 public class CategoryPanel extends JPanel implements MainFrame.Refreshable {
     private CategoryDAO categoryDAO;
+    private RefreshScheduler<List<Category>> refreshScheduler;
     
     private JTable categoryTable;
     private DefaultTableModel tableModel;
@@ -25,11 +28,14 @@ public class CategoryPanel extends JPanel implements MainFrame.Refreshable {
     private JTextField colorField;
     private JButton colorPickerButton;
     
-    public CategoryPanel(CategoryDAO categoryDAO) {
-        this.categoryDAO = categoryDAO;
+    public CategoryPanel(AsyncCategoryDAO categoryDAO) {
+        this.categoryDAO = categoryDAO.getDelegate();
+        this.refreshScheduler = new RefreshScheduler<>(categoryDAO::getAllCategories, this::refreshTable,
+            this::showRefreshError, DataChangeEvent.Kind.CATEGORIES);
         initializeComponents();
         setupLayout();
         setupEventHandlers();
+        RefreshScheduler.refreshOnChange(this, this::refresh);
     }
     
     private void initializeComponents() {
@@ -81,7 +87,7 @@ public class CategoryPanel extends JPanel implements MainFrame.Refreshable {
         JButton deleteButton = new JButton("🗑️ Delete");
         JButton editButton = new JButton("✏️ Edit");
         
-        refreshButton.addActionListener(e -> refresh());
+        refreshButton.addActionListener(e -> reload());
         deleteButton.addActionListener(e -> deleteSelectedCategory());
         editButton.addActionListener(e -> editSelectedCategory());
         
@@ -215,23 +221,25 @@ public class CategoryPanel extends JPanel implements MainFrame.Refreshable {
     
     @Override
     public void refresh() {
-        SwingUtilities.invokeLater(() -> {
-            try {
-                refreshTable();
-            } catch (SQLException e) {
-                JOptionPane.showMessageDialog(this, 
-                    "Error refreshing categories: " + e.getMessage(), 
-                    "Error", 
-                    JOptionPane.ERROR_MESSAGE);
-                e.printStackTrace();
-            }
-        });
+        refreshScheduler.request();
+    }
+    
+    @Override
+    public void reload() {
+        refreshScheduler.forceRequest();
+    }
+    
+    private void showRefreshError(Throwable error) {
+        JOptionPane.showMessageDialog(this, 
+            "Error refreshing categories: " + error.getMessage(), 
+            "Error", 
+            JOptionPane.ERROR_MESSAGE);
+        error.printStackTrace();
     }
     
-    private void refreshTable() throws SQLException {
+    private void refreshTable(List<Category> categories) {
         tableModel.setRowCount(0); // Clear existing data
         
-        List<Category> categories = categoryDAO.getAllCategories();
         for (Category category : categories) {
             Object[] row = {
                 category.getId(),
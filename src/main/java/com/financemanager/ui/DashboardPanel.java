@@ -1,23 +1,28 @@
 package com.financemanager.ui;
 
-import com.financemanager.dao.CategoryDAO;
-import com.financemanager.dao.TransactionDAO;
+import com.financemanager.analytics.TransactionColumnStore;
+import com.financemanager.dao.AsyncCategoryDAO;
+import com.financemanager.dao.AsyncTransactionDAO;
+import com.financemanager.event.DataChangeEvent;
+import com.financemanager.model.DashboardSummary;
+import com.financemanager.model.Money;
 import com.financemanager.model.Transaction;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
-import java.math.BigDecimal;
-import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Dashboard panel showing financial overview and statistics
  */
 public class DashboardPanel extends JPanel implements MainFrame.Refreshable {
-    private TransactionDAO transactionDAO;
-    private CategoryDAO categoryDAO;
+    private AsyncTransactionDAO transactionDAO;
+    private AsyncCategoryDAO categoryDAO;
+    private TransactionColumnStore columnStore;
+    private RefreshScheduler<DashboardSummary> refreshScheduler;
     
     private JLabel totalIncomeLabel;
     private JLabel totalExpensesLabel;
@@ -26,11 +31,16 @@ public class DashboardPanel extends JPanel implements MainFrame.Refreshable {
     private JLabel monthlyExpensesLabel;
     private JLabel monthlyBalanceLabel;
     
-    public DashboardPanel(TransactionDAO transactionDAO, CategoryDAO categoryDAO) {
+    public DashboardPanel(AsyncTransactionDAO transactionDAO, AsyncCategoryDAO categoryDAO,
+                          TransactionColumnStore columnStore) {
         this.transactionDAO = transactionDAO;
         this.categoryDAO = categoryDAO;
+        this.columnStore = columnStore;
+        this.refreshScheduler = new RefreshScheduler<>(this::loadSummary, this::updateStatistics, this::showRefreshError,
+            () -> columnStore.getVersion(DataChangeEvent.Kind.TRANSACTIONS));
         initializeComponents();
         setupLayout();
+        RefreshScheduler.refreshOnChange(this, this::refresh);
     }
     
     private void initializeComponents() {
@@ -183,59 +193,67 @@ public class DashboardPanel extends JPanel implements MainFrame.Refreshable {
     
     @Override
     public void refresh() {
-        SwingUtilities.invokeLater(() -> {
-            try {
-                updateStatistics();
-                updateRecentTransactions();
-            } catch (SQLException e) {
-                JOptionPane.showMessageDialog(this, 
-                    "Error refreshing dashboard: " + e.getMessage(), 
-                    "Error", 
-                    JOptionPane.ERROR_MESSAGE);
-                e.printStackTrace();
-            }
-        });
+        refreshScheduler.request();
     }
     
-    private void updateStatistics() throws SQLException {
+    @Override
+    public void reload() {
+        refreshScheduler.forceRequest();
+    }
+    
+    private CompletableFuture<DashboardSummary> loadSummary() {
+        LocalDate now = LocalDate.now();
+        LocalDate startOfMonth = now.withDayOfMonth(1);
+        LocalDate endOfMonth = now.withDayOfMonth(now.lengthOfMonth());
+        
+        // All dashboard totals come from a single aggregate pass, in memory once the column store is loaded
+        if (columnStore.isLoaded()) {
+            return RefreshScheduler.compute(() -> columnStore.getSummary(startOfMonth, endOfMonth));
+        }
+        return transactionDAO.getSummary(startOfMonth, endOfMonth);
+    }
+    
+    private void showRefreshError(Throwable error) {
+        JOptionPane.showMessageDialog(this, 
+            "Error refreshing dashboard: " + error.getMessage(), 
+            "Error", 
+            JOptionPane.ERROR_MESSAGE);
+        error.printStackTrace();
+    }
+    
+    private void updateStatistics(DashboardSummary summary) {
         // Overall statistics
-        BigDecimal totalIncome = transactionDAO.getTotalIncome();
-        BigDecimal totalExpenses = transactionDAO.getTotalExpenses();
-        BigDecimal netBalance = totalIncome.subtract(totalExpenses);
+        Money netBalance = summary.getNetBalance();
         
-        totalIncomeLabel.setText("$" + totalIncome.toString());
-        totalExpensesLabel.setText("$" + totalExpenses.toString());
+        totalIncomeLabel.setText("$" + summary.getTotalIncome().toString());
+        totalExpensesLabel.setText("$" + summary.getTotalExpenses().toString());
         netBalanceLabel.setText("$" + netBalance.toString());
         
         // Set color for balance
-        if (netBalance.compareTo(BigDecimal.ZERO) >= 0) {
+        if (netBalance.signum() >= 0) {
             netBalanceLabel.setForeground(new Color(46, 204, 113)); // Green
         } else {
             netBalanceLabel.setForeground(new Color(231, 76, 60)); // Red
         }
         
         // Monthly statistics
-        LocalDate now = LocalDate.now();
-        LocalDate startOfMonth = now.withDayOfMonth(1);
-        LocalDate endOfMonth = now.withDayOfMonth(now.lengthOfMonth());
+        Money monthlyBalance = summary.getMonthlyBalance();
         
-        BigDecimal monthlyIncome = transactionDAO.getTotalIncomeByDateRange(startOfMonth, endOfMonth);
-        BigDecimal monthlyExpenses = transactionDAO.getTotalExpensesByDateRange(startOfMonth, endOfMonth);
-        BigDecimal monthlyBalance = monthlyIncome.subtract(monthlyExpenses);
-        
-        monthlyIncomeLabel.setText("$" + monthlyIncome.toString());
-        monthlyExpensesLabel.setText("$" + monthlyExpenses.toString());
+        monthlyIncomeLabel.setText("$" + summary.getMonthlyIncome().toString());
+        monthlyExpensesLabel.setText("$" + summary.getMonthlyExpenses().toString());
         monthlyBalanceLabel.setText("$" + monthlyBalance.toString());
         
         // Set color for monthly balance
-        if (monthlyBalance.compareTo(BigDecimal.ZERO) >= 0) {
+        if (monthlyBalance.signum() >= 0) {
             monthlyBalanceLabel.setForeground(new Color(46, 204, 113)); // Green
         } else {
             monthlyBalanceLabel.setForeground(new Color(231, 76, 60)); // Red
         }
+        
+        updateRecentTransactions();
     }
     
-    private void updateRecentTransactions() throws SQLException {
+    private void updateRecentTransactions() {
         // This would update the recent transactions table
         // For now, we'll just refresh the data
         // In a full implementation, you'd update the table model here
@@ -0,0 +1,268 @@
+package com.financemanager.ui;
+
+import com.financemanager.analytics.DuplicateFinder;
+import com.financemanager.dao.TransactionDAO;
+import com.financemanager.model.DuplicateCandidate;
+import com.financemanager.model.Transaction;
+import com.financemanager.util.DateUtils;
+
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import javax.swing.table.AbstractTableModel;
+import java.awt.*;
+import java.text.NumberFormat;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Modal dialog listing suspected duplicate transactions side by side with
+ * their originals. Exact matches start out ticked for deletion and similar
+ * ones unticked; the ticked duplicates are deleted on request, and the
+ * panels pick up the deletions from the change events.
+ */
+class DuplicateReviewDialog extends JDialog {
+    private final TransactionDAO transactionDAO;
+    private final DuplicateFinder duplicateFinder;
+    private final CandidateTableModel tableModel = new CandidateTableModel();
+    private final JLabel statusLabel = new JLabel("Searching for duplicates...");
+    private final JButton deleteButton = new JButton("Delete Ticked Duplicates");
+    
+    DuplicateReviewDialog(Frame owner, TransactionDAO transactionDAO) {
+        this(owner, transactionDAO, new DuplicateFinder(transactionDAO));
+    }
+    
+    DuplicateReviewDialog(Frame owner, TransactionDAO transactionDAO, DuplicateFinder duplicateFinder) {
+        super(owner, "Review Duplicates", true);
+        this.transactionDAO = transactionDAO;
+        this.duplicateFinder = duplicateFinder;
+        initializeComponents();
+    }
+    
+    private void initializeComponents() {
+        JTable table = new JTable(tableModel);
+        table.setRowHeight(25);
+        table.getColumnModel().getColumn(CandidateTableModel.DELETE_COLUMN).setMaxWidth(60);
+        table.getColumnModel().getColumn(CandidateTableModel.MATCH_COLUMN).setMaxWidth(80);
+        
+        deleteButton.setEnabled(false);
+        deleteButton.addActionListener(e -> deleteTicked());
+        JButton closeButton = new JButton("Close");
+        closeButton.addActionListener(e -> dispose());
+        
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        buttonPanel.add(deleteButton);
+        buttonPanel.add(closeButton);
+        
+        JPanel content = new JPanel(new BorderLayout(5, 5));
+        content.setBorder(new EmptyBorder(10, 10, 10, 10));
+        content.add(statusLabel, BorderLayout.NORTH);
+        content.add(new JScrollPane(table), BorderLayout.CENTER);
+        content.add(buttonPanel, BorderLayout.SOUTH);
+        setContentPane(content);
+        setSize(1000, 500);
+        setLocationRelativeTo(getOwner());
+    }
+    
+    /**
+     * Searches the transactions dated [startDate, endDate], either bound
+     * null for no limit, and shows the dialog. With a positive
+     * {@code afterId} only duplicates involving newer rows are listed.
+     */
+    void review(LocalDate startDate, LocalDate endDate, int afterId) {
+        new SwingWorker<List<DuplicateCandidate>, Void>() {
+            @Override
+            protected List<DuplicateCandidate> doInBackground() throws Exception {
+                return duplicateFinder.findDuplicates(startDate, endDate, afterId);
+            }
+            
+            @Override
+            protected void done() {
+                try {
+                    List<DuplicateCandidate> candidates = get();
+                    tableModel.setCandidates(candidates);
+                    statusLabel.setText(candidates.isEmpty()
+                        ? "No duplicates found."
+                        : String.format("%,d%s possible duplicates. Tick the ones to delete; the original in each row is kept.",
+                            candidates.size(), candidates.size() >= DuplicateFinder.MAX_CANDIDATES ? " or more" : ""));
+                    deleteButton.setEnabled(!candidates.isEmpty());
+                } catch (ExecutionException e) {
+                    statusLabel.setText("Search failed.");
+                    System.err.println("Error finding duplicates: " + e.getCause().getMessage());
+                    e.getCause().printStackTrace();
+                    JOptionPane.showMessageDialog(DuplicateReviewDialog.this,
+                        "Error finding duplicates: " + e.getCause().getMessage(),
+                        "Error",
+                        JOptionPane.ERROR_MESSAGE);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }.execute();
+        setVisible(true);
+    }
+    
+    private void deleteTicked() {
+        Set<Integer> ids = tableModel.getTickedDuplicateIds();
+        if (ids.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "No duplicates are ticked.", "No Selection", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        int confirm = JOptionPane.showConfirmDialog(this,
+            String.format("Delete %,d duplicate transactions?", ids.size()),
+            "Confirm Delete",
+            JOptionPane.YES_NO_OPTION);
+        if (confirm != JOptionPane.YES_OPTION) {
+            return;
+        }
+        
+        deleteButton.setEnabled(false);
+        statusLabel.setText("Deleting...");
+        new SwingWorker<Integer, Void>() {
+            @Override
+            protected Integer doInBackground() throws Exception {
+                // One SQL transaction and one change event, however many rows are ticked
+                return transactionDAO.deleteTransactions(ids);
+            }
+            
+            @Override
+            protected void done() {
+                try {
+                    int deleted = get();
+                    tableModel.removeDuplicates(ids);
+                    statusLabel.setText(String.format("Deleted %,d duplicates; %,d possible duplicates left.",
+                        deleted, tableModel.getRowCount()));
+                } catch (ExecutionException e) {
+                    statusLabel.setText("Delete failed.");
+                    System.err.println("Error deleting duplicates: " + e.getCause().getMessage());
+                    e.getCause().printStackTrace();
+                    JOptionPane.showMessageDialog(DuplicateReviewDialog.this,
+                        "Error deleting duplicates: " + e.getCause().getMessage(),
+                        "Error",
+                        JOptionPane.ERROR_MESSAGE);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                deleteButton.setEnabled(tableModel.getRowCount() > 0);
+            }
+        }.execute();
+    }
+    
+    /**
+     * One row per candidate: the tick box, the original and the duplicate.
+     */
+    private static final class CandidateTableModel extends AbstractTableModel {
+        static final int DELETE_COLUMN = 0;
+        static final int MATCH_COLUMN = 1;
+        private static final String[] COLUMN_NAMES = {
+            "Delete", "Match", "Amount", "Type", "Date", "Description", "Duplicate Date", "Duplicate Description"
+        };
+        
+        private final NumberFormat currencyFormat = NumberFormat.getCurrencyInstance(Locale.getDefault(Locale.Category.FORMAT));
+        private List<DuplicateCandidate> candidates = Collections.emptyList();
+        private List<Boolean> ticked = Collections.emptyList();
+        
+        void setCandidates(List<DuplicateCandidate> candidates) {
+            this.candidates = new ArrayList<>(candidates);
+            this.ticked = new ArrayList<>(candidates.size());
+            for (DuplicateCandidate candidate : candidates) {
+                ticked.add(candidate.getMatch() == DuplicateCandidate.Match.EXACT);
+            }
+            fireTableDataChanged();
+        }
+        
+        Set<Integer> getTickedDuplicateIds() {
+            Set<Integer> ids = new LinkedHashSet<>();
+            for (int row = 0; row < candidates.size(); row++) {
+                if (ticked.get(row)) {
+                    ids.add(candidates.get(row).getDuplicate().getId());
+                }
+            }
+            return ids;
+        }
+        
+        /**
+         * Drops every row that involves one of the deleted transactions.
+         */
+        void removeDuplicates(Set<Integer> deletedIds) {
+            List<DuplicateCandidate> keptCandidates = new ArrayList<>(candidates.size());
+            List<Boolean> keptTicked = new ArrayList<>(candidates.size());
+            for (int row = 0; row < candidates.size(); row++) {
+                DuplicateCandidate candidate = candidates.get(row);
+                if (!deletedIds.contains(candidate.getDuplicate().getId())
+                    && !deletedIds.contains(candidate.getOriginal().getId())) {
+                    keptCandidates.add(candidate);
+                    keptTicked.add(ticked.get(row));
+                }
+            }
+            candidates = keptCandidates;
+            ticked = keptTicked;
+            fireTableDataChanged();
+        }
+        
+        @Override
+        public int getRowCount() {
+            return candidates.size();
+        }
+        
+        @Override
+        public int getColumnCount() {
+            return COLUMN_NAMES.length;
+        }
+        
+        @Override
+        public String getColumnName(int column) {
+            return COLUMN_NAMES[column];
+        }
+        
+        @Override
+        public Class<?> getColumnClass(int column) {
+            return column == DELETE_COLUMN ? Boolean.class : String.class;
+        }
+        
+        @Override
+        public boolean isCellEditable(int row, int column) {
+            return column == DELETE_COLUMN;
+        }
+        
+        @Override
+        public void setValueAt(Object value, int row, int column) {
+            if (column == DELETE_COLUMN) {
+                ticked.set(row, (Boolean) value);
+                fireTableCellUpdated(row, column);
+            }
+        }
+        
+        @Override
+        public Object getValueAt(int row, int column) {
+            DuplicateCandidate candidate = candidates.get(row);
+            Transaction original = candidate.getOriginal();
+            Transaction duplicate = candidate.getDuplicate();
+            switch (column) {
+                case DELETE_COLUMN:
+                    return ticked.get(row);
+                case MATCH_COLUMN:
+                    return candidate.getMatch().getDisplayName();
+                case 2:
+                    return currencyFormat.format(original.getAmount());
+                case 3:
+                    return original.getType().getDisplayName();
+                case 4:
+                    return DateUtils.DATE_FORMATTER.format(original.getDate());
+                case 5:
+                    return original.getDescription();
+                case 6:
+                    return DateUtils.DATE_FORMATTER.format(duplicate.getDate());
+                case 7:
+                    return duplicate.getDescription();
+                default:
+                    return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.financemanager.ui;
+
+import com.financemanager.dao.CategoryDAO;
+import com.financemanager.dao.TransactionDAO;
+import com.financemanager.dao.TransactionFilter;
+import com.financemanager.exporter.ExportFormat;
+import com.financemanager.exporter.ExportResult;
+import com.financemanager.exporter.LedgerExporter;
+import com.financemanager.model.Category;
+import com.financemanager.model.Transaction;
+
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.File;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Modal dialog for exporting transactions: choose a format, compression and
+ * filters, then a file, and follow the export's progress. It ends with the
+ * number of rows written and the throughput.
+ */
+class ExportDialog extends JDialog {
+    private static final int PROGRESS_STEPS = 1000;
+    private static final int POLL_MILLIS = 100;
+    private static final String ALL = "All";
+    
+    private final TransactionDAO transactionDAO;
+    private JComboBox<ExportFormat> formatComboBox;
+    private JCheckBox compressCheckBox;
+    private JTextField startDateField;
+    private JTextField endDateField;
+    private JComboBox<Object> categoryComboBox;
+    private JComboBox<Object> typeComboBox;
+    private JProgressBar progressBar;
+    private JLabel statusLabel;
+    private JButton exportButton;
+    private JButton closeButton;
+    private LedgerExporter exporter;
+    private Timer progressTimer;
+    
+    ExportDialog(Frame owner, TransactionDAO transactionDAO, CategoryDAO categoryDAO) {
+        super(owner, "Export Transactions", true);
+        this.transactionDAO = transactionDAO;
+        initializeComponents(categoryDAO);
+        setupLayout();
+    }
+    
+    private void initializeComponents(CategoryDAO categoryDAO) {
+        setDefaultCloseOperation(DO_NOTHING_ON_CLOSE);
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                closeOrCancel();
+            }
+        });
+        
+        formatComboBox = new JComboBox<>(ExportFormat.values());
+        compressCheckBox = new JCheckBox("Compress (gzip)");
+        startDateField = new JTextField(10);
+        startDateField.setToolTipText("yyyy-MM-dd; leave empty for no limit");
+        endDateField = new JTextField(10);
+        endDateField.setToolTipText("yyyy-MM-dd; leave empty for no limit");
+        
+        categoryComboBox = new JComboBox<>();
+        categoryComboBox.addItem(ALL);
+        try {
+            for (Category category : categoryDAO.getAllCategories()) {
+                categoryComboBox.addItem(category);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error loading categories: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        typeComboBox = new JComboBox<>();
+        typeComboBox.addItem(ALL);
+        for (Transaction.TransactionType type : Transaction.TransactionType.values()) {
+            typeComboBox.addItem(type);
+        }
+        
+        progressBar = new JProgressBar(0, PROGRESS_STEPS);
+        progressBar.setStringPainted(true);
+        statusLabel = new JLabel(" ");
+        progressTimer = new Timer(POLL_MILLIS, e -> showProgress());
+        
+        exportButton = new JButton("Export...");
+        exportButton.addActionListener(e -> startExport());
+        closeButton = new JButton("Close");
+        closeButton.addActionListener(e -> closeOrCancel());
+    }
+    
+    private void setupLayout() {
+        JPanel fieldsPanel = new JPanel(new GridBagLayout());
+        GridBagConstraints gbc = new GridBagConstraints();
+        gbc.insets = new Insets(5, 5, 5, 5);
+        gbc.anchor = GridBagConstraints.WEST;
+        
+        gbc.gridx = 0; gbc.gridy = 0;
+        fieldsPanel.add(new JLabel("Format:"), gbc);
+        gbc.gridx = 1;
+        fieldsPanel.add(formatComboBox, gbc);
+        gbc.gridx = 2;
+        fieldsPanel.add(compressCheckBox, gbc);
+        
+        gbc.gridx = 0; gbc.gridy = 1;
+        fieldsPanel.add(new JLabel("From:"), gbc);
+        gbc.gridx = 1;
+        fieldsPanel.add(startDateField, gbc);
+        gbc.gridx = 2;
+        fieldsPanel.add(new JLabel("To:"), gbc);
+        gbc.gridx = 3;
+        fieldsPanel.add(endDateField, gbc);
+        
+        gbc.gridx = 0; gbc.gridy = 2;
+        fieldsPanel.add(new JLabel("Category:"), gbc);
+        gbc.gridx = 1;
+        fieldsPanel.add(categoryComboBox, gbc);
+        gbc.gridx = 2;
+        fieldsPanel.add(new JLabel("Type:"), gbc);
+        gbc.gridx = 3;
+        fieldsPanel.add(typeComboBox, gbc);
+        
+        JPanel progressPanel = new JPanel(new GridLayout(2, 1, 5, 5));
+        progressPanel.add(progressBar);
+        progressPanel.add(statusLabel);
+        
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        buttonPanel.add(exportButton);
+        buttonPanel.add(closeButton);
+        
+        JPanel content = new JPanel(new BorderLayout(5, 5));
+        content.setBorder(new EmptyBorder(10, 10, 10, 10));
+        content.add(fieldsPanel, BorderLayout.NORTH);
+        content.add(progressPanel, BorderLayout.CENTER);
+        content.add(buttonPanel, BorderLayout.SOUTH);
+        setContentPane(content);
+        pack();
+        setLocationRelativeTo(getOwner());
+    }
+    
+    private void startExport() {
+        TransactionFilter filter;
+        try {
+            filter = TransactionFilter.all().withDateRange(parseDate(startDateField), parseDate(endDateField));
+        } catch (Exception e) {
+            JOptionPane.showMessageDialog(this, "Please enter valid dates (yyyy-MM-dd) or leave them empty.", "Validation Error", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        if (categoryComboBox.getSelectedItem() instanceof Category) {
+            filter = filter.withCategory(((Category) categoryComboBox.getSelectedItem()).getId());
+        }
+        if (typeComboBox.getSelectedItem() instanceof Transaction.TransactionType) {
+            filter = filter.withType((Transaction.TransactionType) typeComboBox.getSelectedItem());
+        }
+        
+        ExportFormat format = (ExportFormat) formatComboBox.getSelectedItem();
+        boolean compress = compressCheckBox.isSelected();
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setSelectedFile(new File("transactions." + format.getExtension() + (compress ? ".gz" : "")));
+        if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        
+        LedgerExporter task = new LedgerExporter(transactionDAO, filter, format, compress, fileChooser.getSelectedFile().toPath());
+        exporter = task;
+        exportButton.setEnabled(false);
+        closeButton.setText("Cancel");
+        progressBar.setValue(0);
+        new SwingWorker<ExportResult, Void>() {
+            @Override
+            protected ExportResult doInBackground() throws Exception {
+                return task.run();
+            }
+            
+            @Override
+            protected void done() {
+                progressTimer.stop();
+                try {
+                    ExportResult result = get();
+                    statusLabel.setText(result != null ? result.toString() : "Export cancelled.");
+                    progressBar.setValue(result != null ? PROGRESS_STEPS : 0);
+                } catch (ExecutionException e) {
+                    statusLabel.setText("Export failed.");
+                    System.err.println("Error exporting transactions: " + e.getCause().getMessage());
+                    e.getCause().printStackTrace();
+                    JOptionPane.showMessageDialog(ExportDialog.this,
+                        "Error exporting transactions: " + e.getCause().getMessage(),
+                        "Error",
+                        JOptionPane.ERROR_MESSAGE);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                exporter = null;
+                exportButton.setEnabled(true);
+                closeButton.setText("Close");
+                closeButton.setEnabled(true);
+                pack();
+            }
+        }.execute();
+        progressTimer.start();
+    }
+    
+    private static LocalDate parseDate(JTextField field) {
+        String text = field.getText().trim();
+        return text.isEmpty() ? null : LocalDate.parse(text);
+    }
+    
+    private void showProgress() {
+        if (exporter == null) {
+            return;
+        }
+        int total = exporter.getTotalCount();
+        int exported = exporter.getExportedCount();
+        progressBar.setValue(total > 0 ? (int) ((long) exported * PROGRESS_STEPS / total) : 0);
+        statusLabel.setText(total >= 0
+            ? String.format("%,d of %,d rows exported", exported, total)
+            : "Counting rows...");
+    }
+    
+    private void closeOrCancel() {
+        if (exporter != null) {
+            exporter.cancel();
+            closeButton.setEnabled(false);
+        } else {
+            dispose();
+        }
+    }
+}
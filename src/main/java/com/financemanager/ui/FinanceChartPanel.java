@@ -1,8 +1,11 @@
 package com.financemanager.ui;
 
-import com.financemanager.dao.CategoryDAO;
-import com.financemanager.dao.TransactionDAO;
-import com.financemanager.model.Category;
+import com.financemanager.analytics.TransactionColumnStore;
+import com.financemanager.dao.AsyncCategoryDAO;
+import com.financemanager.dao.AsyncTransactionDAO;
+import com.financemanager.dao.TransactionFilter;
+import com.financemanager.event.DataChangeEvent;
+import com.financemanager.model.CategoryTotal;
 import com.financemanager.model.Transaction;
 
 import org.jfree.chart.ChartFactory;
@@ -10,35 +13,64 @@ import org.jfree.chart.ChartPanel;
 import org.jfree.chart.JFreeChart;
 import org.jfree.chart.plot.PiePlot;
 import org.jfree.data.general.DefaultPieDataset;
-import org.jfree.data.general.PieDataset;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
 import java.math.BigDecimal;
-import java.sql.SQLException;
 import java.time.LocalDate;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
- * Panel for displaying charts and data visualization
+ * Panel for displaying charts and data visualization.
+ *
+ * The two pie charts and their datasets live as long as the panel: a
+ * refresh only changes the slices whose totals moved, with change
+ * notification held back until the whole diff is applied, so each refresh
+ * repaints each chart once. Recently loaded totals are kept per period and
+ * data version, so switching back to a period shows it without a query.
+ * Rendered images need no cache of their own; ChartPanel already repaints
+ * from its buffer until the chart changes.
  */
 public class FinanceChartPanel extends JPanel implements MainFrame.Refreshable {
-    private TransactionDAO transactionDAO;
-    private CategoryDAO categoryDAO;
+    private static final int CACHED_PERIODS = 8;
+    
+    private AsyncTransactionDAO transactionDAO;
+    private AsyncCategoryDAO categoryDAO;
+    private TransactionColumnStore columnStore;
+    private RefreshScheduler<List<CategoryTotal>> refreshScheduler;
     
     private ChartPanel expenseChartPanel;
     private ChartPanel incomeChartPanel;
+    private DefaultPieDataset<String> expenseDataset;
+    private DefaultPieDataset<String> incomeDataset;
+    private TrendChartPanel trendChartPanel;
     private JComboBox<String> periodComboBox;
+    // Totals by period and data version; filled by loads, which finish on other threads
+    private final Map<String, List<CategoryTotal>> totalsCache = Collections.synchronizedMap(
+        new LinkedHashMap<String, List<CategoryTotal>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, List<CategoryTotal>> eldest) {
+                return size() > CACHED_PERIODS;
+            }
+        });
     
-    public FinanceChartPanel(TransactionDAO transactionDAO, CategoryDAO categoryDAO) {
+    public FinanceChartPanel(AsyncTransactionDAO transactionDAO, AsyncCategoryDAO categoryDAO,
+                             TransactionColumnStore columnStore) {
         this.transactionDAO = transactionDAO;
         this.categoryDAO = categoryDAO;
+        this.columnStore = columnStore;
+        this.refreshScheduler = new RefreshScheduler<>(this::loadTotals, this::updateCharts, this::showRefreshError,
+            () -> columnStore.getVersion(DataChangeEvent.Kind.TRANSACTIONS, DataChangeEvent.Kind.CATEGORIES));
         initializeComponents();
         setupLayout();
         setupEventHandlers();
+        RefreshScheduler.refreshOnChange(this, this::refresh);
     }
     
     private void initializeComponents() {
@@ -50,9 +82,12 @@ public class FinanceChartPanel extends JPanel implements MainFrame.Refreshable {
         periodComboBox = new JComboBox<>(periods);
         periodComboBox.setSelectedIndex(0);
         
-        // Initialize chart panels
-        expenseChartPanel = new ChartPanel(createExpenseChart());
-        incomeChartPanel = new ChartPanel(createIncomeChart());
+        // Start with empty charts; the first refresh fills them in the background
+        expenseDataset = new DefaultPieDataset<>();
+        incomeDataset = new DefaultPieDataset<>();
+        expenseChartPanel = new ChartPanel(createExpenseChart(expenseDataset));
+        incomeChartPanel = new ChartPanel(createIncomeChart(incomeDataset));
+        trendChartPanel = new TrendChartPanel(transactionDAO, columnStore);
     }
     
     private void setupLayout() {
@@ -61,11 +96,8 @@ public class FinanceChartPanel extends JPanel implements MainFrame.Refreshable {
         
         // Control panel
         JPanel controlPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
-        controlPanel.add(new JLabel("Period:"));
-        controlPanel.add(periodComboBox);
-        
         JButton refreshButton = new JButton("🔄 Refresh Charts");
-        refreshButton.addActionListener(e -> refresh());
+        refreshButton.addActionListener(e -> reload());
         controlPanel.add(refreshButton);
         
         // Charts panel
@@ -85,155 +117,166 @@ public class FinanceChartPanel extends JPanel implements MainFrame.Refreshable {
         chartsPanel.add(expensePanel);
         chartsPanel.add(incomePanel);
         
+        // The period only applies to the category breakdown; the trend spans the whole history
+        JPanel periodPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        periodPanel.add(new JLabel("Period:"));
+        periodPanel.add(periodComboBox);
+        
+        JPanel categoryTab = new JPanel(new BorderLayout());
+        categoryTab.add(periodPanel, BorderLayout.NORTH);
+        categoryTab.add(chartsPanel, BorderLayout.CENTER);
+        
+        JTabbedPane chartTabs = new JTabbedPane();
+        chartTabs.addTab("By Category", categoryTab);
+        chartTabs.addTab("Trend", trendChartPanel);
+        
         // Add panels to main panel
         mainPanel.add(controlPanel, BorderLayout.NORTH);
-        mainPanel.add(chartsPanel, BorderLayout.CENTER);
+        mainPanel.add(chartTabs, BorderLayout.CENTER);
         
         add(mainPanel, BorderLayout.CENTER);
     }
     
     private void setupEventHandlers() {
-        periodComboBox.addActionListener(e -> refresh());
+        periodComboBox.addActionListener(e -> refreshScheduler.forceRequest());
     }
     
     @Override
     public void refresh() {
-        SwingUtilities.invokeLater(() -> {
-            try {
-                updateCharts();
-            } catch (SQLException e) {
-                JOptionPane.showMessageDialog(this, 
-                    "Error refreshing charts: " + e.getMessage(), 
-                    "Error", 
-                    JOptionPane.ERROR_MESSAGE);
-                e.printStackTrace();
-            }
-        });
+        refreshScheduler.request();
+        trendChartPanel.refresh();
     }
     
-    private void updateCharts() throws SQLException {
-        // Update expense chart
-        PieDataset expenseDataset = createExpenseDataset();
-        JFreeChart expenseChart = ChartFactory.createPieChart(
-            "Expenses by Category",
-            expenseDataset,
-            true,
-            true,
-            false
-        );
-        expenseChartPanel.setChart(expenseChart);
-        
-        // Update income chart
-        PieDataset incomeDataset = createIncomeDataset();
-        JFreeChart incomeChart = ChartFactory.createPieChart(
-            "Income by Category",
-            incomeDataset,
-            true,
-            true,
-            false
-        );
-        incomeChartPanel.setChart(incomeChart);
+    @Override
+    public void reload() {
+        refreshScheduler.forceRequest();
+        trendChartPanel.reload();
     }
     
-    private JFreeChart createExpenseChart() {
-        try {
-            PieDataset dataset = createExpenseDataset();
-            JFreeChart chart = ChartFactory.createPieChart(
-                "Expenses by Category",
-                dataset,
-                true,
-                true,
-                false
-            );
-            
-            // Customize chart appearance
-            PiePlot plot = (PiePlot) chart.getPlot();
-            plot.setSectionOutlinesVisible(false);
-            plot.setLabelFont(new Font("SansSerif", Font.PLAIN, 10));
-            
-            return chart;
-        } catch (SQLException e) {
-            e.printStackTrace();
-            return ChartFactory.createPieChart("Error", new DefaultPieDataset(), true, true, false);
-        }
+    private void showRefreshError(Throwable error) {
+        JOptionPane.showMessageDialog(this, 
+            "Error refreshing charts: " + error.getMessage(), 
+            "Error", 
+            JOptionPane.ERROR_MESSAGE);
+        error.printStackTrace();
     }
     
-    private JFreeChart createIncomeChart() {
-        try {
-            PieDataset dataset = createIncomeDataset();
-            JFreeChart chart = ChartFactory.createPieChart(
-                "Income by Category",
-                dataset,
-                true,
-                true,
-                false
-            );
-            
-            // Customize chart appearance
-            PiePlot plot = (PiePlot) chart.getPlot();
-            plot.setSectionOutlinesVisible(false);
-            plot.setLabelFont(new Font("SansSerif", Font.PLAIN, 10));
-            
-            return chart;
-        } catch (SQLException e) {
-            e.printStackTrace();
-            return ChartFactory.createPieChart("Error", new DefaultPieDataset(), true, true, false);
-        }
+    private void updateCharts(List<CategoryTotal> totals) {
+        updateChart(expenseChartPanel.getChart(), expenseDataset, totals, Transaction.TransactionType.EXPENSE);
+        updateChart(incomeChartPanel.getChart(), incomeDataset, totals, Transaction.TransactionType.INCOME);
     }
     
-    private PieDataset createExpenseDataset() throws SQLException {
-        DefaultPieDataset dataset = new DefaultPieDataset();
-        
-        List<Transaction> transactions = getTransactionsForPeriod();
-        Map<Integer, BigDecimal> categoryTotals = new HashMap<>();
-        
-        // Calculate totals by category for expenses
-        for (Transaction transaction : transactions) {
-            if (transaction.getType() == Transaction.TransactionType.EXPENSE) {
-                int categoryId = transaction.getCategoryId();
-                BigDecimal currentTotal = categoryTotals.getOrDefault(categoryId, BigDecimal.ZERO);
-                categoryTotals.put(categoryId, currentTotal.add(transaction.getAmount()));
+    /**
+     * Brings {@code dataset} in line with the totals of one type, touching
+     * only the slices that changed, and repaints the chart once at the end.
+     */
+    private void updateChart(JFreeChart chart, DefaultPieDataset<String> dataset,
+                             List<CategoryTotal> totals, Transaction.TransactionType type) {
+        PiePlot<?> plot = (PiePlot<?>) chart.getPlot();
+        Map<String, CategoryTotal> current = new LinkedHashMap<>();
+        for (CategoryTotal total : totals) {
+            if (total.getType() == type) {
+                current.put(total.getCategoryName(), total);
             }
         }
         
-        // Add categories to dataset
-        for (Map.Entry<Integer, BigDecimal> entry : categoryTotals.entrySet()) {
-            Category category = categoryDAO.getCategoryById(entry.getKey());
-            if (category != null) {
-                dataset.setValue(category.getName(), entry.getValue());
+        chart.setNotify(false);
+        dataset.setNotify(false);
+        try {
+            for (String key : new ArrayList<>(dataset.getKeys())) {
+                if (!current.containsKey(key)) {
+                    dataset.remove(key);
+                }
             }
+            for (Map.Entry<String, CategoryTotal> entry : current.entrySet()) {
+                String key = entry.getKey();
+                BigDecimal amount = entry.getValue().getTotal().toBigDecimal();
+                // Values are always set as two-place decimals, so an unchanged total compares equal
+                Number value = dataset.getIndex(key) >= 0 ? dataset.getValue(key) : null;
+                if (!amount.equals(value)) {
+                    dataset.setValue(key, amount);
+                }
+                plot.setSectionPaint(key, parseColor(entry.getValue().getCategoryColor()));
+            }
+        } finally {
+            dataset.setNotify(true);
+            chart.setNotify(true);
+        }
+    }
+    
+    /**
+     * The category's colour, or null to let the plot pick one when the
+     * stored value is not a colour code.
+     */
+    private static Color parseColor(String color) {
+        if (color == null) {
+            return null;
+        }
+        try {
+            return Color.decode(color.trim());
+        } catch (NumberFormatException e) {
+            return null;
         }
+    }
+    
+    private JFreeChart createExpenseChart(DefaultPieDataset<String> dataset) {
+        JFreeChart chart = ChartFactory.createPieChart(
+            "Expenses by Category",
+            dataset,
+            true,
+            true,
+            false
+        );
         
-        return dataset;
+        // Customize chart appearance
+        PiePlot<?> plot = (PiePlot<?>) chart.getPlot();
+        plot.setSectionOutlinesVisible(false);
+        plot.setLabelFont(new Font("SansSerif", Font.PLAIN, 10));
+        
+        return chart;
     }
     
-    private PieDataset createIncomeDataset() throws SQLException {
-        DefaultPieDataset dataset = new DefaultPieDataset();
+    private JFreeChart createIncomeChart(DefaultPieDataset<String> dataset) {
+        JFreeChart chart = ChartFactory.createPieChart(
+            "Income by Category",
+            dataset,
+            true,
+            true,
+            false
+        );
         
-        List<Transaction> transactions = getTransactionsForPeriod();
-        Map<Integer, BigDecimal> categoryTotals = new HashMap<>();
+        // Customize chart appearance
+        PiePlot<?> plot = (PiePlot<?>) chart.getPlot();
+        plot.setSectionOutlinesVisible(false);
+        plot.setLabelFont(new Font("SansSerif", Font.PLAIN, 10));
         
-        // Calculate totals by category for income
-        for (Transaction transaction : transactions) {
-            if (transaction.getType() == Transaction.TransactionType.INCOME) {
-                int categoryId = transaction.getCategoryId();
-                BigDecimal currentTotal = categoryTotals.getOrDefault(categoryId, BigDecimal.ZERO);
-                categoryTotals.put(categoryId, currentTotal.add(transaction.getAmount()));
-            }
+        return chart;
+    }
+    
+    private CompletableFuture<List<CategoryTotal>> loadTotals() {
+        TransactionFilter filter = getFilterForPeriod();
+        String cacheKey = filter + "@" + columnStore.getVersion(
+            DataChangeEvent.Kind.TRANSACTIONS, DataChangeEvent.Kind.CATEGORIES);
+        List<CategoryTotal> cached = totalsCache.get(cacheKey);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
         }
         
-        // Add categories to dataset
-        for (Map.Entry<Integer, BigDecimal> entry : categoryTotals.entrySet()) {
-            Category category = categoryDAO.getCategoryById(entry.getKey());
-            if (category != null) {
-                dataset.setValue(category.getName(), entry.getValue());
+        // One aggregate pass yields both the expense and the income breakdown,
+        // in memory once the column store is loaded and in SQL until then
+        CompletableFuture<List<CategoryTotal>> totals = columnStore.isLoaded()
+            ? RefreshScheduler.compute(() -> columnStore.getTotalsByCategory(filter))
+            : transactionDAO.getTotalsByCategory(filter);
+        // Return the DAO's own future, so that cancelling a superseded load cancels its query
+        totals.whenComplete((loaded, error) -> {
+            if (error == null) {
+                totalsCache.put(cacheKey, loaded);
             }
-        }
-        
-        return dataset;
+        });
+        return totals;
     }
     
-    private List<Transaction> getTransactionsForPeriod() throws SQLException {
+    private TransactionFilter getFilterForPeriod() {
         String selectedPeriod = (String) periodComboBox.getSelectedItem();
         LocalDate now = LocalDate.now();
         
@@ -241,20 +284,20 @@ public class FinanceChartPanel extends JPanel implements MainFrame.Refreshable {
             case "This Month":
                 LocalDate startOfMonth = now.withDayOfMonth(1);
                 LocalDate endOfMonth = now.withDayOfMonth(now.lengthOfMonth());
-                return transactionDAO.getTransactionsByDateRange(startOfMonth, endOfMonth);
-                
+                return TransactionFilter.all().withDateRange(startOfMonth, endOfMonth);
+            
             case "Last 3 Months":
                 LocalDate threeMonthsAgo = now.minusMonths(3);
-                return transactionDAO.getTransactionsByDateRange(threeMonthsAgo, now);
-                
+                return TransactionFilter.all().withDateRange(threeMonthsAgo, now);
+            
             case "This Year":
                 LocalDate startOfYear = now.withDayOfYear(1);
                 LocalDate endOfYear = now.withDayOfYear(now.lengthOfYear());
-                return transactionDAO.getTransactionsByDateRange(startOfYear, endOfYear);
-                
+                return TransactionFilter.all().withDateRange(startOfYear, endOfYear);
+            
             case "All Time":
             default:
-                return transactionDAO.getAllTransactions();
+                return TransactionFilter.all();
         }
     }
 }
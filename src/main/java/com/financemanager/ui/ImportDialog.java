@@ -0,0 +1,208 @@
+package com.financemanager.ui;
+
+import com.financemanager.analytics.DuplicateFinder;
+import com.financemanager.dao.TransactionDAO;
+import com.financemanager.importer.ImportResult;
+import com.financemanager.importer.TransactionImporter;
+
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Modal dialog that runs an import in the background, shows its progress
+ * with a Cancel button, and ends with a summary and the list of rejected
+ * lines, which can be saved to a file. Rows already in the ledger are
+ * skipped and counted, and the imported rows can then be checked for
+ * near-duplicates. The panels pick up the imported rows from the change
+ * events, so nothing is refreshed here.
+ */
+class ImportDialog extends JDialog {
+    private static final int PROGRESS_STEPS = 1000;
+    private static final int POLL_MILLIS = 100;
+    
+    private final TransactionImporter importer;
+    private final TransactionDAO transactionDAO;
+    private final JProgressBar progressBar = new JProgressBar(0, PROGRESS_STEPS);
+    private final JLabel statusLabel = new JLabel(" ");
+    private final JTextArea reportArea = new JTextArea(12, 70);
+    private final JScrollPane reportScrollPane = new JScrollPane(reportArea);
+    private final JButton saveReportButton = new JButton("Save Report...");
+    private final JButton reviewDuplicatesButton = new JButton("Review Duplicates...");
+    private final JButton closeButton = new JButton("Cancel");
+    private final Timer progressTimer;
+    private ImportResult result;
+    
+    ImportDialog(Frame owner, TransactionImporter importer, String fileName, TransactionDAO transactionDAO) {
+        super(owner, "Import " + fileName, true);
+        this.importer = importer;
+        this.transactionDAO = transactionDAO;
+        this.progressTimer = new Timer(POLL_MILLIS, e -> showProgress());
+        initializeComponents(fileName);
+    }
+    
+    private void initializeComponents(String fileName) {
+        setDefaultCloseOperation(DO_NOTHING_ON_CLOSE);
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                closeOrCancel();
+            }
+        });
+        
+        progressBar.setStringPainted(true);
+        reportArea.setEditable(false);
+        reportArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        reportScrollPane.setBorder(BorderFactory.createTitledBorder("Rejected Lines"));
+        reportScrollPane.setVisible(false);
+        
+        saveReportButton.setVisible(false);
+        saveReportButton.addActionListener(e -> saveReport());
+        reviewDuplicatesButton.setVisible(false);
+        reviewDuplicatesButton.addActionListener(e -> reviewDuplicates());
+        closeButton.addActionListener(e -> closeOrCancel());
+        
+        JPanel progressPanel = new JPanel(new GridLayout(3, 1, 5, 5));
+        progressPanel.add(new JLabel("Importing " + fileName));
+        progressPanel.add(progressBar);
+        progressPanel.add(statusLabel);
+        
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        buttonPanel.add(reviewDuplicatesButton);
+        buttonPanel.add(saveReportButton);
+        buttonPanel.add(closeButton);
+        
+        JPanel content = new JPanel(new BorderLayout(5, 5));
+        content.setBorder(new EmptyBorder(10, 10, 10, 10));
+        content.add(progressPanel, BorderLayout.NORTH);
+        content.add(reportScrollPane, BorderLayout.CENTER);
+        content.add(buttonPanel, BorderLayout.SOUTH);
+        setContentPane(content);
+        pack();
+        setLocationRelativeTo(getOwner());
+    }
+    
+    /**
+     * Starts the import and blocks, like any modal dialog, until the user
+     * closes the dialog.
+     */
+    void runImport() {
+        new SwingWorker<ImportResult, Void>() {
+            @Override
+            protected ImportResult doInBackground() throws Exception {
+                return importer.run();
+            }
+            
+            @Override
+            protected void done() {
+                progressTimer.stop();
+                try {
+                    showResult(get());
+                } catch (ExecutionException e) {
+                    showFailure(e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }.execute();
+        progressTimer.start();
+        setVisible(true);
+    }
+    
+    private void showProgress() {
+        progressBar.setValue((int) (importer.getProgress() * PROGRESS_STEPS));
+        statusLabel.setText(String.format("%,d rows imported, %,d duplicates skipped, %,d lines rejected%s",
+            importer.getImportedCount(), importer.getDuplicateCount(), importer.getRejectedCount(),
+            importer.isCancelled() ? " - cancelling..." : ""));
+    }
+    
+    private void showResult(ImportResult result) {
+        this.result = result;
+        progressBar.setValue(PROGRESS_STEPS);
+        statusLabel.setText(String.format("%s %,d rows in %.1f s (%,d rows/min), %,d duplicates skipped, %,d lines rejected.",
+            result.isCancelled() ? "Cancelled after importing" : "Imported",
+            result.getImportedCount(), result.getElapsedMillis() / 1000.0, result.getRowsPerMinute(),
+            result.getDuplicateCount(), result.getRejectedCount()));
+        closeButton.setText("Close");
+        closeButton.setEnabled(true);
+        reviewDuplicatesButton.setVisible(result.getImportedCount() > 0);
+        pack();
+        
+        if (result.getRejectedCount() > 0) {
+            StringBuilder report = new StringBuilder();
+            for (ImportResult.RejectedLine line : result.getRejectedLines()) {
+                report.append(line).append('\n');
+            }
+            if (result.getRejectedCount() > result.getRejectedLines().size()) {
+                report.append(String.format("... and %,d more%n",
+                    result.getRejectedCount() - result.getRejectedLines().size()));
+            }
+            reportArea.setText(report.toString());
+            reportArea.setCaretPosition(0);
+            reportScrollPane.setVisible(true);
+            saveReportButton.setVisible(true);
+            pack();
+            setLocationRelativeTo(getOwner());
+        }
+    }
+    
+    private void showFailure(Throwable error) {
+        System.err.println("Error importing transactions: " + error.getMessage());
+        error.printStackTrace();
+        JOptionPane.showMessageDialog(this,
+            "Error importing transactions: " + error.getMessage(),
+            "Error",
+            JOptionPane.ERROR_MESSAGE);
+        dispose();
+    }
+    
+    private void closeOrCancel() {
+        if (result != null) {
+            dispose();
+        } else {
+            importer.cancel();
+            closeButton.setEnabled(false);
+        }
+    }
+    
+    /**
+     * Looks for near-duplicates of the imported rows, such as the same
+     * entry posted a day later or worded differently in another statement.
+     */
+    private void reviewDuplicates() {
+        DuplicateFinder finder = new DuplicateFinder(transactionDAO);
+        new DuplicateReviewDialog((Frame) getOwner(), transactionDAO, finder).review(
+            result.getFirstDate().minusDays(finder.getWindowDays()),
+            result.getLastDate().plusDays(finder.getWindowDays()),
+            result.getLastExistingId());
+    }
+    
+    private void saveReport() {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setSelectedFile(new File("rejected-lines.txt"));
+        if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        
+        List<String> lines = new ArrayList<>();
+        for (ImportResult.RejectedLine line : result.getRejectedLines()) {
+            lines.add(line.toString());
+        }
+        try {
+            Files.write(fileChooser.getSelectedFile().toPath(), lines);
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(this,
+                "Error saving report: " + e.getMessage(),
+                "Error",
+                JOptionPane.ERROR_MESSAGE);
+        }
+    }
+}
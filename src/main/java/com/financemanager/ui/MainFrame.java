@@ -1,15 +1,24 @@
 package com.financemanager.ui;
 
+import com.financemanager.analytics.TransactionColumnStore;
+import com.financemanager.dao.AsyncCategoryDAO;
+import com.financemanager.dao.AsyncTransactionDAO;
 import com.financemanager.dao.CategoryDAO;
 import com.financemanager.dao.TransactionDAO;
+import com.financemanager.importer.CsvImporter;
+import com.financemanager.importer.OfxImporter;
+import com.financemanager.importer.QifImporter;
+import com.financemanager.importer.TransactionImporter;
 import com.financemanager.model.Category;
 import com.financemanager.model.Transaction;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.io.File;
 import java.math.BigDecimal;
 import java.sql.SQLException;
 import java.time.LocalDate;
@@ -28,6 +37,10 @@ public class MainFrame extends JFrame {
     
     private TransactionDAO transactionDAO;
     private CategoryDAO categoryDAO;
+    private AsyncTransactionDAO asyncTransactionDAO;
+    private AsyncCategoryDAO asyncCategoryDAO;
+    private TransactionColumnStore columnStore;
+    private final JLabel statusLabel = new JLabel("Ready");
     
     public MainFrame() throws SQLException {
         initializeDAO();
@@ -40,6 +53,9 @@ public class MainFrame extends JFrame {
     private void initializeDAO() throws SQLException {
         transactionDAO = new TransactionDAO();
         categoryDAO = new CategoryDAO();
+        asyncTransactionDAO = new AsyncTransactionDAO(transactionDAO);
+        asyncCategoryDAO = new AsyncCategoryDAO(categoryDAO);
+        columnStore = new TransactionColumnStore(transactionDAO, categoryDAO);
     }
     
     private void initializeComponents() {
@@ -49,10 +65,10 @@ public class MainFrame extends JFrame {
         setLocationRelativeTo(null);
         
         // Initialize panels
-        dashboardPanel = new DashboardPanel(transactionDAO, categoryDAO);
-        transactionPanel = new TransactionPanel(transactionDAO, categoryDAO);
-        categoryPanel = new CategoryPanel(categoryDAO);
-        chartPanel = new FinanceChartPanel(transactionDAO, categoryDAO);
+        dashboardPanel = new DashboardPanel(asyncTransactionDAO, asyncCategoryDAO, columnStore);
+        transactionPanel = new TransactionPanel(transactionDAO, asyncCategoryDAO);
+        categoryPanel = new CategoryPanel(asyncCategoryDAO);
+        chartPanel = new FinanceChartPanel(asyncTransactionDAO, asyncCategoryDAO, columnStore);
         
         // Create tabbed pane
         tabbedPane = new JTabbedPane();
@@ -71,19 +87,30 @@ public class MainFrame extends JFrame {
         toolBar.setFloatable(false);
         
         JButton refreshButton = new JButton("🔄 Refresh");
-        refreshButton.addActionListener(e -> refreshAllPanels());
+        refreshButton.addActionListener(e -> reloadAllPanels());
         toolBar.add(refreshButton);
         
+        JButton importButton = new JButton("📥 Import...");
+        importButton.addActionListener(e -> importTransactions());
+        toolBar.add(importButton);
+        
+        JButton exportButton = new JButton("📤 Export...");
+        exportButton.addActionListener(e -> new ExportDialog(this, transactionDAO, categoryDAO).setVisible(true));
+        toolBar.add(exportButton);
+        
+        JButton duplicatesButton = new JButton("🔍 Duplicates...");
+        duplicatesButton.addActionListener(e -> new DuplicateReviewDialog(this, transactionDAO).review(null, null, 0));
+        toolBar.add(duplicatesButton);
+        
         toolBar.addSeparator();
         
-        JLabel statusLabel = new JLabel("Ready");
         toolBar.add(statusLabel);
         
         add(toolBar, BorderLayout.NORTH);
     }
     
     private void setupEventHandlers() {
-        // Add change listener to tabbed pane to refresh data when switching tabs
+        // Refresh the selected tab when switching; unchanged panels skip the reload, so this issues no SQL
         tabbedPane.addChangeListener(e -> {
             Component selectedComponent = tabbedPane.getSelectedComponent();
             if (selectedComponent instanceof Refreshable) {
@@ -94,27 +121,107 @@ public class MainFrame extends JFrame {
     
     private void loadInitialData() {
         refreshAllPanels();
+        
+        // Fill the analytics column store off the EDT; panels aggregate in SQL until it is ready
+        Thread storeLoader = new Thread(() -> {
+            try {
+                columnStore.load();
+                String status = String.format("Analytics ready: %,d transactions in memory (%.1f MB, %.1f bytes/row)",
+                    columnStore.size(), columnStore.getMemoryBytes() / (1024.0 * 1024.0), columnStore.getBytesPerRow());
+                SwingUtilities.invokeLater(() -> {
+                    statusLabel.setText(status);
+                    // The trend fell back to monthly buckets until now
+                    chartPanel.reload();
+                });
+            } catch (SQLException e) {
+                System.err.println("Error loading column store: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }, "column-store-loader");
+        storeLoader.setDaemon(true);
+        storeLoader.start();
     }
     
     private void refreshAllPanels() {
-        SwingUtilities.invokeLater(() -> {
-            try {
-                dashboardPanel.refresh();
-                transactionPanel.refresh();
-                categoryPanel.refresh();
-                chartPanel.refresh();
-            } catch (Exception e) {
-                JOptionPane.showMessageDialog(this, 
-                    "Error refreshing data: " + e.getMessage(), 
-                    "Error", 
-                    JOptionPane.ERROR_MESSAGE);
-                e.printStackTrace();
+        // Each refresh only schedules a background load, and none at all if the panel's data is unchanged
+        dashboardPanel.refresh();
+        transactionPanel.refresh();
+        categoryPanel.refresh();
+        chartPanel.refresh();
+    }
+    
+    private void reloadAllPanels() {
+        dashboardPanel.reload();
+        transactionPanel.reload();
+        categoryPanel.reload();
+        chartPanel.reload();
+    }
+    
+    private void importTransactions() {
+        JFileChooser fileChooser = new JFileChooser();
+        FileNameExtensionFilter allFormats =
+            new FileNameExtensionFilter("CSV and bank statements (*.csv, *.ofx, *.qfx, *.qif)", "csv", "ofx", "qfx", "qif");
+        fileChooser.addChoosableFileFilter(allFormats);
+        fileChooser.addChoosableFileFilter(new FileNameExtensionFilter("CSV files (*.csv)", "csv"));
+        fileChooser.addChoosableFileFilter(new FileNameExtensionFilter("OFX statements (*.ofx, *.qfx)", "ofx", "qfx"));
+        fileChooser.addChoosableFileFilter(new FileNameExtensionFilter("QIF statements (*.qif)", "qif"));
+        fileChooser.setFileFilter(allFormats);
+        if (fileChooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        
+        File file = fileChooser.getSelectedFile();
+        String name = file.getName().toLowerCase();
+        TransactionImporter importer;
+        if (name.endsWith(".csv")) {
+            importer = new CsvImporter(file.toPath(), transactionDAO, categoryDAO);
+        } else {
+            Category defaultCategory = chooseDefaultCategory();
+            if (defaultCategory == null) {
+                return;
             }
-        });
+            importer = name.endsWith(".qif")
+                ? new QifImporter(file.toPath(), transactionDAO, categoryDAO, defaultCategory.getId())
+                : new OfxImporter(file.toPath(), transactionDAO, categoryDAO, defaultCategory.getId());
+        }
+        // The panels reload themselves from the events published as the rows are committed
+        new ImportDialog(this, importer, file.getName(), transactionDAO).runImport();
+    }
+    
+    /**
+     * Asks which category statement entries without a known category go into.
+     */
+    private Category chooseDefaultCategory() {
+        try {
+            Object[] categories = categoryDAO.getAllCategories().toArray();
+            if (categories.length == 0) {
+                JOptionPane.showMessageDialog(this, "Please add a category first.", "Import", JOptionPane.WARNING_MESSAGE);
+                return null;
+            }
+            return (Category) JOptionPane.showInputDialog(this,
+                "Category for entries the statement does not categorize:",
+                "Import Statement",
+                JOptionPane.QUESTION_MESSAGE,
+                null,
+                categories,
+                categories[0]);
+        } catch (SQLException e) {
+            JOptionPane.showMessageDialog(this, "Error loading categories: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            return null;
+        }
     }
     
     // Interface for components that can be refreshed
     public interface Refreshable {
+        /**
+         * Brings the panel up to date, skipping the reload if the data it
+         * shows has not changed since it was last loaded.
+         */
         void refresh();
+        
+        /**
+         * Reloads the panel's data unconditionally.
+         */
+        void reload();
     }
 }
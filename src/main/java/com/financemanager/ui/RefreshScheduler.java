@@ -0,0 +1,194 @@
+package com.financemanager.ui;
+
+import com.financemanager.event.DataChangeBus;
+import com.financemanager.event.DataChangeEvent;
+
+import javax.swing.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Refreshes one panel's data without blocking the EDT.
+ *
+ * The loader starts a background load and returns its future; the result is
+ * handed to the panel on the EDT, where it only swaps in the new model. At
+ * most one load is in flight: a request that arrives while one is running,
+ * or shortly after one started, is folded into a single follow-up load at
+ * the end of the burst, which cancels the stale one. So switching tabs back
+ * and forth costs at most one extra load per panel, never a queue of them.
+ *
+ * Each load records the {@link DataChangeBus} version of the kinds of data
+ * the panel shows; a request made while that version is unchanged does no
+ * work at all, and only {@link #forceRequest()} reloads regardless. Panels
+ * that read the column store record its applied version instead.
+ *
+ * All methods must be called on the EDT; the request methods hop there themselves.
+ */
+public class RefreshScheduler<T> {
+    // Requests closer together than this collapse into one load
+    private static final int COALESCE_DELAY_MS = 75;
+    
+    private final Supplier<CompletableFuture<T>> loader;
+    private final Consumer<T> onLoaded;
+    private final Consumer<Throwable> onError;
+    private final LongSupplier dataVersion;
+    private final Timer followUp;
+    
+    private CompletableFuture<T> inFlight;
+    private int generation;
+    // Data version of the last applied load and of the load in flight; -1 when there is none
+    private long loadedVersion = -1;
+    private long inFlightVersion = -1;
+    
+    /**
+     * @param loader   called on the EDT to start a load; must not block
+     * @param onLoaded applies a finished load on the EDT
+     * @param onError  reports a failed load on the EDT
+     * @param kinds    the kinds of data the load reads
+     */
+    public RefreshScheduler(Supplier<CompletableFuture<T>> loader, Consumer<T> onLoaded,
+                            Consumer<Throwable> onError, DataChangeEvent.Kind... kinds) {
+        this(loader, onLoaded, onError, versionOf(kinds.clone()));
+    }
+    
+    /**
+     * @param dataVersion the version of the data the load reads, for loads
+     *                    answered from a copy that applies changes after the
+     *                    bus announces them, such as the column store
+     */
+    public RefreshScheduler(Supplier<CompletableFuture<T>> loader, Consumer<T> onLoaded,
+                            Consumer<Throwable> onError, LongSupplier dataVersion) {
+        this.loader = loader;
+        this.onLoaded = onLoaded;
+        this.onError = onError;
+        this.dataVersion = dataVersion;
+        this.followUp = new Timer(COALESCE_DELAY_MS, e -> start());
+        this.followUp.setRepeats(false);
+    }
+    
+    /**
+     * Asks for fresh data if it has changed since the last load. Starts a
+     * load straight away when idle; otherwise schedules one follow-up load
+     * for the end of the current burst.
+     */
+    public void request() {
+        if (!SwingUtilities.isEventDispatchThread()) {
+            SwingUtilities.invokeLater(this::request);
+            return;
+        }
+        long version = dataVersion.getAsLong();
+        if (!followUp.isRunning() && (inFlight != null ? inFlightVersion : loadedVersion) == version) {
+            return;
+        }
+        forceRequest();
+    }
+    
+    /**
+     * Asks for fresh data whether or not it has changed, e.g. because the
+     * load's parameters have.
+     */
+    public void forceRequest() {
+        if (!SwingUtilities.isEventDispatchThread()) {
+            SwingUtilities.invokeLater(this::forceRequest);
+            return;
+        }
+        if (inFlight != null || followUp.isRunning()) {
+            followUp.restart();
+        } else {
+            start();
+        }
+    }
+    
+    /**
+     * Drops any pending request and cancels the load in flight.
+     */
+    public void cancel() {
+        followUp.stop();
+        generation++;
+        if (inFlight != null) {
+            inFlight.cancel(true);
+            inFlight = null;
+        }
+        inFlightVersion = -1;
+    }
+    
+    private void start() {
+        cancel();
+        int expectedGeneration = generation;
+        // Read before loading, so a write racing with the load leaves the result stale
+        long version = dataVersion.getAsLong();
+        
+        CompletableFuture<T> future;
+        try {
+            future = loader.get();
+        } catch (RuntimeException e) {
+            onError.accept(e);
+            return;
+        }
+        inFlight = future;
+        inFlightVersion = version;
+        future.whenComplete((result, error) ->
+            SwingUtilities.invokeLater(() -> finished(expectedGeneration, version, result, error)));
+    }
+    
+    private void finished(int expectedGeneration, long version, T result, Throwable error) {
+        if (expectedGeneration != generation) {
+            return; // Superseded by a newer load
+        }
+        inFlight = null;
+        inFlightVersion = -1;
+        
+        Throwable cause = unwrap(error);
+        if (cause == null) {
+            loadedVersion = version;
+            onLoaded.accept(result);
+        } else if (!(cause instanceof CancellationException)) {
+            onError.accept(cause);
+        }
+    }
+    
+    private static LongSupplier versionOf(DataChangeEvent.Kind[] kinds) {
+        return () -> DataChangeBus.getVersion(kinds);
+    }
+    
+    private static Throwable unwrap(Throwable error) {
+        while ((error instanceof CompletionException || error instanceof ExecutionException)
+               && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+    
+    /**
+     * Calls {@code refresh} on the EDT after every data change while
+     * {@code panel} is on screen. Panels that are hidden catch up through
+     * their version check the next time they are shown.
+     */
+    public static void refreshOnChange(JComponent panel, Runnable refresh) {
+        DataChangeBus.subscribe(DataChangeEvent.class, event -> SwingUtilities.invokeLater(() -> {
+            if (panel.isShowing()) {
+                refresh.run();
+            }
+        }));
+    }
+    
+    /**
+     * Runs {@code task} on the common pool, for loads that compute in memory
+     * rather than through the async DAOs.
+     */
+    public static <T> CompletableFuture<T> compute(Callable<T> task) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return task.call();
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+}
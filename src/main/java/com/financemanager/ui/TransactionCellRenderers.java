@@ -0,0 +1,161 @@
+package com.financemanager.ui;
+
+import com.financemanager.dao.CategoryDAO;
+import com.financemanager.model.Category;
+import com.financemanager.model.Money;
+import com.financemanager.model.Transaction;
+import com.financemanager.util.DateUtils;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableCellRenderer;
+import javax.swing.table.TableColumnModel;
+import java.sql.SQLException;
+import java.text.NumberFormat;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Renderers for the typed cells of {@link TransactionTableModel}. Values
+ * are formatted only when a cell is painted, by formatters created once per
+ * renderer; all renderers run on the EDT, so the formatters are not shared.
+ * Ids, dates and amounts keep the text of recently painted values, so
+ * repainting rows already on screen formats nothing.
+ * A null value is a row whose page is still loading and paints blank.
+ */
+final class TransactionCellRenderers {
+    private static final int ID_COLUMN = 0;
+    private static final int DATE_COLUMN = 1;
+    private static final int AMOUNT_COLUMN = 3;
+    private static final int TYPE_COLUMN = 4;
+    private static final int CATEGORY_COLUMN = 5;
+    // Comfortably more distinct values than a screenful of rows shows
+    private static final int CACHED_TEXTS = 512;
+    
+    private TransactionCellRenderers() {
+    }
+    
+    /**
+     * Installs the renderers on the columns of a table showing a
+     * {@link TransactionTableModel}.
+     */
+    static void install(JTable table, CategoryDAO categoryDAO) {
+        TableColumnModel columns = table.getColumnModel();
+        columns.getColumn(ID_COLUMN).setCellRenderer(new IdRenderer());
+        columns.getColumn(DATE_COLUMN).setCellRenderer(new DateRenderer());
+        columns.getColumn(AMOUNT_COLUMN).setCellRenderer(new AmountRenderer(Locale.getDefault(Locale.Category.FORMAT)));
+        columns.getColumn(TYPE_COLUMN).setCellRenderer(new TypeRenderer());
+        columns.getColumn(CATEGORY_COLUMN).setCellRenderer(new CategoryRenderer(categoryDAO));
+    }
+    
+    /**
+     * Formats each distinct value once and reuses the text while the value
+     * stays among the most recently painted.
+     */
+    private abstract static class CachingRenderer<T> extends DefaultTableCellRenderer {
+        private final Map<T, String> texts = new LinkedHashMap<T, String>(CACHED_TEXTS * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<T, String> eldest) {
+                return size() > CACHED_TEXTS;
+            }
+        };
+        private final Class<T> type;
+        
+        CachingRenderer(Class<T> type) {
+            this.type = type;
+        }
+        
+        @Override
+        protected void setValue(Object value) {
+            if (value == null) {
+                setText("");
+                return;
+            }
+            T typed = type.cast(value);
+            String text = texts.get(typed);
+            if (text == null) {
+                text = format(typed);
+                texts.put(typed, text);
+            }
+            setText(text);
+        }
+        
+        abstract String format(T value);
+    }
+    
+    private static final class IdRenderer extends CachingRenderer<Integer> {
+        IdRenderer() {
+            super(Integer.class);
+            setHorizontalAlignment(SwingConstants.RIGHT);
+        }
+        
+        @Override
+        String format(Integer id) {
+            return id.toString();
+        }
+    }
+    
+    private static final class DateRenderer extends CachingRenderer<LocalDate> {
+        DateRenderer() {
+            super(LocalDate.class);
+        }
+        
+        @Override
+        String format(LocalDate date) {
+            return DateUtils.DATE_FORMATTER.format(date);
+        }
+    }
+    
+    /**
+     * Amounts in the currency format of the user's locale, right-aligned so
+     * the decimal points line up.
+     */
+    private static final class AmountRenderer extends CachingRenderer<Money> {
+        private final NumberFormat currencyFormat;
+        
+        AmountRenderer(Locale locale) {
+            super(Money.class);
+            this.currencyFormat = NumberFormat.getCurrencyInstance(locale);
+            setHorizontalAlignment(SwingConstants.RIGHT);
+        }
+        
+        @Override
+        String format(Money amount) {
+            return currencyFormat.format(amount.toBigDecimal());
+        }
+    }
+    
+    private static final class TypeRenderer extends DefaultTableCellRenderer {
+        @Override
+        protected void setValue(Object value) {
+            setText(value != null ? ((Transaction.TransactionType) value).getDisplayName() : "");
+        }
+    }
+    
+    /**
+     * Category names looked up by id in the DAO's in-memory cache, so
+     * painting rows issues no queries.
+     */
+    private static final class CategoryRenderer extends DefaultTableCellRenderer {
+        private final CategoryDAO categoryDAO;
+        
+        CategoryRenderer(CategoryDAO categoryDAO) {
+            this.categoryDAO = categoryDAO;
+        }
+        
+        @Override
+        protected void setValue(Object value) {
+            setText(value != null ? nameOf((Integer) value) : "");
+        }
+        
+        private String nameOf(int categoryId) {
+            try {
+                Category category = categoryDAO.getCategoryById(categoryId);
+                return category != null ? category.getName() : "Unknown";
+            } catch (SQLException e) {
+                return "Unknown";
+            }
+        }
+    }
+}
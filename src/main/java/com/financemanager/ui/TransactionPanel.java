@@ -1,13 +1,19 @@
 package com.financemanager.ui;
 
+import com.financemanager.analytics.DuplicateFinder;
+import com.financemanager.dao.AsyncCategoryDAO;
 import com.financemanager.dao.CategoryDAO;
 import com.financemanager.dao.TransactionDAO;
+import com.financemanager.event.DataChangeEvent;
 import com.financemanager.model.Category;
+import com.financemanager.model.DuplicateCandidate;
+import com.financemanager.model.Money;
 import com.financemanager.model.Transaction;
+import com.financemanager.util.DateUtils;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.event.TableModelEvent;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
@@ -23,9 +29,11 @@ import java.util.List;
 public class TransactionPanel extends JPanel implements MainFrame.Refreshable {
     private TransactionDAO transactionDAO;
     private CategoryDAO categoryDAO;
+    private DuplicateFinder duplicateFinder;
+    private RefreshScheduler<List<Category>> categoryRefresh;
     
     private JTable transactionTable;
-    private DefaultTableModel tableModel;
+    private TransactionTableModel tableModel;
     private JComboBox<Category> categoryComboBox;
     private JComboBox<Transaction.TransactionType> typeComboBox;
     private JTextField descriptionField;
@@ -33,29 +41,30 @@ public class TransactionPanel extends JPanel implements MainFrame.Refreshable {
     private JTextField dateField;
     private JTextArea notesArea;
     
-    public TransactionPanel(TransactionDAO transactionDAO, CategoryDAO categoryDAO) {
+    public TransactionPanel(TransactionDAO transactionDAO, AsyncCategoryDAO categoryDAO) {
         this.transactionDAO = transactionDAO;
-        this.categoryDAO = categoryDAO;
+        this.categoryDAO = categoryDAO.getDelegate();
+        this.duplicateFinder = new DuplicateFinder(transactionDAO);
+        this.categoryRefresh = new RefreshScheduler<>(categoryDAO::getAllCategories, this::refreshCategoryComboBox,
+            this::showRefreshError, DataChangeEvent.Kind.CATEGORIES);
         initializeComponents();
         setupLayout();
         setupEventHandlers();
+        RefreshScheduler.refreshOnChange(this, this::refresh);
     }
     
     private void initializeComponents() {
         setLayout(new BorderLayout());
         setBorder(new EmptyBorder(10, 10, 10, 10));
         
-        // Create table for transactions
-        String[] columnNames = {"ID", "Date", "Description", "Amount", "Type", "Category", "Notes"};
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false; // Make table read-only
-            }
-        };
+        // Create table for transactions; rows are paged in as the table scrolls
+        tableModel = new TransactionTableModel(transactionDAO);
         transactionTable = new JTable(tableModel);
+        TransactionCellRenderers.install(transactionTable, categoryDAO);
         transactionTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         transactionTable.setRowHeight(25);
+        tableModel.addTableModelListener(this::keepVisibleRowsInPlace);
+        tableModel.reload();
         
         // Set column widths
         transactionTable.getColumnModel().getColumn(0).setPreferredWidth(50);
@@ -96,7 +105,7 @@ public class TransactionPanel extends JPanel implements MainFrame.Refreshable {
         JButton deleteButton = new JButton("🗑️ Delete");
         JButton editButton = new JButton("✏️ Edit");
         
-        refreshButton.addActionListener(e -> refresh());
+        refreshButton.addActionListener(e -> reload());
         deleteButton.addActionListener(e -> deleteSelectedTransaction());
         editButton.addActionListener(e -> editSelectedTransaction());
         
@@ -183,44 +192,26 @@ public class TransactionPanel extends JPanel implements MainFrame.Refreshable {
     
     @Override
     public void refresh() {
-        SwingUtilities.invokeLater(() -> {
-            try {
-                refreshTable();
-                refreshCategoryComboBox();
-            } catch (SQLException e) {
-                JOptionPane.showMessageDialog(this, 
-                    "Error refreshing transactions: " + e.getMessage(), 
-                    "Error", 
-                    JOptionPane.ERROR_MESSAGE);
-                e.printStackTrace();
-            }
-        });
+        // The table model applies row changes itself as they are published
+        categoryRefresh.request();
     }
     
-    private void refreshTable() throws SQLException {
-        tableModel.setRowCount(0); // Clear existing data
-        
-        List<Transaction> transactions = transactionDAO.getAllTransactions();
-        for (Transaction transaction : transactions) {
-            Category category = categoryDAO.getCategoryById(transaction.getCategoryId());
-            String categoryName = category != null ? category.getName() : "Unknown";
-            
-            Object[] row = {
-                transaction.getId(),
-                transaction.getDate().format(DateTimeFormatter.ofPattern("yyyy-MM-dd")),
-                transaction.getDescription(),
-                "$" + transaction.getAmount().toString(),
-                transaction.getType().getDisplayName(),
-                categoryName,
-                transaction.getNotes() != null ? transaction.getNotes() : ""
-            };
-            tableModel.addRow(row);
-        }
+    @Override
+    public void reload() {
+        tableModel.reload();
+        categoryRefresh.forceRequest();
+    }
+    
+    private void showRefreshError(Throwable error) {
+        JOptionPane.showMessageDialog(this, 
+            "Error refreshing transactions: " + error.getMessage(), 
+            "Error", 
+            JOptionPane.ERROR_MESSAGE);
+        error.printStackTrace();
     }
     
-    private void refreshCategoryComboBox() throws SQLException {
+    private void refreshCategoryComboBox(List<Category> categories) {
         categoryComboBox.removeAllItems();
-        List<Category> categories = categoryDAO.getAllCategories();
         for (Category category : categories) {
             categoryComboBox.addItem(category);
         }
@@ -237,7 +228,7 @@ public class TransactionPanel extends JPanel implements MainFrame.Refreshable {
             BigDecimal amount;
             try {
                 amount = new BigDecimal(amountField.getText().trim());
-                if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+                if (Money.toCents(amount) <= 0) {
                     throw new NumberFormatException();
                 }
             } catch (NumberFormatException e) {
@@ -252,6 +243,12 @@ public class TransactionPanel extends JPanel implements MainFrame.Refreshable {
                 JOptionPane.showMessageDialog(this, "Please enter a valid date (yyyy-MM-dd).", "Validation Error", JOptionPane.WARNING_MESSAGE);
                 return;
             }
+            if (!DateUtils.isValidTransactionDate(date)) {
+                JOptionPane.showMessageDialog(this,
+                    "Please enter a date between " + DateUtils.MIN_TRANSACTION_DATE + " and " + DateUtils.MAX_TRANSACTION_DATE + ".",
+                    "Validation Error", JOptionPane.WARNING_MESSAGE);
+                return;
+            }
             
             Category selectedCategory = (Category) categoryComboBox.getSelectedItem();
             if (selectedCategory == null) {
@@ -269,11 +266,14 @@ public class TransactionPanel extends JPanel implements MainFrame.Refreshable {
                 notesArea.getText().trim()
             );
             
+            if (!confirmNotDuplicate(transaction)) {
+                return;
+            }
+            
             // Save to database
             transactionDAO.insertTransaction(transaction);
             
-            // Refresh table and clear form
-            refresh();
+            // The table picks up the new row from the change event; just clear the form
             clearForm();
             
             JOptionPane.showMessageDialog(this, "Transaction added successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
@@ -287,6 +287,32 @@ public class TransactionPanel extends JPanel implements MainFrame.Refreshable {
         }
     }
     
+    /**
+     * Warns if the new transaction looks like one already in the ledger and
+     * asks whether to add it anyway. Returns true if it should be added.
+     */
+    private boolean confirmNotDuplicate(Transaction transaction) throws SQLException {
+        List<DuplicateCandidate> matches = duplicateFinder.findMatches(transaction);
+        if (matches.isEmpty()) {
+            return true;
+        }
+        
+        StringBuilder message = new StringBuilder("This looks like a transaction that already exists:\n");
+        for (DuplicateCandidate match : matches.subList(0, Math.min(5, matches.size()))) {
+            Transaction existing = match.getOriginal();
+            message.append(String.format("%n%s  %s  %s  (%s)", existing.getDate().format(DateTimeFormatter.ofPattern("yyyy-MM-dd")),
+                existing.getDescription(), existing.getAmount(), match.getMatch().getDisplayName().toLowerCase()));
+        }
+        message.append("\n\nAdd it anyway?");
+        
+        int confirm = JOptionPane.showConfirmDialog(this,
+            message.toString(),
+            "Possible Duplicate",
+            JOptionPane.YES_NO_OPTION,
+            JOptionPane.WARNING_MESSAGE);
+        return confirm == JOptionPane.YES_OPTION;
+    }
+    
     private void editSelectedTransaction() {
         int selectedRow = transactionTable.getSelectedRow();
         if (selectedRow == -1) {
@@ -295,8 +321,8 @@ public class TransactionPanel extends JPanel implements MainFrame.Refreshable {
         }
         
         try {
-            int transactionId = (Integer) tableModel.getValueAt(selectedRow, 0);
-            Transaction transaction = transactionDAO.getTransactionById(transactionId);
+            Transaction selected = tableModel.getTransactionAt(selectedRow);
+            Transaction transaction = selected != null ? transactionDAO.getTransactionById(selected.getId()) : null;
             
             if (transaction != null) {
                 // Populate form with transaction data
@@ -342,11 +368,10 @@ public class TransactionPanel extends JPanel implements MainFrame.Refreshable {
         
         if (confirm == JOptionPane.YES_OPTION) {
             try {
-                int transactionId = (Integer) tableModel.getValueAt(selectedRow, 0);
-                boolean deleted = transactionDAO.deleteTransaction(transactionId);
+                Transaction selected = tableModel.getTransactionAt(selectedRow);
+                boolean deleted = selected != null && transactionDAO.deleteTransaction(selected.getId());
                 
                 if (deleted) {
-                    refresh();
                     JOptionPane.showMessageDialog(this, "Transaction deleted successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
                 } else {
                     JOptionPane.showMessageDialog(this, "Failed to delete transaction.", "Error", JOptionPane.ERROR_MESSAGE);
@@ -361,6 +386,30 @@ public class TransactionPanel extends JPanel implements MainFrame.Refreshable {
         }
     }
     
+    /**
+     * Rows inserted or deleted above the viewport would otherwise shift the
+     * rows the user is looking at; scroll by the same amount to keep them put.
+     */
+    private void keepVisibleRowsInPlace(TableModelEvent e) {
+        if (e.getType() == TableModelEvent.UPDATE || e.getFirstRow() == TableModelEvent.HEADER_ROW) {
+            return;
+        }
+        JViewport viewport = (JViewport) SwingUtilities.getAncestorOfClass(JViewport.class, transactionTable);
+        if (viewport == null) {
+            return;
+        }
+        Point position = viewport.getViewPosition();
+        int firstVisibleRow = transactionTable.rowAtPoint(position);
+        if (position.y == 0 || firstVisibleRow == -1 || e.getFirstRow() >= firstVisibleRow) {
+            return;
+        }
+        
+        int rows = e.getLastRow() - e.getFirstRow() + 1;
+        int delta = (e.getType() == TableModelEvent.INSERT ? rows : -rows) * transactionTable.getRowHeight();
+        // Applied after the table has resized for the change
+        SwingUtilities.invokeLater(() -> viewport.setViewPosition(new Point(position.x, Math.max(0, position.y + delta))));
+    }
+    
     private void clearForm() {
         descriptionField.setText("");
         amountField.setText("");
@@ -0,0 +1,471 @@
+package com.financemanager.ui;
+
+import com.financemanager.dao.PageKey;
+import com.financemanager.dao.TransactionDAO;
+import com.financemanager.event.BulkDeleted;
+import com.financemanager.event.BulkImported;
+import com.financemanager.event.CategoryChanged;
+import com.financemanager.event.DataChangeBus;
+import com.financemanager.event.DataChangeEvent;
+import com.financemanager.event.TransactionDeleted;
+import com.financemanager.event.TransactionInserted;
+import com.financemanager.event.TransactionUpdated;
+import com.financemanager.model.Money;
+import com.financemanager.model.Transaction;
+
+import javax.swing.*;
+import javax.swing.event.TableModelEvent;
+import javax.swing.table.AbstractTableModel;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Table model that loads transactions page by page as the table asks for
+ * rows. Pages are fetched with keyset pagination on a background thread and
+ * only a small LRU window of them is kept in memory, so opening the table
+ * costs the same whether the ledger holds a thousand rows or ten million.
+ *
+ * Single-row writes published on {@link DataChangeBus} are applied in place:
+ * the rows ahead of the changed row's key are counted to find its position,
+ * and the cached pages are shifted around it with one fine-grained table
+ * event, so the table never reloads for them. Bulk imports and explicit
+ * {@link #reload()} calls re-read everything.
+ *
+ * Cells hold the transaction's own typed values rather than display
+ * strings; {@link TransactionCellRenderers} formats them as they are
+ * painted, so only the visible cells are ever formatted.
+ *
+ * All state is confined to the EDT; the loader thread and the writing
+ * thread only run queries.
+ */
+public class TransactionTableModel extends AbstractTableModel {
+    static final int PAGE_SIZE = 200;
+    private static final int MAX_CACHED_PAGES = 12;
+    private static final int MAX_ANCHORS = 4096;
+    private static final int CATEGORY_COLUMN = 5;
+    private static final String[] COLUMN_NAMES = {"ID", "Date", "Description", "Amount", "Type", "Category", "Notes"};
+    private static final Class<?>[] COLUMN_CLASSES = {
+        Integer.class, LocalDate.class, String.class, Money.class,
+        Transaction.TransactionType.class, Integer.class, String.class
+    };
+    
+    private final TransactionDAO transactionDAO;
+    private final ExecutorService loader = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "transaction-page-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    private final Map<Integer, List<Transaction>> pages = new LinkedHashMap<Integer, List<Transaction>>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<Transaction>> eldest) {
+            return size() > MAX_CACHED_PAGES;
+        }
+    };
+    // Key of the last row of each page seen so far, so neighbouring pages can seek without OFFSET
+    private final Map<Integer, PageKey> anchors = new LinkedHashMap<Integer, PageKey>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, PageKey> eldest) {
+            return size() > MAX_ANCHORS;
+        }
+    };
+    private final Set<Integer> pendingPages = new HashSet<>();
+    // Pages whose load was read after a change not yet applied, to be requested again once it is
+    private final Set<Integer> stalePages = new HashSet<>();
+    private int rowCount;
+    private int generation;
+    // Transactions version the rows reflect: that of the last change applied, or of the last reload
+    private long appliedVersion = -1;
+    
+    public TransactionTableModel(TransactionDAO transactionDAO) {
+        this.transactionDAO = transactionDAO;
+        DataChangeBus.subscribe(DataChangeEvent.class, this::dataChanged);
+    }
+    
+    /**
+     * Drops all cached pages and re-reads the row count in the background.
+     */
+    public void reload() {
+        int expectedGeneration = ++generation;
+        pages.clear();
+        anchors.clear();
+        pendingPages.clear();
+        stalePages.clear();
+        
+        loader.submit(() -> {
+            try {
+                long version;
+                int count;
+                do {
+                    // Recount if a write landed meanwhile, so the count matches the version exactly
+                    version = DataChangeBus.getVersion(DataChangeEvent.Kind.TRANSACTIONS);
+                    count = transactionDAO.countTransactions();
+                } while (version != DataChangeBus.getVersion(DataChangeEvent.Kind.TRANSACTIONS));
+                
+                long countedVersion = version;
+                int counted = count;
+                SwingUtilities.invokeLater(() -> {
+                    if (expectedGeneration == generation) {
+                        appliedVersion = countedVersion;
+                        rowCount = counted;
+                        fireTableDataChanged();
+                    }
+                });
+            } catch (SQLException e) {
+                System.err.println("Error counting transactions: " + e.getMessage());
+            }
+        });
+    }
+    
+    /**
+     * The transaction shown in {@code row}, or null if its page is not loaded.
+     */
+    public Transaction getTransactionAt(int row) {
+        List<Transaction> page = pages.get(row / PAGE_SIZE);
+        if (page == null) {
+            requestPage(row / PAGE_SIZE);
+            return null;
+        }
+        int index = row % PAGE_SIZE;
+        if (index >= page.size()) {
+            if (row < rowCount) {
+                // A delete pulled rows up into this page but the page after it was not cached
+                requestPage(row / PAGE_SIZE);
+            }
+            return null;
+        }
+        return page.get(index);
+    }
+    
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+    
+    @Override
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+    
+    @Override
+    public String getColumnName(int column) {
+        return COLUMN_NAMES[column];
+    }
+    
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return COLUMN_CLASSES[column];
+    }
+    
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false; // Make table read-only
+    }
+    
+    @Override
+    public Object getValueAt(int row, int column) {
+        Transaction transaction = getTransactionAt(row);
+        if (transaction == null) {
+            return null;
+        }
+        
+        switch (column) {
+            case 0:
+                return transaction.getId();
+            case 1:
+                return transaction.getDate();
+            case 2:
+                return transaction.getDescription();
+            case 3:
+                return transaction.getMoney();
+            case 4:
+                return transaction.getType();
+            case 5:
+                return transaction.getCategoryId();
+            case 6:
+                return transaction.getNotes();
+            default:
+                return null;
+        }
+    }
+    
+    private void requestPage(int pageIndex) {
+        if (!pendingPages.add(pageIndex)) {
+            return;
+        }
+        
+        int expectedGeneration = generation;
+        boolean firstPage = pageIndex == 0;
+        List<Transaction> previousPage = pages.get(pageIndex - 1);
+        PageKey after = previousPage != null && !previousPage.isEmpty()
+            ? keyOf(previousPage.get(previousPage.size() - 1))
+            : anchors.get(pageIndex - 1);
+        
+        loader.submit(() -> {
+            try {
+                long versionBefore = DataChangeBus.getVersion(DataChangeEvent.Kind.TRANSACTIONS);
+                PageKey seek = after;
+                if (seek == null && !firstPage) {
+                    // Jumped to an unvisited region; locate its start once, then seek from there
+                    seek = transactionDAO.getPageKeyAtOffset(pageIndex * PAGE_SIZE - 1);
+                }
+                List<Transaction> page = firstPage || seek != null
+                    ? transactionDAO.getTransactionPage(seek, PAGE_SIZE)
+                    : Collections.emptyList();
+                long versionAfter = DataChangeBus.getVersion(DataChangeEvent.Kind.TRANSACTIONS);
+                SwingUtilities.invokeLater(() ->
+                    pageLoaded(expectedGeneration, versionBefore, versionAfter, pageIndex, page));
+            } catch (SQLException e) {
+                System.err.println("Error loading transactions page " + pageIndex + ": " + e.getMessage());
+                SwingUtilities.invokeLater(() -> {
+                    if (expectedGeneration == generation) {
+                        pendingPages.remove(pageIndex);
+                    }
+                });
+            }
+        });
+    }
+    
+    /**
+     * Caches a loaded page if no change landed while it was read and every
+     * change read before it has been applied to the cache.
+     */
+    private void pageLoaded(int expectedGeneration, long versionBefore, long versionAfter,
+                            int pageIndex, List<Transaction> page) {
+        if (expectedGeneration != generation) {
+            return;
+        }
+        pendingPages.remove(pageIndex);
+        
+        int firstRow = pageIndex * PAGE_SIZE;
+        int lastRow = Math.min(firstRow + PAGE_SIZE, rowCount) - 1;
+        if (versionAfter > appliedVersion) {
+            // May include a change not applied yet; the rows would double once it is
+            stalePages.add(pageIndex);
+            return;
+        }
+        if (versionBefore != versionAfter || versionAfter < appliedVersion) {
+            // Read before a change that has since been applied; repainting requests the page again
+            if (firstRow <= lastRow) {
+                fireTableRowsUpdated(firstRow, lastRow);
+            }
+            return;
+        }
+        
+        pages.put(pageIndex, page);
+        if (!page.isEmpty()) {
+            anchors.put(pageIndex, keyOf(page.get(page.size() - 1)));
+        }
+        if (firstRow <= lastRow) {
+            fireTableRowsUpdated(firstRow, lastRow);
+        }
+    }
+    
+    /**
+     * Called on the writing thread while it still holds the database writer,
+     * so the count that locates a row sees exactly the database this change
+     * left; the EDT then applies the result.
+     */
+    private void dataChanged(DataChangeEvent event) {
+        if (event instanceof CategoryChanged) {
+            SwingUtilities.invokeLater(this::categoriesChanged);
+        } else if (event instanceof BulkImported || event instanceof BulkDeleted) {
+            SwingUtilities.invokeLater(this::reload);
+        } else if (event.getKind() == DataChangeEvent.Kind.TRANSACTIONS) {
+            try {
+                Runnable change = locate(event);
+                if (change != null) {
+                    SwingUtilities.invokeLater(() -> applyChange(event.getVersion(), change));
+                }
+            } catch (SQLException e) {
+                System.err.println("Error locating changed transaction: " + e.getMessage());
+                SwingUtilities.invokeLater(this::reload);
+            }
+        }
+    }
+    
+    /**
+     * Works out where a single-row change goes and returns the cache update
+     * that applies it.
+     */
+    private Runnable locate(DataChangeEvent event) throws SQLException {
+        if (event instanceof TransactionInserted) {
+            Transaction inserted = ((TransactionInserted) event).getTransaction();
+            int row = transactionDAO.countTransactionsBefore(keyOf(inserted));
+            return () -> insertRow(row, inserted);
+        }
+        if (event instanceof TransactionDeleted) {
+            Transaction deleted = ((TransactionDeleted) event).getTransaction();
+            int row = transactionDAO.countTransactionsBefore(keyOf(deleted));
+            return () -> deleteRow(row, deleted.getId());
+        }
+        if (event instanceof TransactionUpdated) {
+            Transaction after = ((TransactionUpdated) event).getAfter();
+            PageKey oldKey = keyOf(((TransactionUpdated) event).getBefore());
+            PageKey newKey = keyOf(after);
+            if (compare(oldKey, newKey) == 0) {
+                return () -> replaceRow(after);
+            }
+            // Counted after the update, so the moved row is included if its new key sorts first
+            int oldRow = transactionDAO.countTransactionsBefore(oldKey) - (compare(newKey, oldKey) < 0 ? 1 : 0);
+            int newRow = transactionDAO.countTransactionsBefore(newKey);
+            return () -> {
+                deleteRow(oldRow, after.getId());
+                insertRow(newRow, after);
+            };
+        }
+        return null;
+    }
+    
+    private void applyChange(long version, Runnable change) {
+        if (version <= appliedVersion) {
+            return; // Already reflected by a reload that ran after the change
+        }
+        appliedVersion = version;
+        change.run();
+        
+        for (int pageIndex : stalePages) {
+            int firstRow = pageIndex * PAGE_SIZE;
+            int lastRow = Math.min(firstRow + PAGE_SIZE, rowCount) - 1;
+            if (firstRow <= lastRow) {
+                fireTableRowsUpdated(firstRow, lastRow);
+            }
+        }
+        stalePages.clear();
+    }
+    
+    private void insertRow(int row, Transaction transaction) {
+        row = Math.min(row, rowCount);
+        int pageIndex = row / PAGE_SIZE;
+        Map<Integer, List<Transaction>> old = cachedPagesFrom(pageIndex);
+        
+        // Every row from here on moves down one: each later page gains the last row of the one before it
+        for (int index : new TreeSet<>(old.keySet())) {
+            List<Transaction> page = new ArrayList<>(old.get(index));
+            if (index == pageIndex) {
+                if (row % PAGE_SIZE > page.size()) {
+                    continue;
+                }
+                page.add(row % PAGE_SIZE, transaction);
+            } else {
+                List<Transaction> previous = old.get(index - 1);
+                if (previous == null || previous.size() < PAGE_SIZE) {
+                    continue;
+                }
+                page.add(0, previous.get(PAGE_SIZE - 1));
+            }
+            if (page.size() > PAGE_SIZE) {
+                page.remove(PAGE_SIZE);
+            }
+            storePage(index, page);
+        }
+        
+        rowCount++;
+        fireTableRowsInserted(row, row);
+    }
+    
+    private void deleteRow(int row, int id) {
+        if (row >= rowCount) {
+            return;
+        }
+        int pageIndex = row / PAGE_SIZE;
+        Map<Integer, List<Transaction>> old = cachedPagesFrom(pageIndex);
+        List<Transaction> current = old.get(pageIndex);
+        if (current != null && row % PAGE_SIZE < current.size() && current.get(row % PAGE_SIZE).getId() != id) {
+            // The cache disagrees with the database about where the row is; drop it rather than guess
+            pages.clear();
+            anchors.clear();
+            old.clear();
+        }
+        
+        // Every later row moves up one: each page loses its first row to the one before it
+        for (int index : new TreeSet<>(old.keySet())) {
+            List<Transaction> page = new ArrayList<>(old.get(index));
+            int removed = index == pageIndex ? row % PAGE_SIZE : 0;
+            if (removed < page.size()) {
+                page.remove(removed);
+            }
+            List<Transaction> next = old.get(index + 1);
+            if (next != null && !next.isEmpty()) {
+                page.add(next.get(0));
+            }
+            // Without the next page the last row stays unknown and is fetched when shown
+            storePage(index, page);
+        }
+        
+        rowCount--;
+        fireTableRowsDeleted(row, row);
+    }
+    
+    private void replaceRow(Transaction transaction) {
+        for (Map.Entry<Integer, List<Transaction>> entry : pages.entrySet()) {
+            List<Transaction> page = entry.getValue();
+            for (int i = 0; i < page.size(); i++) {
+                if (page.get(i).getId() == transaction.getId()) {
+                    List<Transaction> updated = new ArrayList<>(page);
+                    updated.set(i, transaction);
+                    entry.setValue(updated);
+                    int row = entry.getKey() * PAGE_SIZE + i;
+                    fireTableRowsUpdated(row, row);
+                    return;
+                }
+            }
+        }
+    }
+    
+    private void categoriesChanged() {
+        // Only the names shown change, and the renderer reads those from the category cache
+        if (rowCount > 0) {
+            fireTableChanged(new TableModelEvent(this, 0, rowCount - 1, CATEGORY_COLUMN));
+        }
+    }
+    
+    /**
+     * Removes the cached pages at and after {@code pageIndex}, with the
+     * anchors that depend on them, and returns the removed pages.
+     */
+    private Map<Integer, List<Transaction>> cachedPagesFrom(int pageIndex) {
+        Map<Integer, List<Transaction>> removed = new HashMap<>();
+        pages.entrySet().removeIf(entry -> {
+            if (entry.getKey() >= pageIndex) {
+                removed.put(entry.getKey(), entry.getValue());
+                return true;
+            }
+            return false;
+        });
+        anchors.keySet().removeIf(index -> index >= pageIndex);
+        pendingPages.removeIf(index -> index >= pageIndex);
+        // Loads already in flight for these pages were read before the change and are discarded
+        return removed;
+    }
+    
+    private void storePage(int pageIndex, List<Transaction> page) {
+        pages.put(pageIndex, page);
+        if (page.size() == PAGE_SIZE) {
+            anchors.put(pageIndex, keyOf(page.get(PAGE_SIZE - 1)));
+        }
+    }
+    
+    private static PageKey keyOf(Transaction transaction) {
+        return new PageKey(transaction.getDate(), transaction.getId());
+    }
+    
+    /**
+     * Compares two keys in table order: negative if {@code a} is shown first.
+     */
+    private static int compare(PageKey a, PageKey b) {
+        int byDay = Long.compare(b.getDate().toEpochDay(), a.getDate().toEpochDay());
+        return byDay != 0 ? byDay : Integer.compare(b.getId(), a.getId());
+    }
+}
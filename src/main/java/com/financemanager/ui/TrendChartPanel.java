@@ -0,0 +1,257 @@
+package com.financemanager.ui;
+
+import com.financemanager.analytics.Lttb;
+import com.financemanager.analytics.TransactionColumnStore;
+import com.financemanager.dao.AsyncTransactionDAO;
+import com.financemanager.event.DataChangeEvent;
+import com.financemanager.model.TrendSeries;
+import com.financemanager.util.DateUtils;
+
+import org.jfree.chart.ChartFactory;
+import org.jfree.chart.ChartPanel;
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.axis.DateAxis;
+import org.jfree.chart.axis.ValueAxis;
+import org.jfree.chart.plot.XYPlot;
+import org.jfree.chart.renderer.xy.XYItemRenderer;
+import org.jfree.data.xy.XYSeries;
+import org.jfree.data.xy.XYSeriesCollection;
+
+import javax.swing.*;
+import java.awt.*;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.TimeZone;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Line chart of income, expenses and net (income minus expenses) per day,
+ * week or month over the whole history.
+ *
+ * Totals come from pre-aggregated buckets: the column store's range trees
+ * once it is loaded, and the monthly rollup or a per-day GROUP BY until
+ * then. Each line is reduced with {@link Lttb} to at most
+ * {@link #MAX_POINTS} points before it reaches JFreeChart, so even a daily
+ * series over decades stays interactive. Zooming or panning reloads only
+ * the visible range, so the view gains detail as it narrows: in Auto mode
+ * the finest bucket size that fits is used, and a fixed size is simply
+ * downsampled less.
+ */
+public class TrendChartPanel extends JPanel implements MainFrame.Refreshable {
+    private static final int MAX_POINTS = 2000;
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+    
+    private final AsyncTransactionDAO transactionDAO;
+    private final TransactionColumnStore columnStore;
+    private final RefreshScheduler<TrendSeries> refreshScheduler;
+    private final XYSeries incomeSeries = new XYSeries("Income", false, true);
+    private final XYSeries expenseSeries = new XYSeries("Expenses", false, true);
+    private final XYSeries netSeries = new XYSeries("Net", false, true);
+    
+    private JComboBox<String> granularityComboBox;
+    private ChartPanel chartPanel;
+    // Visible date range of the latest load as {first, last}; null for the whole history
+    private LocalDate[] requestedRange;
+    // Dates of the oldest and newest transactions as of the latest load; null until known
+    private volatile LocalDate[] dataRange;
+    
+    public TrendChartPanel(AsyncTransactionDAO transactionDAO, TransactionColumnStore columnStore) {
+        this.transactionDAO = transactionDAO;
+        this.columnStore = columnStore;
+        this.refreshScheduler = new RefreshScheduler<>(this::loadTrend, this::updateChart, this::showRefreshError,
+            () -> columnStore.getVersion(DataChangeEvent.Kind.TRANSACTIONS));
+        initializeComponents();
+        setupLayout();
+    }
+    
+    private void initializeComponents() {
+        setLayout(new BorderLayout());
+        
+        String[] granularities = new String[TrendSeries.Granularity.values().length + 1];
+        granularities[0] = "Auto";
+        for (TrendSeries.Granularity granularity : TrendSeries.Granularity.values()) {
+            granularities[granularity.ordinal() + 1] = granularity.getDisplayName();
+        }
+        granularityComboBox = new JComboBox<>(granularities);
+        granularityComboBox.addActionListener(e -> reload());
+        
+        XYSeriesCollection dataset = new XYSeriesCollection();
+        dataset.addSeries(incomeSeries);
+        dataset.addSeries(expenseSeries);
+        dataset.addSeries(netSeries);
+        JFreeChart chart = ChartFactory.createTimeSeriesChart(
+            "Income and Expenses",
+            "Date",
+            "Amount",
+            dataset,
+            true,
+            true,
+            false
+        );
+        
+        // Customize chart appearance
+        XYPlot plot = chart.getXYPlot();
+        XYItemRenderer renderer = plot.getRenderer();
+        renderer.setSeriesPaint(0, new Color(39, 174, 96));
+        renderer.setSeriesPaint(1, new Color(231, 76, 60));
+        renderer.setSeriesPaint(2, new Color(52, 152, 219));
+        // Buckets are placed at midnight UTC of their first day, so label them in UTC too
+        ((DateAxis) plot.getDomainAxis()).setTimeZone(TimeZone.getTimeZone("UTC"));
+        plot.getDomainAxis().addChangeListener(e -> visibleRangeChanged());
+        
+        chartPanel = new ChartPanel(chart);
+        chartPanel.setMouseWheelEnabled(true);
+    }
+    
+    private void setupLayout() {
+        JPanel controlPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        controlPanel.add(new JLabel("Buckets:"));
+        controlPanel.add(granularityComboBox);
+        controlPanel.add(new JLabel("Drag or scroll on the chart to zoom in."));
+        
+        add(controlPanel, BorderLayout.NORTH);
+        add(chartPanel, BorderLayout.CENTER);
+    }
+    
+    @Override
+    public void refresh() {
+        refreshScheduler.request();
+    }
+    
+    @Override
+    public void reload() {
+        refreshScheduler.forceRequest();
+    }
+    
+    private void showRefreshError(Throwable error) {
+        JOptionPane.showMessageDialog(this,
+            "Error refreshing trend chart: " + error.getMessage(),
+            "Error",
+            JOptionPane.ERROR_MESSAGE);
+        error.printStackTrace();
+    }
+    
+    /**
+     * Zooming, panning and restoring the full view all land here; the
+     * series are reloaded only when the visible dates actually moved.
+     */
+    private void visibleRangeChanged() {
+        if (!Arrays.equals(visibleRange(), requestedRange)) {
+            reload();
+        }
+    }
+    
+    /**
+     * The dates currently shown, clamped to the dates that hold transactions,
+     * or null when the chart shows everything. Zooming out past the data
+     * therefore neither reloads nor widens the range to load.
+     */
+    private LocalDate[] visibleRange() {
+        ValueAxis axis = chartPanel.getChart().getXYPlot().getDomainAxis();
+        if (axis.isAutoRange()) {
+            return null;
+        }
+        LocalDate[] data = dataRange;
+        long min = (data != null ? data[0] : DateUtils.MIN_TRANSACTION_DATE).toEpochDay();
+        long max = (data != null ? data[1] : DateUtils.MAX_TRANSACTION_DATE).toEpochDay();
+        long first = Math.floorDiv((long) axis.getLowerBound(), MILLIS_PER_DAY);
+        long last = Math.floorDiv((long) axis.getUpperBound(), MILLIS_PER_DAY);
+        return new LocalDate[] {
+            LocalDate.ofEpochDay(Math.min(Math.max(first, min), max)),
+            LocalDate.ofEpochDay(Math.min(Math.max(last, min), max))
+        };
+    }
+    
+    private CompletableFuture<TrendSeries> loadTrend() {
+        LocalDate[] range = visibleRange();
+        requestedRange = range;
+        int selected = granularityComboBox.getSelectedIndex();
+        TrendSeries.Granularity fixed = selected > 0 ? TrendSeries.Granularity.values()[selected - 1] : null;
+        
+        CompletableFuture<LocalDate[]> dates = columnStore.isLoaded()
+            ? RefreshScheduler.compute(columnStore::getDateRange)
+            : transactionDAO.getDateRange();
+        
+        // Cancelling the composed stage does not reach the queries behind it, so pass it on
+        CompletableFuture<Void> cancelled = new CompletableFuture<>();
+        cancelled.thenRun(() -> dates.cancel(true));
+        CompletableFuture<TrendSeries> trend = dates.thenCompose(data -> {
+            dataRange = data;
+            if (data == null) {
+                return CompletableFuture.completedFuture(TrendSeries.empty(TrendSeries.Granularity.MONTH));
+            }
+            LocalDate[] bounds = range != null ? clamp(range, data) : data;
+            TrendSeries.Granularity granularity = fixed != null ? fixed : finestFitting(bounds[0], bounds[1]);
+            // Only the monthly rollup is cheap in SQL, so finer buckets wait for the column store
+            CompletableFuture<TrendSeries> query = columnStore.isLoaded()
+                ? RefreshScheduler.compute(() -> columnStore.getTrend(granularity, bounds[0], bounds[1]))
+                : transactionDAO.getMonthlyTrend(bounds[0], bounds[1]);
+            // Runs at once if the load was cancelled while the dates were being read
+            cancelled.thenRun(() -> query.cancel(true));
+            return query;
+        });
+        trend.whenComplete((result, error) -> {
+            if (trend.isCancelled()) {
+                cancelled.complete(null);
+            }
+        });
+        return trend;
+    }
+    
+    /**
+     * {@code range} narrowed to {@code data}; a range beyond the data
+     * shrinks to the data's nearest day.
+     */
+    private static LocalDate[] clamp(LocalDate[] range, LocalDate[] data) {
+        LocalDate first = range[0].isBefore(data[0]) ? data[0] : range[0].isAfter(data[1]) ? data[1] : range[0];
+        LocalDate last = range[1].isAfter(data[1]) ? data[1] : range[1].isBefore(data[0]) ? data[0] : range[1];
+        return new LocalDate[] {first, last};
+    }
+    
+    /**
+     * The smallest bucket that spans [first, last] in no more points than
+     * are drawn, so Auto mode never needs to downsample.
+     */
+    private static TrendSeries.Granularity finestFitting(LocalDate first, LocalDate last) {
+        for (TrendSeries.Granularity granularity : TrendSeries.Granularity.values()) {
+            if (granularity.bucketCount(first, last) <= MAX_POINTS) {
+                return granularity;
+            }
+        }
+        return TrendSeries.Granularity.MONTH;
+    }
+    
+    private void updateChart(TrendSeries trend) {
+        int size = trend.size();
+        double[] x = new double[size];
+        double[] income = new double[size];
+        double[] expenses = new double[size];
+        double[] net = new double[size];
+        for (int i = 0; i < size; i++) {
+            x[i] = trend.getBucketStart(i).toEpochDay() * MILLIS_PER_DAY;
+            income[i] = trend.getIncomeCents(i) / 100.0;
+            expenses[i] = trend.getExpenseCents(i) / 100.0;
+            net[i] = trend.getNetCents(i) / 100.0;
+        }
+        
+        JFreeChart chart = chartPanel.getChart();
+        chart.setNotify(false);
+        try {
+            chart.setTitle("Income and Expenses (" + trend.getGranularity().getDisplayName() + ")");
+            fill(incomeSeries, x, income);
+            fill(expenseSeries, x, expenses);
+            fill(netSeries, x, net);
+        } finally {
+            chart.setNotify(true);
+        }
+    }
+    
+    private static void fill(XYSeries series, double[] x, double[] y) {
+        series.setNotify(false);
+        series.clear();
+        for (int index : Lttb.select(x, y, MAX_POINTS)) {
+            series.add(x[index], y[index], false);
+        }
+        series.setNotify(true);
+    }
+}
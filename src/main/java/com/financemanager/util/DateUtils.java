@@ -11,6 +11,9 @@ public class DateUtils {
     
     public static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
     public static final DateTimeFormatter DISPLAY_FORMATTER = DateTimeFormatter.ofPattern("MMM dd, yyyy");
+    // Range of transaction dates accepted on entry; anything outside is a typo such as 0202
+    public static final LocalDate MIN_TRANSACTION_DATE = LocalDate.of(1900, 1, 1);
+    public static final LocalDate MAX_TRANSACTION_DATE = LocalDate.of(2199, 12, 31);
     
     /**
      * Parse a date string in yyyy-MM-dd format
@@ -63,6 +66,13 @@ public class DateUtils {
         return now.withDayOfYear(now.lengthOfYear());
     }
     
+    /**
+     * Check if a date lies within the accepted range of transaction dates
+     */
+    public static boolean isValidTransactionDate(LocalDate date) {
+        return !date.isBefore(MIN_TRANSACTION_DATE) && !date.isAfter(MAX_TRANSACTION_DATE);
+    }
+    
     /**
      * Check if a date string is valid
      */
@@ -0,0 +1,53 @@
+package com.financemanager.importer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CsvFormatTest {
+    @Test
+    void splitsPlainFields() {
+        assertEquals(List.of("2024-01-05", "Coffee", "3.50"), split("2024-01-05,Coffee,3.50"));
+    }
+    
+    @Test
+    void keepsEmptyFields() {
+        assertEquals(List.of(""), split(""));
+        assertEquals(List.of("a", "", "b", ""), split("a,,b,"));
+    }
+    
+    @Test
+    void unquotesQuotedFields() {
+        assertEquals(List.of("1", "Smith, John", "2"), split("1,\"Smith, John\",2"));
+        assertEquals(List.of("", "x"), split("\"\",x"));
+    }
+    
+    @Test
+    void doubledQuoteStandsForOneQuote() {
+        assertEquals(List.of("say \"hi\"", "x"), split("\"say \"\"hi\"\"\",x"));
+        assertEquals(List.of("\""), split("\"\"\"\""));
+    }
+    
+    @Test
+    void keepsLineBreaksInQuotedFields() {
+        assertEquals(List.of("1", "two\r\nlines", "3"), split("1,\"two\r\nlines\",3"));
+    }
+    
+    @Test
+    void keepsTextAfterClosingQuote() {
+        assertEquals(List.of("ab c", "d"), split("\"ab\" c,d"));
+    }
+    
+    @Test
+    void reusesFieldList() {
+        List<String> fields = new ArrayList<>(List.of("stale"));
+        assertEquals(List.of("a", "b"), CsvFormat.split("a,b", fields));
+    }
+    
+    private static List<String> split(String record) {
+        return CsvFormat.split(record, new ArrayList<>());
+    }
+}
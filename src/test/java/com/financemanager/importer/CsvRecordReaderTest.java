@@ -0,0 +1,98 @@
+package com.financemanager.importer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CsvRecordReaderTest {
+    @TempDir
+    Path dir;
+    
+    @Test
+    void splitsLinesWithAnyLineEnd() throws IOException {
+        assertEquals(List.of("a,1", "b,2", "c,3"), readAll("a,1\nb,2\r\nc,3"));
+        assertEquals(List.of("a,1", "", "b,2"), readAll("a,1\r\n\r\nb,2\r\n"));
+    }
+    
+    @Test
+    void emptyFileHasNoRecords() throws IOException {
+        assertEquals(List.of(), readAll(""));
+    }
+    
+    @Test
+    void skipsByteOrderMark() throws IOException {
+        assertEquals(List.of("Date,Amount", "2024-01-05,12.50"), readAll("\uFEFFDate,Amount\n2024-01-05,12.50\n"));
+    }
+    
+    @Test
+    void keepsLineBreaksInsideQuotes() throws IOException {
+        Path file = write("1,\"two\nlines\",3\n2,\"crlf\r\ninside\",4\nlast\n");
+        try (CsvRecordReader reader = new CsvRecordReader(file, count -> { })) {
+            assertEquals("1,\"two\nlines\",3", reader.next());
+            assertEquals(1, reader.getLineNumber());
+            assertEquals("2,\"crlf\r\ninside\",4", reader.next());
+            assertEquals(3, reader.getLineNumber());
+            assertEquals("last", reader.next());
+            assertEquals(5, reader.getLineNumber());
+            assertNull(reader.next());
+        }
+    }
+    
+    @Test
+    void doubledQuotesDoNotEndQuotedField() throws IOException {
+        assertEquals(List.of("\"say \"\"hi\"\"\nthere\",x", "next"), readAll("\"say \"\"hi\"\"\nthere\",x\nnext\n"));
+    }
+    
+    @Test
+    void dropsCarriageReturnEndingOneBuffer() throws IOException {
+        // The CR is the last char of the first buffer and the LF the first of the next
+        String first = repeat('a', CsvRecordReader.BUFFER_SIZE - 1);
+        assertEquals(List.of(first, "next"), readAll(first + "\r\nnext\r\n"));
+    }
+    
+    @Test
+    void keepsRecordSpanningBuffers() throws IOException {
+        String first = repeat('a', CsvRecordReader.BUFFER_SIZE + 10);
+        assertEquals(List.of("x", first, "y"), readAll("x\n" + first + "\ny"));
+    }
+    
+    @Test
+    void decodesCharacterSplitAcrossBuffers() throws IOException {
+        // The two bytes of the e-acute straddle the end of the first buffer
+        String first = repeat('a', CsvRecordReader.BUFFER_SIZE - 1) + "\u00e9";
+        assertEquals(List.of(first, "next"), readAll(first + "\nnext"));
+    }
+    
+    private List<String> readAll(String content) throws IOException {
+        List<String> records = new ArrayList<>();
+        try (CsvRecordReader reader = new CsvRecordReader(write(content), count -> { })) {
+            for (String record = reader.next(); record != null; record = reader.next()) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+    
+    private Path write(String content) throws IOException {
+        Path file = dir.resolve("input.csv");
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+    
+    private static String repeat(char c, int count) {
+        StringBuilder text = new StringBuilder(count);
+        for (int i = 0; i < count; i++) {
+            text.append(c);
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,39 @@
+package com.financemanager.importer;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class QifImporterTest {
+    @Test
+    void keepsPlainAmounts() {
+        assertEquals("-42", QifImporter.normalizeAmount("-42"));
+        assertEquals("-42.50", QifImporter.normalizeAmount("-42.50"));
+    }
+    
+    @Test
+    void readsLastSeparatorAsDecimal() {
+        assertEquals("1234.56", QifImporter.normalizeAmount("1,234.56"));
+        assertEquals("-1234.56", QifImporter.normalizeAmount("-1.234,56"));
+        assertEquals("1234567.8", QifImporter.normalizeAmount("1.234.567,8"));
+    }
+    
+    @Test
+    void readsLoneCommaAsDecimal() {
+        assertEquals("12.5", QifImporter.normalizeAmount("12,5"));
+        assertEquals("-0.99", QifImporter.normalizeAmount("-0,99"));
+    }
+    
+    @Test
+    void dropsRepeatedGroupingSeparator() {
+        assertEquals("1234567", QifImporter.normalizeAmount("1,234,567"));
+        assertEquals("1234567", QifImporter.normalizeAmount("1.234.567"));
+    }
+    
+    @Test
+    void rejectsAmbiguousAmounts() {
+        assertNull(QifImporter.normalizeAmount("1,234"));
+        assertNull(QifImporter.normalizeAmount("-1.234"));
+    }
+}